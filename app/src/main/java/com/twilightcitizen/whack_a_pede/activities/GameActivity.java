@@ -18,12 +18,14 @@ import androidx.navigation.Navigation;
 import androidx.navigation.ui.NavigationUI;
 
 import com.twilightcitizen.whack_a_pede.R;
+import com.twilightcitizen.whack_a_pede.renderers.RenderHost;
 import com.twilightcitizen.whack_a_pede.utilities.SoundUtil;
 
 /*
 GameActivity hosts an ActionBar and a FragmentContainerView which acts as the application's
 navigation host, loading subordinate fragments to display and manage.  GameFragment is the
-default navigation target and the first fragment users will see at launch.
+default navigation target and the first fragment users will see at launch.  GameActivity also holds
+the RenderHost GameFragment draws the game with, so it outlives the fragment's view.
 */
 public class GameActivity extends AppCompatActivity {
     // Navigation controller.
@@ -31,6 +33,15 @@ public class GameActivity extends AppCompatActivity {
 
     public NavController getNavController() { return navController; }
 
+    // Render host holding the SurfaceView the game is drawn to, created when first needed.
+    private RenderHost renderHost;
+
+    public RenderHost getRenderHost() {
+        if( renderHost == null ) renderHost = new RenderHost( this );
+
+        return renderHost;
+    }
+
     // Interface for fragments that need to act on or consume a back press.
     public interface BackFragment {
         // Return true for consuming back presses or false if not.
@@ -58,6 +69,13 @@ public class GameActivity extends AppCompatActivity {
         SoundUtil.initialize( getApplicationContext() );
     }
 
+    // Release the render host once every fragment's view is destroyed along with the activity.
+    @Override protected void onDestroy() {
+        super.onDestroy();
+
+        if( renderHost != null ) renderHost.release();
+    }
+
     // Setup action bar navigation on start.
     @Override protected void onStart() {
         super.onStart();
@@ -0,0 +1,377 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.data;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.util.Log;
+
+import com.twilightcitizen.whack_a_pede.utilities.GLResourceUtil;
+import com.twilightcitizen.whack_a_pede.utilities.GLStateUtil;
+import com.twilightcitizen.whack_a_pede.utilities.LoggerUtil;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static android.opengl.GLES20.*;
+
+/*
+TextureAtlas packs several DPI-independent bitmap resources, or sprites, side by side into a single
+texture when loaded, and exposes the rectangle of texture coordinates, or region, where each ended
+up.  Sprites drawn from the same atlas share a texture, so a sprite batch can draw all of them with
+one draw call instead of switching textures between them.  Sprites are packed onto shelves from the
+tallest to the shortest in a square texture with sides a power of 2, as mipmapping requires, that
+doubles until they all fit.  Each sprite is surrounded by padding filled with copies of its own edge
+pixels, so filtering near its edges, even in the smaller mipmap levels, blends it with itself rather
+than with its neighbors.  Atlases live on the graphics hardware, so they must be created on the
+thread with the OpenGL context, as in onSurfaceCreated.  Sprites can instead be decoded and packed
+on any other thread beforehand, as Packed, leaving only the upload to the thread with the context.
+*/
+public class TextureAtlas {
+    // Region of an atlas texture in which a sprite was packed.
+    public static class Region {
+        // Texture the region is a part of.
+        private final int texture;
+
+        // Texture coordinates of the left, top, right, and bottom edges of the region.
+        private final float s0;
+        private final float t0;
+        private final float s1;
+        private final float t1;
+
+        private Region( int texture, float s0, float t0, float s1, float t1 ) {
+            this.texture = texture;
+            this.s0 = s0;
+            this.t0 = t0;
+            this.s1 = s1;
+            this.t1 = t1;
+        }
+
+        // Region covering the whole of some texture, as drawn in place of a sprite still loading.
+        public Region( int texture ) { this( texture, 0.0f, 0.0f, 1.0f, 1.0f ); }
+
+        // Expose texture and texture coordinates for read access.
+        public int getTexture() { return texture; }
+        public float getS0() { return s0; }
+        public float getT0() { return t0; }
+        public float getS1() { return s1; }
+        public float getT1() { return t1; }
+    }
+
+    /*
+    Packed holds where sprites of some sizes go in an atlas and the pixels of the atlas, as red,
+    green, blue, and alpha bytes ready to upload, which sprites are copied into one at a time.  None
+    of this needs the OpenGL context, so it can be done on any thread, and each sprite's bitmap can
+    be reused for the next once copied.  The pixels are kept after the upload, so an atlas shared
+    through GLResourceUtil can be uploaded again to a new context without decoding any sprite.
+    */
+    public static class Packed implements GLResourceUtil.Source {
+        // Length of the sides of the atlas, sizes of the sprites, and where their cells start.
+        private final int size;
+        private final int[] widths;
+        private final int[] heights;
+        private final int[] cellXs;
+        private final int[] cellYs;
+
+        // Pixels of the atlas, and of the last sprite copied, kept for copying the next.
+        private final ByteBuffer pixels;
+        private int[] spritePixels = new int[ 0 ];
+
+        /*
+        Pack sprites of some sizes into an atlas no larger than some size, as found on the thread
+        with the OpenGL context by getMaxSize.
+        */
+        public Packed( int[] widths, int[] heights, int maxSize ) {
+            this.widths = widths.clone();
+            this.heights = heights.clone();
+            cellXs = new int[ widths.length ];
+            cellYs = new int[ widths.length ];
+            size = pack( this.widths, this.heights, cellXs, cellYs, maxSize );
+            pixels = ByteBuffer.allocateDirect( size * size * 4 );
+        }
+
+        /*
+        Copy the pixels of a sprite into the atlas inside its padding, and fill the rest of its cell
+        with the nearest edge pixel, so the sprite appears to go on forever in every direction.  A
+        bitmap that turned out other than the size packed for is cut or extruded to fit it.
+        */
+        public void extrude( int sprite, Bitmap bitmap ) {
+            int bitmapWidth = bitmap.getWidth();
+            int bitmapHeight = bitmap.getHeight();
+
+            if( spritePixels.length < bitmapWidth * bitmapHeight )
+                spritePixels = new int[ bitmapWidth * bitmapHeight ];
+
+            bitmap.getPixels( spritePixels, 0, bitmapWidth, 0, 0, bitmapWidth, bitmapHeight );
+
+            int width = Math.min( widths[ sprite ], bitmapWidth );
+            int height = Math.min( heights[ sprite ], bitmapHeight );
+            int cellWidth = align( widths[ sprite ] + PADDING * 2 );
+            int cellHeight = align( heights[ sprite ] + PADDING * 2 );
+
+            for( int y = 0; y < cellHeight; y++ ) {
+                int spriteY = Math.min( height - 1, Math.max( 0, y - PADDING ) );
+
+                for( int x = 0; x < cellWidth; x++ ) {
+                    int spriteX = Math.min( width - 1, Math.max( 0, x - PADDING ) );
+                    int pixel = spritePixels[ spriteY * bitmapWidth + spriteX ];
+
+                    // Bitmap pixels put alpha before red, green, and blue, but OpenGL puts it last.
+                    pixels.putInt(
+                        ( ( cellYs[ sprite ] + y ) * size + cellXs[ sprite ] + x ) * 4,
+                        pixel << 8 | pixel >>> 24
+                    );
+                }
+            }
+        }
+
+        // Upload the pixels to a new texture, on the thread with the OpenGL context.
+        @Override public int create() { return upload( pixels, size ); }
+
+        // Atlases take 4 bytes for every pixel, and a third as many again for the mipmap.
+        @Override public int getByteCount( int handle ) { return size * size / 3 * 16; }
+        @Override public int getCachedByteCount() { return pixels.capacity(); }
+    }
+
+    // Tag for filtering any debug message logged.
+    private static final String TAG = "TextureAtlas";
+
+    /*
+    Pixels of padding on every side of a sprite, and the multiple packed cells are rounded up to.
+    Keeping cells on multiples of twice the padding keeps sprites from sharing texels with their
+    neighbors through the first few mipmap levels, which is as small as sprites are ever drawn.
+    */
+    private static final int PADDING = 8;
+    private static final int ALIGNMENT = PADDING * 2;
+
+    // Name the texture is shared by, or null if it is not shared.
+    private final String name;
+
+    // Handle to the texture on the graphics hardware, or 0 once released.
+    private int texture;
+
+    // Regions for the sprites, in the order their resources were given.
+    private final Region[] regions;
+
+    // Load and pack the sprites of some DPI-independent bitmap resources into a new texture.
+    public TextureAtlas( Context context, int... resourceIds ) {
+        this( packSprites( decodeSprites( context, resourceIds ) ) );
+    }
+
+    // Upload sprites already packed, on the thread with the OpenGL context.
+    public TextureAtlas( Packed packed ) {
+        this( null, packed, upload( packed.pixels, packed.size ) );
+    }
+
+    /*
+    Acquire a texture by name for sprites already packed, on the thread with the OpenGL context,
+    uploading them unless a texture by that name is already there, so the name must identify the
+    sprites and the sizes they were packed at.
+    */
+    public TextureAtlas( String name, Packed packed ) {
+        this( name, packed, GLResourceUtil.acquire( name, GLResourceUtil.Kind.texture, packed ) );
+    }
+
+    // Lay out regions for sprites packed into a texture.
+    private TextureAtlas( String name, Packed packed, int texture ) {
+        this.name = name;
+        this.texture = texture;
+        regions = new Region[ packed.widths.length ];
+
+        // Regions cover the sprites themselves, leaving out the padding.
+        for( int sprite = 0; sprite < regions.length; sprite++ ) {
+            float left = packed.cellXs[ sprite ] + PADDING;
+            float top = packed.cellYs[ sprite ] + PADDING;
+
+            regions[ sprite ] = new Region(
+                texture,
+                left / packed.size, top / packed.size,
+                ( left + packed.widths[ sprite ] ) / packed.size,
+                ( top + packed.heights[ sprite ] ) / packed.size
+            );
+        }
+    }
+
+    // Expose the texture and regions of the sprites by the order their resources were given.
+    public int getTexture() { return texture; }
+    public Region getRegion( int index ) { return regions[ index ]; }
+
+    /*
+    Delete the texture from the graphics hardware while its context is still current, or once
+    nothing else shares it where it is shared.
+    */
+    public void release() {
+        if( texture == 0 ) return;
+
+        if( name == null ) GLStateUtil.deleteTexture( texture );
+        else GLResourceUtil.release( name );
+
+        texture = 0;
+    }
+
+    // Largest atlas the graphics hardware allows, found on the thread with the OpenGL context.
+    public static int getMaxSize() {
+        final int[] maxSize = new int[ 1 ];
+
+        glGetIntegerv( GL_MAX_TEXTURE_SIZE, maxSize, 0 );
+
+        return maxSize[ 0 ];
+    }
+
+    // Decode the bitmap resources for every sprite without scaling or premultiplying them.
+    private static Bitmap[] decodeSprites( Context context, int[] resourceIds ) {
+        // Scaling can make bitmap dimensions not a power of 2 which can cause issues.
+        final BitmapFactory.Options options = new BitmapFactory.Options();
+
+        options.inScaled = false;
+        options.inPremultiplied = false;
+
+        Bitmap[] sprites = new Bitmap[ resourceIds.length ];
+
+        for( int sprite = 0; sprite < resourceIds.length; sprite++ ) {
+            sprites[ sprite ] = BitmapFactory.decodeResource(
+                context.getResources(), resourceIds[ sprite ], options
+            );
+
+            // Guard against a sprite that could not be decoded, freeing any that were.
+            if( sprites[ sprite ] == null ) {
+                if( LoggerUtil.DEBUGGING )
+                    Log.w( TAG, "Resource ID " + resourceIds[ sprite ] + " could not be decoded." );
+
+                for( int decoded = 0; decoded < sprite; decoded++ ) sprites[ decoded ].recycle();
+
+                throw new RuntimeException( "Texture Atlas Sprite Not Decoded" );
+            }
+        }
+
+        return sprites;
+    }
+
+    // Pack decoded sprites into an atlas as large as the graphics hardware allows, freeing them.
+    private static Packed packSprites( Bitmap[] sprites ) {
+        int[] widths = new int[ sprites.length ];
+        int[] heights = new int[ sprites.length ];
+
+        for( int sprite = 0; sprite < sprites.length; sprite++ ) {
+            widths[ sprite ] = sprites[ sprite ].getWidth();
+            heights[ sprite ] = sprites[ sprite ].getHeight();
+        }
+
+        try {
+            Packed packed = new Packed( widths, heights, getMaxSize() );
+
+            for( int sprite = 0; sprite < sprites.length; sprite++ )
+                packed.extrude( sprite, sprites[ sprite ] );
+
+            return packed;
+        } finally {
+            // Free up the bitmaps as they are no longer needed.
+            for( Bitmap sprite : sprites ) sprite.recycle();
+        }
+    }
+
+    /*
+    Pack padded sprites onto shelves from tallest to shortest, left to right, then top to bottom.
+    The atlas starts as the smallest square with sides a power of 2 that could hold all the cells by
+    area, and doubles whenever the cells do not all fit.  Returns the length of the sides.
+    */
+    private static int pack(
+        int[] widths, int[] heights, int[] cellXs, int[] cellYs, int maxSize
+    ) {
+        int[] cellWidths = new int[ widths.length ];
+        int[] cellHeights = new int[ widths.length ];
+        Integer[] order = new Integer[ widths.length ];
+        long area = 0L;
+
+        for( int sprite = 0; sprite < widths.length; sprite++ ) {
+            cellWidths[ sprite ] = align( widths[ sprite ] + PADDING * 2 );
+            cellHeights[ sprite ] = align( heights[ sprite ] + PADDING * 2 );
+            order[ sprite ] = sprite;
+            area += (long) cellWidths[ sprite ] * cellHeights[ sprite ];
+        }
+
+        Arrays.sort( order, ( a, b ) -> cellHeights[ b ] - cellHeights[ a ] );
+
+        int size = 1;
+
+        while( (long) size * size < area ) size *= 2;
+
+        while( size <= maxSize ) {
+            int x = 0;
+            int y = 0;
+            int shelfHeight = 0;
+            boolean isFitting = true;
+
+            for( int sprite : order ) {
+                // Start a new shelf below the last when the cell runs off the right side.
+                if( x + cellWidths[ sprite ] > size ) {
+                    x = 0;
+                    y += shelfHeight;
+                    shelfHeight = 0;
+                }
+
+                // Try a bigger atlas when the cell runs off the right side or the bottom.
+                if( x + cellWidths[ sprite ] > size || y + cellHeights[ sprite ] > size ) {
+                    isFitting = false;
+
+                    break;
+                }
+
+                cellXs[ sprite ] = x;
+                cellYs[ sprite ] = y;
+                x += cellWidths[ sprite ];
+                shelfHeight = Math.max( shelfHeight, cellHeights[ sprite ] );
+            }
+
+            if( isFitting ) return size;
+
+            size *= 2;
+        }
+
+        throw new RuntimeException( "Texture Atlas Too Large" );
+    }
+
+    // Round a length up to the next multiple of the alignment.
+    private static int align( int length ) {
+        return ( length + ALIGNMENT - 1 ) / ALIGNMENT * ALIGNMENT;
+    }
+
+    // Upload the atlas pixels to a new texture on the graphics hardware and mipmap it.
+    private static int upload( ByteBuffer atlasPixels, int size ) {
+        final int[] textures = new int[ 1 ];
+
+        glGenTextures( 1, textures, 0 );
+
+        // Guard against OpenGL failing to create the texture.
+        if( textures[ 0 ] == 0 ) throw new RuntimeException( "Texture Atlas Not Created" );
+
+        // Configure the texture with quality min- and magnification sampling for mipmaps.
+        GLStateUtil.bindTexture2D( textures[ 0 ] );
+        glTexParameteri( GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR_MIPMAP_LINEAR );
+        glTexParameteri( GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR );
+        // Sample edges of the atlas as they are, rather than wrapping around to the opposite edge.
+        glTexParameteri( GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE );
+        glTexParameteri( GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE );
+
+        // Pixels are kept as they are rather than premultiplied, just as for loose textures.
+        atlasPixels.rewind();
+
+        glTexImage2D(
+            GL_TEXTURE_2D, 0, GL_RGBA, size, size, 0, GL_RGBA, GL_UNSIGNED_BYTE, atlasPixels
+        );
+
+        // Generate the mipmap for the texture.
+        glGenerateMipmap( GL_TEXTURE_2D );
+
+        // Make sure any other texture commands do not affect this texture.
+        GLStateUtil.bindTexture2D( 0 );
+
+        return textures[ 0 ];
+    }
+}
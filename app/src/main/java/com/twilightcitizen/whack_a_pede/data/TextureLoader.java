@@ -0,0 +1,346 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.data;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.opengl.GLSurfaceView;
+import android.util.Log;
+
+import com.twilightcitizen.whack_a_pede.utilities.GLResourceUtil;
+import com.twilightcitizen.whack_a_pede.utilities.LoggerUtil;
+import com.twilightcitizen.whack_a_pede.utilities.TextureUtil;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+TextureLoader loads textures and texture atlases for a GLSurfaceView without holding up the thread
+with its OpenGL context.  Bitmap resources are decoded, or compressed textures read, one after the
+other on a thread of its own, and only the upload is queued to the thread with the OpenGL context,
+which is asked to draw again once it is done.  Bitmaps are sampled down by powers of 2 to no fewer
+pixels than they are drawn over on the screen, and those no longer needed are kept in a small pool
+for later bitmaps to be decoded into, rather than left for the garbage collector.  Textures are
+shared through GLResourceUtil by what they were loaded from and the size they were loaded for, which
+keeps what was uploaded, so loading one again, as for a new OpenGL context, hands it over at once
+without decoding anything.  Loads started for an OpenGL context that is since gone are cancelled, so
+nothing is uploaded to the wrong one.
+*/
+public class TextureLoader {
+    /*
+    Something to be handed a texture once uploaded, on the thread with the OpenGL context, along
+    with the name it is shared by, for releasing it through GLResourceUtil once done with it.
+    */
+    public interface OnTextureLoaded { void onTextureLoaded( String name, int texture ); }
+
+    // Something to be handed a texture atlas once uploaded, on the thread with the OpenGL context.
+    public interface OnAtlasLoaded { void onAtlasLoaded( TextureAtlas atlas ); }
+
+    // Bitmap a texture is uploaded from, kept for uploading it again to a new OpenGL context.
+    private static class BitmapSource implements GLResourceUtil.Source {
+        private final Bitmap bitmap;
+
+        private BitmapSource( Bitmap bitmap ) { this.bitmap = bitmap; }
+
+        @Override public int create() { return TextureUtil.uploadTexture( bitmap ); }
+
+        // Textures take 4 bytes for every pixel, and a third as many again for the mipmap.
+        @Override public int getByteCount( int handle ) {
+            return bitmap.getWidth() * bitmap.getHeight() / 3 * 16;
+        }
+
+        @Override public int getCachedByteCount() { return bitmap.getAllocationByteCount(); }
+    }
+
+    // Compressed texture a texture is uploaded from, kept for uploading it again.
+    private static class CompressedSource implements GLResourceUtil.Source {
+        private final ByteBuffer ktx;
+        private final int drawnWidth;
+        private final int drawnHeight;
+
+        private CompressedSource( ByteBuffer ktx, int drawnWidth, int drawnHeight ) {
+            this.ktx = ktx;
+            this.drawnWidth = drawnWidth;
+            this.drawnHeight = drawnHeight;
+        }
+
+        @Override public int create() {
+            return TextureUtil.uploadCompressedTexture( ktx, drawnWidth, drawnHeight );
+        }
+
+        // Compressed textures take no more bytes than every level of them, skipped or not.
+        @Override public int getByteCount( int handle ) { return ktx.capacity(); }
+        @Override public int getCachedByteCount() { return ktx.capacity(); }
+    }
+
+    // Tag for filtering any debug message logged.
+    private static final String TAG = "TextureLoader";
+
+    // Bitmaps kept for decoding into, which covers the lawn textures and a sprite at once.
+    private static final int MAX_POOLED_BITMAPS = 4;
+
+    // Context needed for reading resources and assets.
+    private final Context context;
+
+    // SurfaceView whose OpenGL context textures are uploaded to.
+    private final GLSurfaceView surfaceView;
+
+    // Thread decoding bitmaps one after the other.
+    private final ExecutorService executor =
+        Executors.newSingleThreadExecutor( runnable -> new Thread( runnable, TAG ) );
+
+    // Count of cancellations, so loads can tell if they were started before the last one.
+    private final AtomicInteger generation = new AtomicInteger();
+
+    // Bitmaps no longer needed, kept for decoding later bitmaps into.
+    private final List< Bitmap > pool = new ArrayList<>();
+
+    // Loader must have context and a SurfaceView to upload to.
+    public TextureLoader( Context context, GLSurfaceView surfaceView ) {
+        this.context = context;
+        this.surfaceView = surfaceView;
+    }
+
+    /*
+    Cancel every load in progress, as when the OpenGL context they would upload to is gone.  Loads
+    cancelled on the thread with the OpenGL context are never uploaded after.
+    */
+    public void cancel() { generation.incrementAndGet(); }
+
+    // Cancel every load in progress and stop the loading thread for good, freeing pooled bitmaps.
+    public void shutdown() {
+        cancel();
+        executor.shutdownNow();
+
+        synchronized( pool ) {
+            for( Bitmap bitmap : pool ) bitmap.recycle();
+
+            pool.clear();
+        }
+    }
+
+    /*
+    Load a texture from a DPI-independent bitmap resource, drawn over some number of pixels on the
+    screen, or from the compressed texture built for it where asked to and there is one, on the
+    thread with the OpenGL context.  The texture is handed over once uploaded, or 0 if it could not
+    be, or right away where it was loaded before.
+    */
+    public void loadTexture(
+        int resourceId, boolean isCompressed, int drawnWidth, int drawnHeight,
+        OnTextureLoaded onLoaded
+    ) {
+        final String name = "Texture " + resourceId + ( isCompressed ? " Compressed " : " " ) +
+            drawnWidth + "x" + drawnHeight;
+
+        GLResourceUtil.Source source = GLResourceUtil.getSource( name );
+
+        if( source != null ) {
+            onLoaded.onTextureLoaded(
+                name, GLResourceUtil.acquire( name, GLResourceUtil.Kind.texture, source )
+            );
+
+            return;
+        }
+
+        final int generation = this.generation.get();
+
+        executor.execute( () -> {
+            // Guard against loads cancelled before they start.
+            if( isCancelled( generation ) ) return;
+
+            final ByteBuffer ktx =
+                isCompressed ? TextureUtil.readCompressedTexture( context, resourceId ) : null;
+
+            if( ktx != null ) {
+                queueUpload( generation, () -> onLoaded.onTextureLoaded(
+                    name, GLResourceUtil.acquire(
+                        name, GLResourceUtil.Kind.texture,
+                        new CompressedSource( ktx, drawnWidth, drawnHeight )
+                    )
+                ), null );
+
+                return;
+            }
+
+            final Bitmap bitmap = decode( resourceId, drawnWidth, drawnHeight );
+
+            // Guard against bitmaps that could not be decoded, leaving any placeholder in place.
+            if( bitmap == null ) return;
+
+            queueUpload( generation, () -> onLoaded.onTextureLoaded( name, GLResourceUtil.acquire(
+                name, GLResourceUtil.Kind.texture, new BitmapSource( bitmap )
+            ) ), bitmap );
+        } );
+    }
+
+    /*
+    Load a texture atlas from the sprites of some DPI-independent bitmap resources, each drawn over
+    some number of pixels on the screen, and no larger than some size, as found by getMaxSize on the
+    thread with the OpenGL context, where this must be called.  Sizes are read first so sprites can
+    be packed before decoding, and each is then decoded into the bitmap the one before was copied
+    from.  The atlas is handed over once uploaded, or right away where it was loaded before.
+    */
+    public void loadAtlas(
+        int maxSize, int drawnWidth, int drawnHeight, OnAtlasLoaded onLoaded, int... resourceIds
+    ) {
+        final String name =
+            "Atlas " + Arrays.toString( resourceIds ) + " " + drawnWidth + "x" + drawnHeight;
+
+        GLResourceUtil.Source source = GLResourceUtil.getSource( name );
+
+        if( source instanceof TextureAtlas.Packed ) {
+            onLoaded.onAtlasLoaded( new TextureAtlas( name, (TextureAtlas.Packed) source ) );
+
+            return;
+        }
+
+        final int generation = this.generation.get();
+
+        executor.execute( () -> {
+            // Guard against loads cancelled before they start.
+            if( isCancelled( generation ) ) return;
+
+            final int[] widths = new int[ resourceIds.length ];
+            final int[] heights = new int[ resourceIds.length ];
+
+            for( int sprite = 0; sprite < resourceIds.length; sprite++ ) {
+                BitmapFactory.Options options = readBounds( resourceIds[ sprite ] );
+
+                options.inSampleSize = TextureUtil.getSampleSize(
+                    options.outWidth, options.outHeight, drawnWidth, drawnHeight
+                );
+
+                widths[ sprite ] = Math.max( 1, options.outWidth / options.inSampleSize );
+                heights[ sprite ] = Math.max( 1, options.outHeight / options.inSampleSize );
+            }
+
+            final TextureAtlas.Packed packed = new TextureAtlas.Packed( widths, heights, maxSize );
+
+            for( int sprite = 0; sprite < resourceIds.length; sprite++ ) {
+                // Guard against loads cancelled part way through.
+                if( isCancelled( generation ) ) return;
+
+                Bitmap bitmap = decode( resourceIds[ sprite ], drawnWidth, drawnHeight );
+
+                // Guard against sprites that could not be decoded, leaving any placeholder.
+                if( bitmap == null ) return;
+
+                packed.extrude( sprite, bitmap );
+                offer( bitmap );
+            }
+
+            queueUpload(
+                generation, () -> onLoaded.onAtlasLoaded( new TextureAtlas( name, packed ) ), null
+            );
+        } );
+    }
+
+    // Check if a load started in some generation has since been cancelled.
+    private boolean isCancelled( int generation ) { return this.generation.get() != generation; }
+
+    /*
+    Queue an upload to the thread with the OpenGL context and ask it to draw again afterward,
+    unless the load is cancelled by the time the upload would happen.  Any bitmap uploaded from is
+    kept along with the texture, or pooled if the upload is cancelled instead.
+    */
+    private void queueUpload( int generation, Runnable upload, Bitmap bitmap ) {
+        surfaceView.queueEvent( () -> {
+            if( !isCancelled( generation ) ) upload.run();
+            else if( bitmap != null ) offer( bitmap );
+        } );
+
+        surfaceView.requestRender();
+    }
+
+    // Read the dimensions of a bitmap resource without decoding its pixels.
+    private BitmapFactory.Options readBounds( int resourceId ) {
+        BitmapFactory.Options options = TextureUtil.newDecodeOptions();
+
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource( context.getResources(), resourceId, options );
+        options.inJustDecodeBounds = false;
+
+        return options;
+    }
+
+    /*
+    Decode a bitmap resource sampled down as far as it can be for the pixels it is drawn over, into
+    a pooled bitmap large enough to hold it where there is one.
+    */
+    private Bitmap decode( int resourceId, int drawnWidth, int drawnHeight ) {
+        BitmapFactory.Options options = readBounds( resourceId );
+
+        options.inSampleSize = TextureUtil.getSampleSize(
+            options.outWidth, options.outHeight, drawnWidth, drawnHeight
+        );
+
+        // Bitmaps must be mutable to be decoded into later, and are 4 bytes for every pixel.
+        options.inMutable = true;
+
+        options.inBitmap = obtain(
+            ( options.outWidth + options.inSampleSize - 1 ) / options.inSampleSize *
+            ( ( options.outHeight + options.inSampleSize - 1 ) / options.inSampleSize ) * 4
+        );
+
+        try {
+            Bitmap bitmap = TextureUtil.decodeTexture( context, resourceId, options );
+
+            // Keep the pooled bitmap if it could not be decoded into.
+            if( bitmap == null && options.inBitmap != null ) offer( options.inBitmap );
+
+            return bitmap;
+        } catch( IllegalArgumentException e ) {
+            // Decode into a new bitmap where the pooled bitmap could not be reused after all.
+            if( LoggerUtil.DEBUGGING ) Log.v( TAG, "Pooled bitmap not reused: " + e.getMessage() );
+
+            offer( options.inBitmap );
+            options.inBitmap = null;
+
+            return TextureUtil.decodeTexture( context, resourceId, options );
+        }
+    }
+
+    // Take the smallest pooled bitmap holding at least some number of bytes, if any.
+    private Bitmap obtain( int byteCount ) {
+        synchronized( pool ) {
+            Bitmap smallest = null;
+
+            for( Bitmap bitmap : pool )
+                if(
+                    bitmap.getAllocationByteCount() >= byteCount && (
+                        smallest == null ||
+                        bitmap.getAllocationByteCount() < smallest.getAllocationByteCount()
+                    )
+                )
+                    smallest = bitmap;
+
+            if( smallest != null ) pool.remove( smallest );
+
+            return smallest;
+        }
+    }
+
+    // Keep a bitmap no longer needed for decoding into later, or free it if the pool is full.
+    private void offer( Bitmap bitmap ) {
+        synchronized( pool ) {
+            if( bitmap.isMutable() && pool.size() < MAX_POOLED_BITMAPS ) {
+                pool.add( bitmap );
+
+                return;
+            }
+        }
+
+        bitmap.recycle();
+    }
+}
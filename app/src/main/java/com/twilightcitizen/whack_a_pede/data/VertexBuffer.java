@@ -0,0 +1,133 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.data;
+
+import com.twilightcitizen.whack_a_pede.utilities.GLResourceUtil;
+import com.twilightcitizen.whack_a_pede.utilities.GLStateUtil;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+import static android.opengl.GLES20.*;
+
+/*
+VertexBuffer holds vertex data in a vertex buffer object that lives on the graphics hardware, where
+it is uploaded only once at creation rather than marshalled over from the JVM environment every
+time it is drawn.  Drawing binds the buffer by its handle and tells OpenGL how many components to
+read for each vertex from which offset, and through which shader program's attribute location to
+pipe them, exactly as for vertices in client memory.  Buffers are shared by name through
+GLResourceUtil, which keeps the vertex data so a buffer lost along with its OpenGL context can be
+uploaded again, and uploads it only once for every new context however many share it, as when
+created in onSurfaceCreated.  They must only be released while their own context is still current.
+This borrows from OpenGL ES 2.0 for Android by Kevin Brothaler.
+*/
+public class VertexBuffer {
+    // Single precision floating point numbers require 4 bytes each.
+    private static final int BYTES_PER_FLOAT = 4;
+
+    // Vertex data a buffer is uploaded from, kept for uploading it again to a new OpenGL context.
+    private static class Source implements GLResourceUtil.Source {
+        private final float[] vertexData;
+
+        private Source( float[] vertexData ) { this.vertexData = vertexData; }
+
+        // Create a buffer on the graphics hardware and upload the vertex data to it.
+        @Override public int create() {
+            final int[] buffers = new int[ 1 ];
+
+            glGenBuffers( buffers.length, buffers, 0 );
+
+            // Guard against OpenGL failing to create the buffer.
+            if( buffers[ 0 ] == 0 ) return 0;
+
+            /*
+            Stage the floating point vertex data in a direct float buffer in native endian order
+            for the upload.  The staging buffer is only needed until the data is on the graphics
+            hardware, and OpenGL never reads from it again afterward.
+            */
+            FloatBuffer floatBuffer = ByteBuffer
+                .allocateDirect( vertexData.length * BYTES_PER_FLOAT )
+                .order( ByteOrder.nativeOrder() )
+                .asFloatBuffer()
+                .put( vertexData );
+
+            floatBuffer.position( 0 );
+
+            // Upload the data once, hinting to OpenGL that it will be drawn often but never changed.
+            glBindBuffer( GL_ARRAY_BUFFER, buffers[ 0 ] );
+
+            glBufferData(
+                GL_ARRAY_BUFFER, vertexData.length * BYTES_PER_FLOAT, floatBuffer, GL_STATIC_DRAW
+            );
+
+            glBindBuffer( GL_ARRAY_BUFFER, 0 );
+
+            return buffers[ 0 ];
+        }
+
+        // Vertex data takes as many bytes on the graphics hardware as it does here.
+        @Override public int getByteCount( int handle ) { return getCachedByteCount(); }
+        @Override public int getCachedByteCount() { return vertexData.length * BYTES_PER_FLOAT; }
+    }
+
+    // Name the buffer is shared by.
+    private final String name;
+
+    // Handle to the buffer on the graphics hardware, or 0 once released.
+    private int bufferId;
+
+    /*
+    Acquire a buffer on the graphics hardware by name, uploading an array of floating point data to
+    it unless a buffer by that name is already there, so the name must identify the data uploaded.
+    */
+    public VertexBuffer( String name, float[] vertexData ) {
+        this.name = name;
+
+        bufferId = GLResourceUtil.acquire(
+            name, GLResourceUtil.Kind.buffer, new Source( vertexData )
+        );
+
+        // Guard against OpenGL failing to create the buffer.
+        if( bufferId == 0 ) throw new RuntimeException( "Vertex Buffer Not Created" );
+    }
+
+    /*
+    Vertex data in the buffer is piped through the attribute in the program responsible for drawing
+    it which OpenGL specifies by location.  The offset is counted in floats from the start of the
+    buffer.  The component count lets OpenGL know how many components it should read for each
+    vertex, and the stride enables packing vertex data for different things within the same buffer,
+    like vertex coordinates and texture coordinates, such that OpenGL can skip over one or the other.
+    */
+    public void setVertexAttributePointer(
+        int offset, int attributeLocation, int componentCount, int stride
+    ) {
+        glBindBuffer( GL_ARRAY_BUFFER, bufferId );
+
+        // Set and enable the vertex data for the attribute of the specified shader program.
+        glVertexAttribPointer(
+            attributeLocation, componentCount, GL_FLOAT, false, stride, offset * BYTES_PER_FLOAT
+        );
+
+        GLStateUtil.enableVertexAttribArray( attributeLocation );
+
+        // Unbind the buffer so client memory vertex data can still be drawn elsewhere.
+        glBindBuffer( GL_ARRAY_BUFFER, 0 );
+    }
+
+    /*
+    Release the buffer while its context is still current, deleting it from the graphics hardware
+    once nothing else shares it.
+    */
+    public void release() {
+        if( bufferId == 0 ) return;
+
+        GLResourceUtil.release( name );
+        bufferId = 0;
+    }
+}
@@ -12,7 +12,6 @@ import android.app.AlertDialog;
 import android.content.Context;
 import android.content.DialogInterface;
 import android.content.Intent;
-import android.graphics.PixelFormat;
 import android.net.Uri;
 import android.opengl.GLSurfaceView;
 import android.os.Bundle;
@@ -37,13 +36,18 @@ import androidx.lifecycle.ViewModelProvider;
 import com.google.android.gms.common.images.ImageManager;
 import com.twilightcitizen.whack_a_pede.R;
 import com.twilightcitizen.whack_a_pede.activities.GameActivity;
+import com.twilightcitizen.whack_a_pede.renderers.FramePacer;
 import com.twilightcitizen.whack_a_pede.renderers.GameRenderer;
+import com.twilightcitizen.whack_a_pede.renderers.RenderHost;
+import com.twilightcitizen.whack_a_pede.simulation.GameSnapshot;
+import com.twilightcitizen.whack_a_pede.simulation.WhackAPedeWorld;
 import com.twilightcitizen.whack_a_pede.utilities.TimeUtil;
 import com.twilightcitizen.whack_a_pede.viewModels.AccountViewModel;
 import com.twilightcitizen.whack_a_pede.viewModels.GameViewModel;
 
 import static com.twilightcitizen.whack_a_pede.viewModels.GameViewModel.State;
 
+import java.io.File;
 import java.util.Locale;
 
 /*
@@ -53,6 +57,9 @@ avatar, current score, and time remaining; and a GLSurfaceView within a frame de
 displaying the Lawn where all the game's animations and inputs occur.
 */
 public class GameFragment extends Fragment {
+    // Name of the file in internal storage where the replay of the last game is kept.
+    private static final String REPLAY_FILE_NAME = "last_game.replay";
+
     // Context needed for some actions.
     private GameActivity gameActivity;
     
@@ -60,6 +67,10 @@ public class GameFragment extends Fragment {
     private GLSurfaceView gameSurfaceView;
     // Renderer that OpenGL will use to draw graphics to the SurfaceView.
     private GameRenderer gameRenderer;
+    // Frame pacer asking the SurfaceView for a frame at every vsync while the game runs.
+    private FramePacer framePacer;
+    // Render host of the activity holding all of these for longer than the fragment's view.
+    private RenderHost renderHost;
     // Flag prevents pausing or resuming non-existent renderer.
     private boolean rendererSet = false;
 
@@ -110,8 +121,8 @@ public class GameFragment extends Fragment {
     }
 
     /*
-        At view creation, find the frame for the Lawn within the layout, create the GLSurfaceView to go
-        into it, set it up with a renderer, and then add it to the frame, returning the modified view.
+        At view creation, find the frame for the Lawn within the layout, get the GLSurfaceView to go
+        into it from the activity, and then add it to the frame, returning the modified view.
         */
     @SuppressLint( "ClickableViewAccessibility" ) @Override public View onCreateView(
         LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState
@@ -120,29 +131,43 @@ public class GameFragment extends Fragment {
         View view = inflater.inflate( R.layout.fragment_game, container, false );
         FrameLayout frame = view.findViewById( R.id.frame_game );
 
-        // Create the SurfaceView where OpenGL will draw graphics.
-        gameSurfaceView = new GLSurfaceView( gameActivity );
-
-        // Create the renderer that OpenGL will use to draw graphics to the SurfaceView.
-        gameRenderer = new GameRenderer( gameActivity );
+        /*
+        Get the SurfaceView where OpenGL will draw graphics, and the frame pacer and renderer OpenGL
+        will use for it, from the activity, which keeps them across navigation to other screens, so
+        coming back does not repeat the work of setting them up.
+        */
+        renderHost = gameActivity.getRenderHost();
+        gameSurfaceView = renderHost.getSurfaceView();
+        framePacer = renderHost.getFramePacer();
+        gameRenderer = renderHost.getGameRenderer();
 
-        // Use OpenGL 2.0, and GameRenderer will do the drawing.
-        gameSurfaceView.setEGLContextClientVersion( 2 );
-        gameSurfaceView.setEGLConfigChooser( true );
-        gameSurfaceView.getHolder().setFormat( PixelFormat.RGBA_8888 );
-        gameSurfaceView.getHolder().setFormat( PixelFormat.TRANSPARENT );
-        gameSurfaceView.setRenderer( gameRenderer );
         gameSurfaceView.setOnTouchListener( this::onTouch );
 
         // Flag the renderer as set for the SurfaceView.
         rendererSet = true;
 
         // Add the SurfaceView to the GameFrame.
-        frame.addView( gameSurfaceView );
+        renderHost.attach( frame );
 
         return view;
     }
 
+    // Detach the SurfaceView from the GameFrame once it is gone, for the activity to keep.
+    @Override public void onDestroyView() {
+        if( rendererSet ) {
+            gameSurfaceView.setOnTouchListener( null );
+            renderHost.detach();
+        }
+
+        /*
+        Stop any thread looping the game in case the drawing thread ended before stopping it, as it
+        does when detached.  Nothing left queued on the drawing thread runs after that.
+        */
+        if( gameViewModel != null ) gameViewModel.stopSimulationThread();
+
+        super.onDestroyView();
+    }
+
     // Forward touches within the SurfaceView to the renderer.
     private boolean onTouch( View view, MotionEvent event ) {
         // Guard against touch events other than a tap.
@@ -194,9 +219,20 @@ public class GameFragment extends Fragment {
         // Remove observers to avoid them running without context.
         removeObservers();
 
+        // Stop asking for frames that would not be drawn.
+        if( rendererSet ) framePacer.stop();
+
         // Pause the SurfaceView when GameFragment stops.
         if( rendererSet ) gameSurfaceView.onPause();
 
+        /*
+        Stop any thread looping the game only once nothing is drawn from it.  The thread is started
+        and stopped on the drawing thread, so stopping it is queued there too, behind any start
+        still waiting, which would otherwise start it again after it was stopped here.
+        */
+        if( rendererSet ) gameSurfaceView.queueEvent( gameViewModel::stopSimulationThread );
+        else gameViewModel.stopSimulationThread();
+
         super.onStop();
     }
 
@@ -218,6 +254,15 @@ public class GameFragment extends Fragment {
         super.onResume();
     }
 
+    /*
+    Determine whether the game should loop on a thread of its own.  That only helps with another
+    core to run it on while the drawing thread draws, and is otherwise left to the drawing thread.
+    */
+    private boolean getIsLoopingOnOwnThread() {
+        return gameActivity.getResources().getBoolean( R.bool.loop_game_on_own_thread ) &&
+            Runtime.getRuntime().availableProcessors() > 1;
+    }
+
     // Restore view models.
     private void setupViewModels() {
         gameViewModel = new ViewModelProvider( gameActivity ).get( GameViewModel.class );
@@ -262,13 +307,8 @@ public class GameFragment extends Fragment {
 
     // Setup observers for the game and account view models.
     private void setupObservers() {
-        // Setup observers that will act on changes to score and time remaining in game view model.
-        gameViewModel.getScore().observe( gameActivity, this::onScoreChanged );
-        gameViewModel.getRemainingTimeMillis().observe( gameActivity, this::onTimeRemainingChanged );
-
-        // Setup centipede speed observer for tablets.
-        if( gameActivity.getResources().getBoolean( R.bool.is_tablet ) )
-            gameViewModel.getCentipedeSpeed().observe( gameActivity, this::onCentipedeSpeedChanged );
+        // Setup observer that will act on changes to scoring and timing in game view model.
+        gameViewModel.getSnapshot().observe( gameActivity, this::onSnapshotChanged );
     }
 
     // Setup observers for the game and account view models.
@@ -282,15 +322,10 @@ public class GameFragment extends Fragment {
     // Remove observers to avoid them running without context.
     private void removeObservers() {
         gameViewModel.getState().removeObservers( gameActivity );
-        gameViewModel.getScore().removeObservers( gameActivity );
-        gameViewModel.getRemainingTimeMillis().removeObservers( gameActivity );
+        gameViewModel.getSnapshot().removeObservers( gameActivity );
         accountViewModel.getProfilePicUri().removeObservers( gameActivity );
         accountViewModel.getDisplayName().removeObservers( gameActivity );
         accountViewModel.getIsSignedIn().removeObservers( gameActivity );
-
-        // Remove centipede speed observer for tablets.
-        if( gameActivity.getResources().getBoolean( R.bool.is_tablet ) )
-            gameViewModel.getCentipedeSpeed().removeObservers( gameActivity );
     }
 
     // Act on selected menu items.
@@ -347,6 +382,11 @@ public class GameFragment extends Fragment {
     // Observer to manage actions based on GameViewModel state.
     private void onGameStateChanged( State state ) {
         toggleMenuItemVisibility( state );
+        manageRendering( state );
+
+        // Keep a replay of the game just over so it can be played back exactly.
+        if( state == State.gameOver )
+            gameViewModel.saveReplay( new File( gameActivity.getFilesDir(), REPLAY_FILE_NAME ) );
 
         // Navigate to game over screen if needed.
         if( state == State.gameOver ) try {
@@ -361,9 +401,39 @@ public class GameFragment extends Fragment {
         manageSpeedometer( state );
     }
 
+    /*
+    Loop and draw the game at every vsync only while it is running, since nothing moves otherwise,
+    and draw it only on demand the rest of the time, as when its state changes.  Any thread of its
+    own the game loops on is started and stopped between frames on the drawing thread, so that the
+    game is never looped by both at once, and is only ever started while the game runs, if there are
+    cores to spare.  When drawing on demand, the drawing thread loops the game itself once for each
+    frame, so what is drawn is always up to date with what changed.  The SurfaceView also draws on
+    its own whenever it is created, resized, or resumed, as when returning with a new theme.
+    */
+    private void manageRendering( State state ) {
+        // Guard against managing rendering before there is a renderer.
+        if( !rendererSet ) return;
+
+        boolean isRunning = state == State.running;
+
+        if( isRunning && getIsLoopingOnOwnThread() )
+            gameSurfaceView.queueEvent( gameViewModel::startSimulationThread );
+        else
+            gameSurfaceView.queueEvent( gameViewModel::stopSimulationThread );
+
+        if( isRunning ) {
+            framePacer.start( gameSurfaceView.getDisplay() );
+
+            return;
+        }
+
+        framePacer.stop();
+        gameSurfaceView.requestRender();
+    }
+
     private void manageSpeedometer( State state ) {
         if( state != State.running ) onCentipedeSpeedChanged( 0.0f );
-        else gameViewModel.refreshCentipedeSpeed();
+        else onCentipedeSpeedChanged( gameViewModel.getLatestSnapshot().getCentipedeSpeed() );
     }
 
     // Toggle menu item visibility based on GameViewModel state.
@@ -396,27 +466,40 @@ public class GameFragment extends Fragment {
         itemViewLeaderboard.setVisible( signedIn );
     }
 
-    // Observer to update the score on the scoreboard when it changes in the game view model.
+    // Observer to update the scoreboard when scoring or timing change in the game view model.
+    private void onSnapshotChanged( GameSnapshot snapshot ) {
+        onScoreChanged( snapshot.getScore() );
+        onTimeRemainingChanged( snapshot.getRemainingTimeMillis() );
+
+        // Update the speedometer only for tablets, and only while centipedes are moving.
+        if(
+            gameActivity.getResources().getBoolean( R.bool.is_tablet ) &&
+            gameViewModel.getState().getValue() == State.running
+        )
+            onCentipedeSpeedChanged( snapshot.getCentipedeSpeed() );
+    }
+
+    // Update the score on the scoreboard.
     private void onScoreChanged( int score ) {
         // Format score with commas.
         textScore.setText( String.format( Locale.getDefault(), "%,d", score ) );
     }
 
-    // Observer to update the time remaining on the scoreboard when it changes in the view model.
+    // Update the time remaining on the scoreboard.
     private void onTimeRemainingChanged( long timeRemaining ) {
         // Format time remaining as MM:SS.
         textTimeRemaining.setText( TimeUtil.millisToMinutesAndSeconds( timeRemaining ) );
     }
 
-    // Observer to update the speedometer for tablets when it changes in the view model.
+    // Update the speedometer for tablets.
     private void onCentipedeSpeedChanged( float centipedeSpeed ) {
         float centipedeRange =
-            GameViewModel.CENTIPEDE_MAX_SPEED - GameViewModel.CENTIPEDE_START_SPEED;
+            WhackAPedeWorld.CENTIPEDE_MAX_SPEED - WhackAPedeWorld.CENTIPEDE_START_SPEED;
 
         float lawnsPerHourRange = 100.0f - 5.0f;
 
         float lawnsPerHourSpeed = (
-            centipedeSpeed - GameViewModel.CENTIPEDE_START_SPEED
+            centipedeSpeed - WhackAPedeWorld.CENTIPEDE_START_SPEED
         ) * lawnsPerHourRange / centipedeRange + 5.0f;
 
         int speedToReport = (int) ( centipedeSpeed == 0.0f ? centipedeSpeed :  lawnsPerHourSpeed );
@@ -30,6 +30,7 @@ import com.google.android.gms.common.images.ImageManager;
 import com.google.android.gms.games.leaderboard.ScoreSubmissionData;
 import com.twilightcitizen.whack_a_pede.R;
 import com.twilightcitizen.whack_a_pede.activities.GameActivity;
+import com.twilightcitizen.whack_a_pede.simulation.GameSnapshot;
 import com.twilightcitizen.whack_a_pede.utilities.PlayGamesUtil;
 import com.twilightcitizen.whack_a_pede.utilities.TimeUtil;
 import com.twilightcitizen.whack_a_pede.viewModels.AccountViewModel;
@@ -150,9 +151,7 @@ public class GameOverFragment extends Fragment implements GameActivity.BackFragm
     and display name.
     */
     private void setupObservers() {
-        gameViewModel.getScore().observe( gameActivity, this::onScoreChanged );
-        gameViewModel.getRounds().observe( gameActivity, this::onRoundChanged );
-        gameViewModel.getElapsedTimeMillis().observe( gameActivity, this::onElapsedTimeChanged );
+        gameViewModel.getSnapshot().observe( gameActivity, this::onSnapshotChanged );
         gameViewModel.getLeaderboardSync().observe( gameActivity, this::onLeaderboardSyncChanged );
         accountViewModel.getProfilePicUri().observe( gameActivity, this::onProfilePicUriChanged );
         accountViewModel.getDisplayName().observe( gameActivity, this::onDisplayNameChanged );
@@ -166,9 +165,7 @@ public class GameOverFragment extends Fragment implements GameActivity.BackFragm
 
     // Remove observers .
     private void removeObservers() {
-        gameViewModel.getScore().removeObservers( gameActivity );
-        gameViewModel.getRounds().removeObservers( gameActivity );
-        gameViewModel.getElapsedTimeMillis().removeObservers( gameActivity );
+        gameViewModel.getSnapshot().removeObservers( gameActivity );
         gameViewModel.getLeaderboardSync().removeObservers( gameActivity );
         accountViewModel.getProfilePicUri().removeObservers( gameActivity );
         accountViewModel.getDisplayName().removeObservers( gameActivity );
@@ -226,7 +223,14 @@ public class GameOverFragment extends Fragment implements GameActivity.BackFragm
         );
     }
 
-    // Observer to format the final score  when it changes in the game view model.
+    // Observer to format the final results when they change in the game view model.
+    private void onSnapshotChanged( GameSnapshot snapshot ) {
+        onScoreChanged( snapshot.getScore() );
+        onRoundChanged( snapshot.getRounds() );
+        onElapsedTimeChanged( snapshot.getElapsedTimeMillis() );
+    }
+
+    // Show the final score.
     private void onScoreChanged( int score ) {
         if( !isAdded() ) return;
 
@@ -236,7 +240,7 @@ public class GameOverFragment extends Fragment implements GameActivity.BackFragm
         );
     }
 
-    // Observer to format the total rounds when it changes in the game view model.
+    // Show the total rounds.
     private void onRoundChanged( int rounds ) {
         if( !isAdded() ) return;
 
@@ -246,7 +250,7 @@ public class GameOverFragment extends Fragment implements GameActivity.BackFragm
         onRoundsInTimeChanged();
     }
 
-    // Observer to update the elapsed time when it changes in the view model.
+    // Show the elapsed time.
     private void onElapsedTimeChanged( long timeElapsed ) {
         if( !isAdded() ) return;
 
@@ -303,12 +307,12 @@ public class GameOverFragment extends Fragment implements GameActivity.BackFragm
         // Otherwise start syncing to the leaderboard.
         gameViewModel.setSyncedToLeaderboard( Sync.syncing );
 
-        // Sync the score, rounds, and time to the leaderboard.
+        // Sync the score, rounds, and time to the leaderboard, all from the same final snapshot.
+        GameSnapshot snapshot = gameViewModel.getLatestSnapshot();
+
         PlayGamesUtil.syncLeaderboards(
             gameActivity, googleSignInAccount,
-            GameViewModel.getNullCoalescedValue( gameViewModel.getScore(), 0 ),
-            GameViewModel.getNullCoalescedValue( gameViewModel.getRounds(), 1 ),
-            GameViewModel.getNullCoalescedValue( gameViewModel.getElapsedTimeMillis(), 0L ),
+            snapshot.getScore(), snapshot.getRounds(), snapshot.getElapsedTimeMillis(),
             this::onLeaderboardSyncSuccess, this::onAnySyncFailure
         );
     }
@@ -341,8 +345,9 @@ public class GameOverFragment extends Fragment implements GameActivity.BackFragm
 
         HashSet< String > achievementIDsToUnlock = new HashSet<>();
 
-        int scoreValue = GameViewModel.getNullCoalescedValue( gameViewModel.getScore(), 0 );
-        int roundsValue = GameViewModel.getNullCoalescedValue( gameViewModel.getRounds(), 0 );
+        GameSnapshot snapshot = gameViewModel.getLatestSnapshot();
+        int scoreValue = snapshot.getScore();
+        int roundsValue = snapshot.getRounds();
 
         if( scoreValue >= 1_000_000 ) achievementIDsToUnlock.add( getString( R.string.score_1m_points ) );
         if( scoreValue >= 500_000 ) achievementIDsToUnlock.add( getString( R.string.score_500k_points ) );
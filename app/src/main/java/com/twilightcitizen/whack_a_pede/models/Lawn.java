@@ -7,7 +7,7 @@ MDV4910-O, C202006-01
 
 package com.twilightcitizen.whack_a_pede.models;
 
-import com.twilightcitizen.whack_a_pede.data.VertexArray;
+import com.twilightcitizen.whack_a_pede.data.VertexBuffer;
 import com.twilightcitizen.whack_a_pede.geometry.Point;
 import com.twilightcitizen.whack_a_pede.geometry.Rectangle;
 import com.twilightcitizen.whack_a_pede.shaders.TextureShader;
@@ -37,6 +37,9 @@ public class Lawn {
     // Data generated from the builder used to compose the lawn.
     private final TextureModelBuilder.GeneratedData generatedData;
 
+    // Vertices in the Generated Data uploaded once to the graphics hardware.
+    private final VertexBuffer vertexBuffer;
+
     // Upon creation, just build up the lawn from an appropriately specified rectangle.
     public Lawn( float height, float width ) {
         TextureModelBuilder builder = new TextureModelBuilder(
@@ -46,27 +49,55 @@ public class Lawn {
         builder.appendRectangle( new Rectangle( new Point( 0.0f, 0.0f ), height, width ) );
 
         generatedData = builder.build();
+        vertexBuffer = new VertexBuffer( "Lawn " + height + "x" + width, generatedData.vertexData );
     }
 
-    // Associate the vertices in the Generated Data with a TextureShader program to draw them.
-    public void bindData( TextureShader textureShader ) {
-        // Convert them to a VertexArray on the graphics hardware first.
-        VertexArray vertexArray = new VertexArray( generatedData.vertexData );
+    /*
+    Alternatively, build up the lawn from a rectangle with rectangular holes cut out of it, for
+    drawing textures that are fully transparent there without drawing over what is behind them.
+    */
+    public Lawn( float height, float width, Point[] holes, float holeHeight, float holeWidth ) {
+        Rectangle rectangle = new Rectangle( new Point( 0.0f, 0.0f ), height, width );
+
+        TextureModelBuilder builder = new TextureModelBuilder(
+            TextureModelBuilder.sizeOfRectangleWithHolesInVertices(
+                rectangle, holes, holeHeight, holeWidth
+            )
+        );
+
+        builder.appendRectangleWithHoles( rectangle, holes, holeHeight, holeWidth );
+
+        // Name the vertices by everything they are built from, so different lawns never share.
+        StringBuilder name = new StringBuilder( "Lawn " + height + "x" + width + " With Holes " );
 
+        name.append( holeHeight ).append( "x" ).append( holeWidth );
+
+        for( Point hole : holes )
+            name.append( " " ).append( hole.x ).append( "," ).append( hole.y );
+
+        generatedData = builder.build();
+        vertexBuffer = new VertexBuffer( name.toString(), generatedData.vertexData );
+    }
+
+    // Associate the vertices in the VertexBuffer with a TextureShader program to draw them.
+    public void bindData( TextureShader textureShader ) {
         // Let OpenGL know from which location in the TextureShader it should read segment vertices.
-        vertexArray.setVertexAttributePointer(
+        vertexBuffer.setVertexAttributePointer(
             0, textureShader.getPositionAttributeLocation(),
             POSITION_COMPONENT_COUNT, STRIDE
         );
 
         // Let OpenGL know from which location in the TextureShader it should read texture vertices.
-        vertexArray.setVertexAttributePointer(
+        vertexBuffer.setVertexAttributePointer(
             POSITION_COMPONENT_COUNT,
             textureShader.getTextureCoordinatesAttributeLocation(),
             TEXTURE_COORDINATES_COMPONENT_COUNT, STRIDE
         );
     }
 
+    // Release the vertices from the graphics hardware while the OpenGL context is still current.
+    public void release() { vertexBuffer.release(); }
+
     // Execute all the drawing commands in the Generated Data to actually draw it.
     public void draw() {
         for( ModelBuilder.DrawCommand drawCommand : generatedData.drawList ) drawCommand.draw();
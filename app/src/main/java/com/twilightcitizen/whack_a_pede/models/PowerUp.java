@@ -7,14 +7,14 @@ MDV4910-O, C202006-01
 
 package com.twilightcitizen.whack_a_pede.models;
 
-import com.twilightcitizen.whack_a_pede.geometry.Point;
 import com.twilightcitizen.whack_a_pede.geometry.Vector;
+import com.twilightcitizen.whack_a_pede.simulation.GameRandom;
 
-import java.util.Random;
 
 /*
 PowerUp tracks various data necessary for the proper placement of a power up  on the lawn,
-including position and direction along the X and Y axis, and last turns or holes reached.
+including position and direction along the X and Y axis, and last turns or holes reached.  Power
+ups are mutable so that killed ones can be set up again as new ones rather than reallocated.
 */
 public class PowerUp {
     // Kinds of PowerUps available in the game.
@@ -22,7 +22,7 @@ public class PowerUp {
         plus1kPoints, plus10kPoints, plus100kPoints, slowDown;
 
         // Get a random power up kind the given random number generator.
-        public static Kind getRandomKind( Random random ) {
+        public static Kind getRandomKind( GameRandom random ) {
             int selection = random.nextInt( 100 );
 
             if( selection < 50 ) return plus1kPoints; else
@@ -32,17 +32,22 @@ public class PowerUp {
     }
 
     // Kind of power up.
-    private final Kind kind;
-    // Current position.
-    private Point position;
+    private Kind kind;
+    // Current position, and the position before it was last set for smooth drawing between steps.
+    private float x, y;
+    private float previousX, previousY;
     // Direction of heading to be applied to speed of traversal.
     private Vector direction;
     // Direction of heading once turn is encountered.
     private Vector nextDirection;
 
     // PowerUp must have position and direction.
-    public PowerUp( Point position, Vector direction, Kind kind ) {
-        this.position = position;
+    public PowerUp( float x, float y, Vector direction, Kind kind ) { setup( x, y, direction, kind ); }
+
+    // Setup the power up anew with position, direction, and kind, as if freshly created.
+    public void setup( float x, float y, Vector direction, Kind kind ) {
+        this.x = x; this.y = y;
+        this.previousX = x; this.previousY = y;
         this.direction = direction;
         this.nextDirection = direction;
         this.kind = kind;
@@ -51,9 +56,16 @@ public class PowerUp {
     // Get the kind of power up.
     public Kind getKind() { return kind; }
 
-    // Get or set the current position.
-    public Point getPosition() { return position; }
-    public void setPosition( Point position ) { this.position = position; }
+    // Get or set the current position, keeping the one it replaces as the previous position.
+    public float getX() { return x; }
+    public float getY() { return y; }
+    public float getPreviousX() { return previousX; }
+    public float getPreviousY() { return previousY; }
+
+    public void setPosition( float x, float y ) {
+        this.previousX = this.x; this.previousY = this.y;
+        this.x = x; this.y = y;
+    }
 
     // Get or set the direction of traversal.
     public Vector getDirection() { return direction; }
@@ -7,8 +7,12 @@ MDV4910-O, C202006-01
 
 package com.twilightcitizen.whack_a_pede.models;
 
+import com.twilightcitizen.whack_a_pede.geometry.Point;
 import com.twilightcitizen.whack_a_pede.geometry.Rectangle;
 
+import java.util.Arrays;
+
+import static android.opengl.GLES20.GL_TRIANGLES;
 import static android.opengl.GLES20.GL_TRIANGLE_FAN;
 import static android.opengl.GLES20.glDrawArrays;
 
@@ -92,4 +96,136 @@ public class TextureModelBuilder extends ModelBuilder {
         // Only a single command is needed to draw the rectangle as a triangle fan.
         drawList.add( () -> glDrawArrays( GL_TRIANGLE_FAN, startVertex, sizeOfRectangleInVertices ) );
     }
+
+    /*
+    Size of a Rectangle with rectangular holes cut out of it in vertices.  The rectangle is cut into
+    a grid of smaller rectangles along the edges of every hole, and each one not inside a hole is
+    drawn as two triangles of three vertices each.
+    */
+    public static int sizeOfRectangleWithHolesInVertices(
+        Rectangle rectangle, Point[] holes, float holeHeight, float holeWidth
+    ) {
+        float[] cutsX = cutsX( rectangle, holes, holeWidth );
+        float[] cutsY = cutsY( rectangle, holes, holeHeight );
+        int size = 0;
+
+        for( int x = 1; x < cutsX.length; x++ ) for( int y = 1; y < cutsY.length; y++ )
+            if(
+                ! isInHole(
+                    cutsX[ x - 1 ], cutsX[ x ], cutsY[ y - 1 ], cutsY[ y ],
+                    holes, holeHeight, holeWidth
+                )
+            )
+                size += 6;
+
+        return size;
+    }
+
+    /*
+    Given a Rectangle and rectangular holes centered at some points within it, generate data that
+    specifies how to draw triangles composing the rectangle everywhere but the holes, with a texture
+    applied uniformly over it as if the holes were not cut out.  Nothing behind the holes is drawn
+    over, nor blended with, at all.
+    */
+    public void appendRectangleWithHoles(
+        Rectangle rectangle, Point[] holes, float holeHeight, float holeWidth
+    ) {
+        // Find the starting vertex and the edges of the grid of smaller rectangles.
+        final int startVertex = offset / FLOATS_PER_VERTEX;
+        final float[] cutsX = cutsX( rectangle, holes, holeWidth );
+        final float[] cutsY = cutsY( rectangle, holes, holeHeight );
+
+        for( int x = 1; x < cutsX.length; x++ ) for( int y = 1; y < cutsY.length; y++ ) {
+            float left = cutsX[ x - 1 ], right = cutsX[ x ];
+            float bottom = cutsY[ y - 1 ], top = cutsY[ y ];
+
+            // Guard against drawing over a hole.
+            if( isInHole( left, right, bottom, top, holes, holeHeight, holeWidth ) ) continue;
+
+            // Triangles go counterclockwise from bottom left, splitting it corner to corner.
+            appendVertex( rectangle, left, bottom );
+            appendVertex( rectangle, right, bottom );
+            appendVertex( rectangle, right, top );
+            appendVertex( rectangle, left, bottom );
+            appendVertex( rectangle, right, top );
+            appendVertex( rectangle, left, top );
+        }
+
+        final int count = offset / FLOATS_PER_VERTEX - startVertex;
+
+        // Only a single command is needed to draw all of the triangles.
+        drawList.add( () -> glDrawArrays( GL_TRIANGLES, startVertex, count ) );
+    }
+
+    /*
+    Append a vertex at some X and Y within a rectangle, with texture coordinates in proportion to
+    where it is.  Note that texture coordinate T is inverted due to how images are stored.
+    */
+    private void appendVertex( Rectangle rectangle, float x, float y ) {
+        vertexData[ offset++ ] = x;
+        vertexData[ offset++ ] = y;
+        vertexData[ offset++ ] = 0.0f;
+        vertexData[ offset++ ] = ( x - rectangle.center.x ) / rectangle.width + 0.5f;
+        vertexData[ offset++ ] = 0.5f - ( y - rectangle.center.y ) / rectangle.height;
+    }
+
+    // Edges along the X axis of a rectangle and of every hole within it, in order, without repeats.
+    private static float[] cutsX( Rectangle rectangle, Point[] holes, float holeWidth ) {
+        float[] cuts = new float[ holes.length * 2 + 2 ];
+
+        cuts[ 0 ] = rectangle.center.x - rectangle.width / 2.0f;
+        cuts[ 1 ] = rectangle.center.x + rectangle.width / 2.0f;
+
+        for( int hole = 0; hole < holes.length; hole++ ) {
+            cuts[ hole * 2 + 2 ] = holes[ hole ].x - holeWidth / 2.0f;
+            cuts[ hole * 2 + 3 ] = holes[ hole ].x + holeWidth / 2.0f;
+        }
+
+        return distinct( cuts );
+    }
+
+    // Edges along the Y axis of a rectangle and of every hole within it, in order, without repeats.
+    private static float[] cutsY( Rectangle rectangle, Point[] holes, float holeHeight ) {
+        float[] cuts = new float[ holes.length * 2 + 2 ];
+
+        cuts[ 0 ] = rectangle.center.y - rectangle.height / 2.0f;
+        cuts[ 1 ] = rectangle.center.y + rectangle.height / 2.0f;
+
+        for( int hole = 0; hole < holes.length; hole++ ) {
+            cuts[ hole * 2 + 2 ] = holes[ hole ].y - holeHeight / 2.0f;
+            cuts[ hole * 2 + 3 ] = holes[ hole ].y + holeHeight / 2.0f;
+        }
+
+        return distinct( cuts );
+    }
+
+    // Sort cuts and drop any repeated, as holes in the same row or column share their edges.
+    private static float[] distinct( float[] cuts ) {
+        Arrays.sort( cuts );
+
+        int count = 1;
+
+        for( int cut = 1; cut < cuts.length; cut++ )
+            if( cuts[ cut ] != cuts[ count - 1 ] ) cuts[ count++ ] = cuts[ cut ];
+
+        return Arrays.copyOf( cuts, count );
+    }
+
+    // Check if a smaller rectangle of the grid, by its edges, is inside any of the holes.
+    private static boolean isInHole(
+        float left, float right, float bottom, float top,
+        Point[] holes, float holeHeight, float holeWidth
+    ) {
+        float x = ( left + right ) / 2.0f;
+        float y = ( bottom + top ) / 2.0f;
+
+        for( Point hole : holes )
+            if(
+                Math.abs( x - hole.x ) < holeWidth / 2.0f &&
+                Math.abs( y - hole.y ) < holeHeight / 2.0f
+            )
+                return true;
+
+        return false;
+    }
 }
\ No newline at end of file
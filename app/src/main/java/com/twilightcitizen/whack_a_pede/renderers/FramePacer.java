@@ -0,0 +1,196 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.renderers;
+
+import android.util.Log;
+import android.view.Choreographer;
+import android.view.Display;
+
+import com.twilightcitizen.whack_a_pede.utilities.LoggerUtil;
+
+import java.util.Locale;
+
+/*
+FramePacer asks for a frame to be drawn once for every vsync of the display, as reported by the
+Choreographer, rather than as fast as the drawing thread can swap buffers.  Each frame is drawn for
+the time it should be presented, one refresh period after the vsync that asked for it, so the game
+is looped by real frame times and drawn where it will be when the frame reaches the screen, on 60,
+90, or 120 Hz displays alike.  Vsyncs further apart than a refresh period and a half mean frames
+were missed, and these are counted along with the mean, standard deviation, or jitter, and longest
+time between vsyncs over every second of frames, which are logged when debugging.  FramePacer must
+be started and stopped on the main thread, though the drawing thread may ask for frame times.
+*/
+public class FramePacer implements Choreographer.FrameCallback {
+    // Tag for filtering any debug message logged.
+    private static final String TAG = "FramePacer";
+
+    // Refresh rate assumed for displays that do not report one.
+    private static final float DEFAULT_REFRESH_RATE = 60.0f;
+
+    // Refresh periods between vsyncs beyond which frames are counted as missed.
+    private static final float MISSED_FRAME_PERIODS = 1.5f;
+
+    // Nanoseconds in a second and in a millisecond.
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final float NANOS_PER_MILLI = 1_000_000.0f;
+
+    // Choreographer of the main thread, reporting vsyncs.
+    private final Choreographer choreographer;
+
+    // Something to run once for every vsync, as asking for a frame to be drawn.
+    private final Runnable onFrame;
+
+    // Flag for pacing frames, between start and stop.
+    private boolean isPacing;
+
+    // Refresh rate of the display, and nanosecond period between vsyncs at that rate.
+    private float refreshRate = DEFAULT_REFRESH_RATE;
+    private long periodNanos;
+
+    // Time of the previous vsync, or negative before the first since starting.
+    private long previousVsyncNanos = -1L;
+
+    /*
+    Time the latest frame asked for should be presented, or negative while not pacing.  Written on
+    the main thread and read on the drawing thread.
+    */
+    private volatile long presentationNanos = -1L;
+
+    // Frames and the sums of their times and squared times, longest, and missed in this window.
+    private int windowFrames;
+    private double windowSumNanos;
+    private double windowSumSquaredNanos;
+    private long windowMaxNanos;
+    private int windowMissedFrames;
+
+    // Frames in a window of statistics, covering about a second.
+    private int framesPerWindow;
+
+    // Mean, standard deviation, and longest frame time, and frames missed in the last window.
+    private float meanFrameMillis;
+    private float frameJitterMillis;
+    private float maxFrameMillis;
+    private int missedFrames;
+
+    // Frames missed in all since starting.
+    private int totalMissedFrames;
+
+    // Pace frames with the Choreographer of the main thread, where this must be created.
+    public FramePacer( Runnable onFrame ) {
+        choreographer = Choreographer.getInstance();
+
+        this.onFrame = onFrame;
+    }
+
+    /*
+    Start asking for a frame at every vsync of a display, unless already pacing.  The refresh rate
+    is read fresh every time, since some displays change it as they are used.
+    */
+    public void start( Display display ) {
+        if( isPacing ) return;
+
+        refreshRate = display == null ? 0.0f : display.getRefreshRate();
+
+        // Guard against displays that do not report a usable refresh rate.
+        if( refreshRate <= 0.0f ) refreshRate = DEFAULT_REFRESH_RATE;
+
+        periodNanos = Math.round( NANOS_PER_SECOND / refreshRate );
+        framesPerWindow = Math.max( 1, Math.round( refreshRate ) );
+        previousVsyncNanos = -1L;
+        totalMissedFrames = 0;
+
+        resetWindow();
+
+        isPacing = true;
+        choreographer.postFrameCallback( this );
+    }
+
+    // Stop asking for frames, unless already stopped.
+    public void stop() {
+        if( !isPacing ) return;
+
+        isPacing = false;
+        choreographer.removeFrameCallback( this );
+        presentationNanos = -1L;
+    }
+
+    /*
+    Time the frame being drawn should be presented while pacing, or the present time otherwise, as
+    when a frame is drawn on demand.  Either is on the same time base as System.nanoTime.
+    */
+    public long getFrameTimeNanos() {
+        long presentationNanos = this.presentationNanos;
+
+        return presentationNanos < 0L ? System.nanoTime() : presentationNanos;
+    }
+
+    // Expose the refresh rate and the statistics of the last window for read access.
+    public float getRefreshRate() { return refreshRate; }
+    public float getMeanFrameMillis() { return meanFrameMillis; }
+    public float getFrameJitterMillis() { return frameJitterMillis; }
+    public float getMaxFrameMillis() { return maxFrameMillis; }
+    public int getMissedFrames() { return missedFrames; }
+    public int getTotalMissedFrames() { return totalMissedFrames; }
+
+    // Measure the time since the previous vsync and ask for a frame to be presented after this one.
+    @Override public void doFrame( long frameTimeNanos ) {
+        // Guard against a vsync reported after stopping.
+        if( !isPacing ) return;
+
+        // Ask for the next vsync first so that the time taken here does not delay it.
+        choreographer.postFrameCallback( this );
+
+        if( previousVsyncNanos >= 0L ) measure( frameTimeNanos - previousVsyncNanos );
+
+        previousVsyncNanos = frameTimeNanos;
+        presentationNanos = frameTimeNanos + periodNanos;
+
+        onFrame.run();
+    }
+
+    // Add the time between two vsyncs to the window, finishing the window when it is full.
+    private void measure( long frameNanos ) {
+        // Count the periods skipped by a long frame as missed, rounding to the nearest vsync.
+        int missed = frameNanos > periodNanos * MISSED_FRAME_PERIODS ?
+            (int) Math.round( (double) frameNanos / periodNanos ) - 1 : 0;
+
+        windowFrames++;
+        windowSumNanos += frameNanos;
+        windowSumSquaredNanos += (double) frameNanos * frameNanos;
+        windowMaxNanos = Math.max( windowMaxNanos, frameNanos );
+        windowMissedFrames += missed;
+        totalMissedFrames += missed;
+
+        if( windowFrames < framesPerWindow ) return;
+
+        double meanNanos = windowSumNanos / windowFrames;
+        double varianceNanos = windowSumSquaredNanos / windowFrames - meanNanos * meanNanos;
+
+        meanFrameMillis = (float) meanNanos / NANOS_PER_MILLI;
+        frameJitterMillis = (float) Math.sqrt( Math.max( 0.0, varianceNanos ) ) / NANOS_PER_MILLI;
+        maxFrameMillis = windowMaxNanos / NANOS_PER_MILLI;
+        missedFrames = windowMissedFrames;
+
+        if( LoggerUtil.DEBUGGING ) Log.d( TAG, String.format(
+            Locale.US, "%.0f Hz: mean %.2f ms, jitter %.2f ms, max %.2f ms, missed %d (%d total)",
+            refreshRate, meanFrameMillis, frameJitterMillis, maxFrameMillis,
+            missedFrames, totalMissedFrames
+        ) );
+
+        resetWindow();
+    }
+
+    // Start a new window of statistics.
+    private void resetWindow() {
+        windowFrames = 0;
+        windowSumNanos = 0.0;
+        windowSumSquaredNanos = 0.0;
+        windowMaxNanos = 0L;
+        windowMissedFrames = 0;
+    }
+}
@@ -9,38 +9,52 @@ package com.twilightcitizen.whack_a_pede.renderers;
 
 import android.content.Context;
 import android.opengl.GLSurfaceView;
+import android.util.Log;
 
 import androidx.lifecycle.ViewModelProvider;
 import androidx.lifecycle.ViewModelStoreOwner;
 
 import com.twilightcitizen.whack_a_pede.R;
+import com.twilightcitizen.whack_a_pede.data.TextureAtlas;
+import com.twilightcitizen.whack_a_pede.data.TextureLoader;
 import com.twilightcitizen.whack_a_pede.geometry.Point;
-import com.twilightcitizen.whack_a_pede.models.Centipede;
 import com.twilightcitizen.whack_a_pede.models.Lawn;
-import com.twilightcitizen.whack_a_pede.models.PowerUp;
-import com.twilightcitizen.whack_a_pede.models.PowerUpRendering;
-import com.twilightcitizen.whack_a_pede.models.Segment;
+import com.twilightcitizen.whack_a_pede.shaders.InstancedSpriteShader;
+import com.twilightcitizen.whack_a_pede.shaders.SpriteShader;
 import com.twilightcitizen.whack_a_pede.shaders.TextureShader;
+import com.twilightcitizen.whack_a_pede.simulation.RenderSnapshot;
+import com.twilightcitizen.whack_a_pede.utilities.GLResourceUtil;
+import com.twilightcitizen.whack_a_pede.utilities.GLStateUtil;
+import com.twilightcitizen.whack_a_pede.utilities.GLVersionUtil;
+import com.twilightcitizen.whack_a_pede.utilities.LoggerUtil;
 import com.twilightcitizen.whack_a_pede.utilities.TextureUtil;
 import com.twilightcitizen.whack_a_pede.utilities.ThemeUtil;
 import com.twilightcitizen.whack_a_pede.viewModels.GameViewModel;
 
+import java.util.Locale;
+
 import javax.microedition.khronos.egl.EGLConfig;
 import javax.microedition.khronos.opengles.GL10;
 
 import static android.opengl.GLES20.*;
 import static android.opengl.Matrix.*;
 
-import static com.twilightcitizen.whack_a_pede.viewModels.GameViewModel.*;
+import static com.twilightcitizen.whack_a_pede.simulation.WhackAPedeWorld.*;
 
 /*
 GameRenderer implemented rendering for any GLSurfaceView to which is it set as the renderer.
 Behind the scenes, when GameRenderer is set as a GLSurfaceView's renderer, a background thread is
 established to check for whether or not rendering to the GLSurfaceView is paused or resumed, and
-continually calls onDrawFrame.  onSurfaceCreated is called at creation, and onSurfaceChanged is
-called anytime the GLSurfaceView's dimensions change, including after creation.
+calls onDrawFrame whenever a frame is asked for, as a FramePacer does at every vsync while the game
+runs.  onSurfaceCreated is called at creation, and onSurfaceChanged is called anytime the
+GLSurfaceView's dimensions change, including after creation.  GameRenderer outlives the contexts
+it draws with, which are created anew every time the GLSurfaceView is reattached, and everything it
+created for one is reused by the next where the contexts share objects.
 */
 public class GameRenderer implements GLSurfaceView.Renderer {
+    // Tag for filtering any debug message logged.
+    private static final String TAG = "GameRenderer";
+
     // Context will be required by shader programs that read in GLSL resource files.
     private final Context context;
 
@@ -50,6 +64,12 @@ public class GameRenderer implements GLSurfaceView.Renderer {
     // Game ViewModel maintains game state and the position, direction, and speed of game elements.
     private final GameViewModel gameViewModel;
 
+    // Frame pacer giving the time each frame should be presented.
+    private final FramePacer framePacer;
+
+    // Texture loader decoding textures in the background and uploading them between frames.
+    private final TextureLoader textureLoader;
+
     // Model matrix for manipulating models without respect to the entire scene.
     private final float[] modelMatrix = new float[ 16 ];
     // View matrix for orthographic projection of scene from normalized to device coordinates.
@@ -59,40 +79,93 @@ public class GameRenderer implements GLSurfaceView.Renderer {
     // Matrix for entire scene inverted for touch events.
     private final float[] invertedViewMatrix = new float[ 16 ];
 
-    // Some game models to place in scene.
+    /*
+    Length of the sides of the squares cut out of the lawn top at every hole.  Lawn top textures are
+    fully transparent over a square of a little more than half a cell at each hole, so nothing is
+    lost by not drawing there, while the rest of the lawn top is translucent and must be drawn.
+    */
+    private static final float HOLE_CUT_NORMAL_LENGTH = CELL_NORMAL_RADIUS;
+
+    // Some game models to place in scene.  The lawn top is drawn without the insides of its holes.
     private Lawn lawn;
-    private Segment segment;
-    private PowerUpRendering powerUpRendering;
+    private Lawn lawnWithHoles;
+
+    // Batches of sprites for centipede segments below ground, and for those above and power ups.
+    private SpriteRenderer belowGroundBatch;
+    private SpriteRenderer aboveGroundBatch;
 
     // TextureShader program for drawing game models in scene with textures to screen.
     private TextureShader textureShader;
 
-    // Textures for the lawn top and bottom;
+    // Shader program the sprite batches draw with, or null where they draw with the one above.
+    private TextureShader spriteShader;
+
+    // Texture of a single transparent pixel drawn in place of any texture still loading.
+    private int placeholder;
+
+    // Textures for the lawn top and bottom, and the names they are shared by once loaded.
     private int lawnTop;
     private int lawnBottom;
+    private String lawnTopName;
+    private String lawnBottomName;
+
+    // Atlas of the centipede and power up sprites for the theme, so each batch uses one texture.
+    private TextureAtlas spriteAtlas;
+
+    // Flags for the context being OpenGL ES 3.0, and for textures being loaded for the surface.
+    private boolean isES3;
+    private boolean areTexturesLoading;
 
-    // Textures for the centipede head and body to be used by the TextureShader program.
-    private int centipedeHeadAbove;
-    private int centipedeHeadBelow;
-    private int centipedeBodyAbove;
-    private int centipedeBodyBelow;
+    // Theme the textures loading or loaded were loaded for, to load again if it changes.
+    private ThemeUtil.Theme loadedTheme;
 
-    // Textures for power ups to be used by the TextureShader program.
-    private int powerUpPlus1kPoints;
-    private int powerUpPlus10kPoints;
-    private int powerUpPlus100kPoints;
-    private int powerUpSlowDown;
+    // Regions of the sprite atlas for the centipede head and body.
+    private TextureAtlas.Region centipedeHeadAbove;
+    private TextureAtlas.Region centipedeHeadBelow;
+    private TextureAtlas.Region centipedeBodyAbove;
+    private TextureAtlas.Region centipedeBodyBelow;
+
+    // Regions of the sprite atlas for power ups.
+    private TextureAtlas.Region powerUpPlus1kPoints;
+    private TextureAtlas.Region powerUpPlus10kPoints;
+    private TextureAtlas.Region powerUpPlus100kPoints;
+    private TextureAtlas.Region powerUpSlowDown;
 
     // Flag to indicate that the lawn is rotated.
     private boolean isRotated;
 
-    // Accept and store context on creation, and fact check important dimensions
-    public GameRenderer( Context context ) {
+    // Snapshot of the centipedes and power ups on the lawn to draw in the frame.
+    private RenderSnapshot snapshot;
+
+    // Fraction of a game step between previous and current positions to draw the frame at.
+    private float alpha;
+
+    /*
+    Time navigation to the GLSurfaceView started, or negative once its first frame is drawn, and
+    whether its context shared everything created before.  Written on the main thread and read on
+    the drawing thread.
+    */
+    private volatile long navigationNanos = -1L;
+    private boolean isContextShared;
+
+    // Milliseconds from navigation to the first frame drawn, the last time it was timed.
+    private float navigationToFirstFrameMillis;
+
+    // Accept and store context, pacer, and loader on creation, and fact check important dimensions
+    public GameRenderer( Context context, FramePacer framePacer, TextureLoader textureLoader ) {
         this.context = context;
+        this.framePacer = framePacer;
+        this.textureLoader = textureLoader;
         gameViewModel = new ViewModelProvider( ( ViewModelStoreOwner ) context ).get( GameViewModel.class );
         this.rotateForLandscape = context.getResources().getBoolean( R.bool.rotate_surface_for_landscape );
     }
 
+    // Start timing navigation to the GLSurfaceView as it is attached, until a frame is drawn.
+    public void startNavigationTiming() { navigationNanos = System.nanoTime(); }
+
+    // Expose the milliseconds from navigation to the first frame drawn for read access.
+    public float getNavigationToFirstFrameMillis() { return navigationToFirstFrameMillis; }
+
     // Called when a touch event is sent from the GLSurfaceView.
     public void onTouch( float normalizedX, float normalizedY ) {
         // Normalized point coordinates as a vector.  Z and W are normalized to 0 and 1.
@@ -109,33 +182,240 @@ public class GameRenderer implements GLSurfaceView.Renderer {
 
     // Called when GLSurfaceView is first created with the renderer.  Parameter gl is ignored.
     @Override public void onSurfaceCreated( GL10 gl, EGLConfig config ) {
+        /*
+        Forget any state remembered from a previous OpenGL context, and loads meant for it.  Any
+        resources kept from it are created again from what they were created from as they are
+        acquired below, without reading or decoding anything, where the context was lost.
+        */
+        GLStateUtil.invalidate();
+        isContextShared = !GLResourceUtil.onContextCreated() && lawn != null;
+
+        // Cancel loads meant for a context before this one, which never uploaded.
+        textureLoader.cancel();
+
         // Set the clear color to yellow #FFD946.
         glClearColor( (float) 0xFF / 0xFF, (float) 0xD9 / 0xFF, (float) 0x46 / 0xFF, 0.0f );
         // Set and enable alpha blending for transparency.
-        glEnable( GL_BLEND );
+        GLStateUtil.setBlending( true );
         glBlendFunc( GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA );
 
-        // Instantiate game models and shader programs for drawing them.
+        /*
+        Keep drawing with the models, shader programs, and textures created for the context before
+        where this one shares them, as after navigating back to the GLSurfaceView.  Uploads queued
+        to the thread of the context before never ran, so where textures were still loading, those
+        loaded are released and all are loaded again, straight from GLResourceUtil wherever they
+        were loaded since.
+        */
+        if( isContextShared ) {
+            if( lawnTop == placeholder || lawnBottom == placeholder || spriteAtlas == null )
+                releaseTextures();
+
+            GLResourceUtil.logResidency();
+
+            return;
+        }
+
+        /*
+        Forget anything created for a context before this one, which was lost along with it, and
+        every reference to it in GLResourceUtil, so there is nothing left to release.
+        */
+        lawnTopName = null;
+        lawnBottomName = null;
+        spriteAtlas = null;
+
+        /*
+        Instantiate game models and shader programs for drawing them.  Models upload their vertices
+        to buffers on the graphics hardware here, once for every new OpenGL context, since buffers
+        from any previous context were lost along with it.
+        */
         lawn = new Lawn( LAWN_NORMAL_HEIGHT, LAWN_NORMAL_WIDTH );
-        segment = new Segment( CENTIPEDE_NORMAL_HEIGHT, CENTIPEDE_NORMAL_WIDTH );
-        powerUpRendering = new PowerUpRendering( CENTIPEDE_NORMAL_HEIGHT, CENTIPEDE_NORMAL_WIDTH );
+
+        lawnWithHoles = new Lawn(
+            LAWN_NORMAL_HEIGHT, LAWN_NORMAL_WIDTH, HOLES, HOLE_CUT_NORMAL_LENGTH,
+            HOLE_CUT_NORMAL_LENGTH
+        );
         textureShader = new TextureShader( context );
 
+        /*
+        Sprites are drawn in as few instanced draw calls as possible where the context turned out to
+        be OpenGL ES 3.0.  Otherwise, they are either rotated and placed on the graphics hardware by
+        a sprite shader program, or on the CPU and drawn by the texture shader program, whichever
+        the device is configured to do.  Either way, they look the same.
+        */
+        isES3 = GLVersionUtil.isES3();
+
+        if( isES3 ) {
+            InstancedSpriteShader instancedSpriteShader = new InstancedSpriteShader( context );
+
+            spriteShader = instancedSpriteShader;
+
+            belowGroundBatch =
+                new InstancedSpriteRenderer( instancedSpriteShader, SEGMENTS_PER_CENTIPEDE );
+
+            aboveGroundBatch =
+                new InstancedSpriteRenderer( instancedSpriteShader, SEGMENTS_PER_CENTIPEDE );
+        } else if( context.getResources().getBoolean( R.bool.transform_sprites_on_gpu ) ) {
+            SpriteShader spriteShader = new SpriteShader( context );
+
+            this.spriteShader = spriteShader;
+
+            belowGroundBatch = new SpriteBatch( spriteShader, SEGMENTS_PER_CENTIPEDE );
+            aboveGroundBatch = new SpriteBatch( spriteShader, SEGMENTS_PER_CENTIPEDE );
+        } else {
+            spriteShader = null;
+            belowGroundBatch = new SpriteBatch( textureShader, SEGMENTS_PER_CENTIPEDE );
+            aboveGroundBatch = new SpriteBatch( textureShader, SEGMENTS_PER_CENTIPEDE );
+        }
+
+        /*
+        Draw with a placeholder in place of every texture until it is loaded, which only starts once
+        the size of the surface is known, so textures are not decoded larger than they are drawn.
+        */
+        placeholder = TextureUtil.createPlaceholderTexture();
+        lawnTop = placeholder;
+        lawnBottom = placeholder;
+        areTexturesLoading = false;
+
+        setSpriteRegions( null );
+
+        // Log what is on the graphics hardware when debugging.
+        GLResourceUtil.logResidency();
+    }
+
+    /*
+    Load the lawn textures and the sprite atlas for the configured theme in the background, each
+    decoded for the pixels it is drawn over on a surface of some size.  The lawn spans the longer
+    side of the surface from top to bottom, whether or not it is rotated for landscape.
+    */
+    private void loadTextures( int width, int height ) {
         // Get textures from configured theme in default shared preferences.
         ThemeUtil.Theme theme = ThemeUtil.getConfiguredTheme( context );
 
-        // Load textures to be used by the TextureShader program.
-        centipedeHeadAbove = TextureUtil.LoadTexture( context, theme.getCentipedeHeadAbove() );
-        centipedeHeadBelow = TextureUtil.LoadTexture( context, theme.getCentipedeHeadBelow() );
-        centipedeBodyAbove = TextureUtil.LoadTexture( context, theme.getCentipedeBodyAbove() );
-        centipedeBodyBelow = TextureUtil.LoadTexture( context, theme.getCentipedeBodyBelow() );
-        lawnTop = TextureUtil.LoadTexture( context, theme.getLawnTop() );
-        lawnBottom = TextureUtil.LoadTexture( context, theme.getLawnBottom() );
-
-        powerUpPlus1kPoints = TextureUtil.LoadTexture( context, R.drawable.plus_1k_points );
-        powerUpPlus10kPoints = TextureUtil.LoadTexture( context, R.drawable.plus_10k_points );
-        powerUpPlus100kPoints = TextureUtil.LoadTexture( context, R.drawable.plus_100k_points );
-        powerUpSlowDown = TextureUtil.LoadTexture( context, R.drawable.slow_down );
+        loadedTheme = theme;
+
+        final float pixelsPerNormal = Math.max( width, height ) / LAWN_NORMAL_HEIGHT;
+        final int lawnWidth = (int) ( LAWN_NORMAL_WIDTH * pixelsPerNormal );
+        final int lawnHeight = (int) ( LAWN_NORMAL_HEIGHT * pixelsPerNormal );
+        final int spriteWidth = (int) ( CENTIPEDE_NORMAL_WIDTH * pixelsPerNormal );
+        final int spriteHeight = (int) ( CENTIPEDE_NORMAL_HEIGHT * pixelsPerNormal );
+
+        // Load the lawn textures, which fill the lawn on their own, for the TextureShader program.
+        textureLoader.loadTexture(
+            theme.getLawnTop(), isES3, lawnWidth, lawnHeight, this::setLawnTop
+        );
+
+        textureLoader.loadTexture(
+            theme.getLawnBottom(), isES3, lawnWidth, lawnHeight, this::setLawnBottom
+        );
+
+        // Pack the theme's centipede sprites and the power up sprites into one atlas.
+        textureLoader.loadAtlas(
+            TextureAtlas.getMaxSize(), spriteWidth, spriteHeight, this::setSpriteRegions,
+            theme.getCentipedeHeadAbove(), theme.getCentipedeHeadBelow(),
+            theme.getCentipedeBodyAbove(), theme.getCentipedeBodyBelow(),
+            R.drawable.plus_1k_points, R.drawable.plus_10k_points,
+            R.drawable.plus_100k_points, R.drawable.slow_down
+        );
+    }
+
+    /*
+    Draw the lawn top and bottom with textures loaded, releasing any loaded before, unless they
+    could not be loaded, leaving what was drawn before.
+    */
+    private void setLawnTop( String name, int texture ) {
+        if( texture == 0 ) return;
+
+        if( lawnTopName != null ) GLResourceUtil.release( lawnTopName );
+
+        lawnTopName = name;
+        lawnTop = texture;
+    }
+
+    private void setLawnBottom( String name, int texture ) {
+        if( texture == 0 ) return;
+
+        if( lawnBottomName != null ) GLResourceUtil.release( lawnBottomName );
+
+        lawnBottomName = name;
+        lawnBottom = texture;
+    }
+
+    /*
+    Draw sprites from the regions of an atlas, or from the placeholder while it is still loading,
+    releasing any atlas drawn from before.
+    */
+    private void setSpriteRegions( TextureAtlas atlas ) {
+        if( spriteAtlas != null && spriteAtlas != atlas ) spriteAtlas.release();
+
+        spriteAtlas = atlas;
+
+        if( atlas == null ) {
+            TextureAtlas.Region region = new TextureAtlas.Region( placeholder );
+
+            centipedeHeadAbove = centipedeHeadBelow = centipedeBodyAbove = centipedeBodyBelow =
+                powerUpPlus1kPoints = powerUpPlus10kPoints = powerUpPlus100kPoints =
+                powerUpSlowDown = region;
+
+            return;
+        }
+
+        centipedeHeadAbove = atlas.getRegion( 0 );
+        centipedeHeadBelow = atlas.getRegion( 1 );
+        centipedeBodyAbove = atlas.getRegion( 2 );
+        centipedeBodyBelow = atlas.getRegion( 3 );
+        powerUpPlus1kPoints = atlas.getRegion( 4 );
+        powerUpPlus10kPoints = atlas.getRegion( 5 );
+        powerUpPlus100kPoints = atlas.getRegion( 6 );
+        powerUpSlowDown = atlas.getRegion( 7 );
+    }
+
+    /*
+    Release the lawn textures and sprite atlas, cancelling any still loading, and draw with the
+    placeholder in their place until they are loaded again, as they are once the size of the
+    surface is next known.
+    */
+    private void releaseTextures() {
+        textureLoader.cancel();
+
+        if( lawnTopName != null ) GLResourceUtil.release( lawnTopName );
+        if( lawnBottomName != null ) GLResourceUtil.release( lawnBottomName );
+
+        lawnTopName = null;
+        lawnBottomName = null;
+        lawnTop = placeholder;
+        lawnBottom = placeholder;
+        areTexturesLoading = false;
+
+        setSpriteRegions( null );
+    }
+
+    /*
+    Release everything created for drawing, with a context sharing it current, as when the
+    renderer is done for good.  Nothing is drawn again until the surface is created again.
+    */
+    public void release() {
+        // Guard against releasing before anything was created, or twice.
+        if( lawn == null ) return;
+
+        releaseTextures();
+
+        lawn.release();
+        lawnWithHoles.release();
+        belowGroundBatch.release();
+        aboveGroundBatch.release();
+        textureShader.release();
+
+        if( spriteShader != null ) spriteShader.release();
+
+        GLStateUtil.deleteTexture( placeholder );
+
+        lawn = null;
+        lawnWithHoles = null;
+        belowGroundBatch = null;
+        aboveGroundBatch = null;
+        textureShader = null;
+        spriteShader = null;
+        placeholder = 0;
     }
 
     // Called when GLSurfaceView dimensions change. Parameter gl is ignored.
@@ -143,6 +423,18 @@ public class GameRenderer implements GLSurfaceView.Renderer {
         // Set OpenGL to use the entire GLSurfaceView as the viewport.
         glViewport( 0, 0, width, height );
 
+        /*
+        Release textures loaded for a theme other than the one configured, as when it was changed
+        in settings while the surface was detached, so they are loaded again for the new one.
+        */
+        if( areTexturesLoading && !ThemeUtil.getConfiguredTheme( context ).equals( loadedTheme ) )
+            releaseTextures();
+
+        // Start loading textures the first time the size of the surface is known.
+        if( !areTexturesLoading ) loadTextures( width, height );
+
+        areTexturesLoading = true;
+
         /*
         Determine the aspect ratio for device coordinates based on its orientation.  In landscape
         orientation, width exceeds  height, while in portrait orientation, height exceeds width.
@@ -179,96 +471,115 @@ public class GameRenderer implements GLSurfaceView.Renderer {
 
     // Repeatedly called to draw frames to the GLSurfaceView.  Parameter gl is ignored.
     @Override public void onDrawFrame( GL10 gl ) {
+        // Count calls to OpenGL made and skipped for this frame apart from the last.
+        GLStateUtil.startFrame();
+
         // Clear the whole screen with the clear color.
         glClear( GL_COLOR_BUFFER_BIT );
 
+        // Draw the frame for when it should be presented, rather than for when it is drawn.
+        long frameTimeNanos = framePacer.getFrameTimeNanos();
+
         /*
-        On average, each game loop transpires over the course of about 20 milliseconds, give or take.
-        However, when GC occurs, timings of 130+ milliseconds can be observed.  This causes animations
-        to occur over larger distances than the game model can accommodate while still keeping the
-        centipede coherent and--importantly--keeping segments on screen where players can tap them.  To
-        avoid this issue, we simply cheat and pretend every loop is 20 milliseconds.
+        Loop the game up to the time of this frame, unless it loops on a thread of its own.  The
+        game steps in fixed slices of its own, splitting long frames into several short steps and
+        carrying over any remainder, so it neither speeds up on fast displays nor loses coherence
+        when GC stalls a frame.
         */
-        long LOOP_TIME_ELAPSED_MILLIS = 20;
+        if( !gameViewModel.getIsLoopingOnOwnThread() ) gameViewModel.loop( frameTimeNanos );
 
-        // Loop the game for the time slice elapsed.
-        gameViewModel.loop( LOOP_TIME_ELAPSED_MILLIS );
+        // Draw the latest snapshot of the game, between previous and current positions.
+        snapshot = gameViewModel.getRenderSnapshots().acquire();
+        alpha = snapshot.getAlpha( frameTimeNanos );
 
         /*
-        Position some models in the scene, setting the ColorShader's uniforms to the entire
+        Position some models in the scene, setting the TextureShader's uniforms to the entire
         orthographically projected and rotated view, binding the model's data it and drawing it.
+        Sprites for each layer are batched and drawn together once the layer is complete.
         */
         positionLawnBottomInScene();
-        positionSegmentsInScene( false );
+
+        belowGroundBatch.begin( viewMatrix );
+        batchSegments( belowGroundBatch, false );
+        belowGroundBatch.end();
+
         positionLawnTopInScene();
-        positionSegmentsInScene( true );
-        positionPowerUpsInScene();
-    }
 
-    /*
-    The positionXInScene methods that proceed all follow the same formula, sometimes within a loop
-    where multiples of the model should be drawn:  The shader program to use is specified, the model
-    is positioned in the scene, the uniforms are set for the shader program being used, drawing data
-    for the model is bound to the program, and the model is drawn.
-    */
+        aboveGroundBatch.begin( viewMatrix );
+        batchSegments( aboveGroundBatch, true );
+        batchPowerUps( aboveGroundBatch );
+        aboveGroundBatch.end();
 
-    /*
-    Use the texture shader program to draw a power up wherever one is located in the game view model.
-    */
-    private void positionPowerUpsInScene() {
-        textureShader.use();
+        timeNavigation();
+    }
 
-        for( PowerUp powerUp : GameViewModel.POWER_UPS ) {
-            positionModelInScene(
-                powerUp.getPosition().x, powerUp.getPosition().y, isRotated ? -90.0f : 0.0f
-            );
+    // Log the time from navigation to the first frame drawn after it when debugging.
+    private void timeNavigation() {
+        long navigationNanos = this.navigationNanos;
 
-            // Get the right texture for the segment type and ground layer.
-            int texture = 0;
+        if( navigationNanos < 0L ) return;
 
-            switch( powerUp.getKind() ) {
-                case plus1kPoints: texture = powerUpPlus1kPoints; break;
-                case plus10kPoints: texture = powerUpPlus10kPoints; break;
-                case plus100kPoints: texture = powerUpPlus100kPoints; break;
-                case slowDown: texture = powerUpSlowDown; break;
-            }
+        this.navigationNanos = -1L;
+        navigationToFirstFrameMillis = ( System.nanoTime() - navigationNanos ) / 1_000_000.0f;
 
-            textureShader.setUniforms( modelViewMatrix, texture );
-            powerUpRendering.bindData( textureShader );
-            powerUpRendering.draw();
-        }
+        if( LoggerUtil.DEBUGGING ) Log.d( TAG, String.format(
+            Locale.US, "Navigation to first frame: %.1f ms, context %s",
+            navigationToFirstFrameMillis, isContextShared ? "shared" : "created"
+        ) );
     }
 
     /*
-    Use the texture shader program to draw a segment wherever a centipede is located in the game
-    view model.  isAbove ensures that above/below-ground centipedes are drawn for the correct
-    layer for which it is called and with the correct corresponding texture.
+    The positionXInScene methods that proceed all follow the same formula:  The shader program to
+    use is specified, drawing data for the model is bound to the program, the model is positioned in
+    the scene, the uniforms are set for the shader program being used, and the model is drawn.  The
+    batchX methods instead append sprites to a batch already placed in the scene by the view matrix.
     */
-    private void positionSegmentsInScene( boolean isAbove ) {
-        textureShader.use();
 
-        for( Centipede centipede : GameViewModel.CENTIPEDES ) while( centipede != null ) {
-            // Guard against drawing centipede not for this layer.
-            if( centipede.getIsAbove() != isAbove ) {
-                centipede = centipede.getTail(); continue;
+    // Batch a power up wherever one is located in the latest snapshot.
+    private void batchPowerUps( SpriteRenderer batch ) {
+        for( int index = 0; index < snapshot.getPowerUpCount(); index++ ) {
+            // Get the right sprite for the power up kind.
+            TextureAtlas.Region region = null;
+
+            switch( snapshot.getPowerUpKind( index ) ) {
+                case plus1kPoints: region = powerUpPlus1kPoints; break;
+                case plus10kPoints: region = powerUpPlus10kPoints; break;
+                case plus100kPoints: region = powerUpPlus100kPoints; break;
+                case slowDown: region = powerUpSlowDown; break;
             }
 
-            positionModelInScene(
-                centipede.getPosition().x, centipede.getPosition().y, centipede.getRotation()
+            batch.draw(
+                region,
+                interpolate( snapshot.getPowerUpPreviousX( index ), snapshot.getPowerUpX( index ) ),
+                interpolate( snapshot.getPowerUpPreviousY( index ), snapshot.getPowerUpY( index ) ),
+                isRotated ? -90.0f : 0.0f, CENTIPEDE_NORMAL_WIDTH, CENTIPEDE_NORMAL_HEIGHT
             );
+        }
+    }
 
-            // Get the right texture for the segment type and ground layer.
-            int texture = centipede.getIsAbove() ? (
-                centipede.getIsHead() ? centipedeHeadAbove : centipedeBodyAbove
+    /*
+    Batch a segment wherever a centipede is located in the latest snapshot.  isAbove ensures that
+    above/below-ground centipedes are batched for the correct layer for which it is called and with
+    the correct corresponding texture.
+    */
+    private void batchSegments( SpriteRenderer batch, boolean isAbove ) {
+        for( int index = 0; index < snapshot.getSegmentCount(); index++ ) {
+            // Guard against drawing segments not for this layer.
+            if( snapshot.getSegmentIsAbove( index ) != isAbove ) continue;
+
+            // Get the right sprite for the segment type and ground layer.
+            TextureAtlas.Region region = isAbove ? (
+                snapshot.getSegmentIsHead( index ) ? centipedeHeadAbove : centipedeBodyAbove
             ) : (
-                centipede.getIsHead() ? centipedeHeadBelow : centipedeBodyBelow
+                snapshot.getSegmentIsHead( index ) ? centipedeHeadBelow : centipedeBodyBelow
             );
 
-            textureShader.setUniforms( modelViewMatrix, texture );
-            segment.bindData( textureShader );
-            segment.draw();
-
-            centipede = centipede.getTail();
+            batch.draw(
+                region,
+                interpolate( snapshot.getSegmentPreviousX( index ), snapshot.getSegmentX( index ) ),
+                interpolate( snapshot.getSegmentPreviousY( index ), snapshot.getSegmentY( index ) ),
+                snapshot.getSegmentRotation( index ), CENTIPEDE_NORMAL_WIDTH, CENTIPEDE_NORMAL_HEIGHT
+            );
         }
     }
 
@@ -278,22 +589,36 @@ public class GameRenderer implements GLSurfaceView.Renderer {
     */
     private void positionLawnTopInScene() {
         textureShader.use();
+        lawnWithHoles.bindData( textureShader );
         positionModelInScene( 0.0f, 0.0f, 0.0f );
         textureShader.setUniforms( modelViewMatrix, lawnTop );
-        lawn.bindData( textureShader );
-        lawn.draw();
+        lawnWithHoles.draw();
     }
 
     /*
     Use the color shader program to draw lawn in the scene which serves to confine the region within
-    which all holes, turns, and centipedes are drawn
+    which all holes, turns, and centipedes are drawn.  Lawn bottom textures are fully opaque, and
+    the lawn bottom is drawn first over nothing but the clear color, so it is drawn without blending
+    to spare the graphics hardware from blending a screen of fragments that would come out the same.
+    The transparent placeholder is not opaque, and drawn without blending would wipe the clear color
+    out, so nothing is drawn until the lawn bottom texture is loaded.
     */
     private void positionLawnBottomInScene() {
+        // Guard against drawing the placeholder over the clear color without blending.
+        if( lawnBottom == placeholder ) return;
+
+        GLStateUtil.setBlending( false );
         textureShader.use();
+        lawn.bindData( textureShader );
         positionModelInScene( 0.0f, 0.0f, 0.0f );
         textureShader.setUniforms( modelViewMatrix, lawnBottom );
-        lawn.bindData( textureShader );
         lawn.draw();
+        GLStateUtil.setBlending( true );
+    }
+
+    // Interpolate between a previous and current coordinate by the alpha for the frame.
+    private float interpolate( float previous, float current ) {
+        return previous + ( current - previous ) * alpha;
     }
 
     // Position a model in the scene at specific X, Y, and Z cartesian space coordinates. Z is 0.0f.
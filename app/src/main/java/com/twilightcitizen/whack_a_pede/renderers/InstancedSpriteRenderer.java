@@ -0,0 +1,323 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.renderers;
+
+import com.twilightcitizen.whack_a_pede.data.TextureAtlas;
+import com.twilightcitizen.whack_a_pede.data.VertexBuffer;
+import com.twilightcitizen.whack_a_pede.shaders.InstancedSpriteShader;
+import com.twilightcitizen.whack_a_pede.utilities.GLStateUtil;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+import static android.opengl.GLES30.*;
+
+/*
+InstancedSpriteRenderer is a SpriteRenderer for OpenGL ES 3.0 that draws every sprite from the same
+texture with a single instanced draw call.  A square of unit size is uploaded once and shared by all
+sprites, and each sprite drawn appends only its center, rotation, size, and region of a texture
+atlas to a page of instances for its texture, leaving the InstancedSpriteShader program to stretch,
+rotate, and move the square into place for every instance.  That is fewer floats than a SpriteBatch
+writes and uploads for the four vertices of the same sprite.  Pages are drawn in the order their
+textures were first drawn within the batch, and instance storage grows as needed and is reused from
+batch to batch, just as for SpriteBatch.  Renderers hold buffers on the graphics hardware, so they
+must be created on the thread with an OpenGL ES 3.0 context, as in onSurfaceCreated.
+*/
+public class InstancedSpriteRenderer implements SpriteRenderer {
+    // Single precision floating point numbers require 4 bytes each.
+    private static final int BYTES_PER_FLOAT = 4;
+
+    // Vertices of the unit square carry X and Y positions and S and T texture coordinates.
+    private static final int POSITION_COMPONENT_COUNT = 2;
+    private static final int TEXTURE_COORDINATES_COMPONENT_COUNT = 2;
+
+    private static final int VERTEX_STRIDE =
+        ( POSITION_COMPONENT_COUNT + TEXTURE_COORDINATES_COMPONENT_COUNT ) * BYTES_PER_FLOAT;
+
+    // Instances carry the X and Y of the center, rotation, width and height, and a region.
+    private static final int CENTER_COMPONENT_COUNT = 2;
+    private static final int ROTATION_COMPONENT_COUNT = 1;
+    private static final int SIZE_COMPONENT_COUNT = 2;
+    private static final int REGION_COMPONENT_COUNT = 4;
+
+    private static final int FLOATS_PER_INSTANCE = CENTER_COMPONENT_COUNT +
+        ROTATION_COMPONENT_COUNT + SIZE_COMPONENT_COUNT + REGION_COMPONENT_COUNT;
+
+    private static final int INSTANCE_STRIDE = FLOATS_PER_INSTANCE * BYTES_PER_FLOAT;
+
+    /*
+    Unit square drawn as a triangle fan counterclockwise from bottom left.  Texture coordinate T is
+    inverted due to how images are stored, just as for models.
+    */
+    private static final int VERTICES_PER_SPRITE = 4;
+
+    private static final float[] UNIT_SQUARE = new float[] {
+        -0.5f, -0.5f, 0.0f, 1.0f,
+         0.5f, -0.5f, 1.0f, 1.0f,
+         0.5f,  0.5f, 1.0f, 0.0f,
+        -0.5f,  0.5f, 0.0f, 0.0f
+    };
+
+    // Most textures, and therefore pages, in a batch before it must be flushed early.
+    private static final int MAX_PAGES = 8;
+
+    // Shader program that draws the sprites.
+    private final InstancedSpriteShader instancedSpriteShader;
+
+    // Textures of the pages in use, the instances appended to each, and how many each holds.
+    private final int[] pageTextures = new int[ MAX_PAGES ];
+    private final float[][] pageInstances = new float[ MAX_PAGES ][];
+    private final int[] pageSpriteCounts = new int[ MAX_PAGES ];
+    private int pageCount;
+
+    // Total sprites across all pages.
+    private int spriteCount;
+
+    // Unit square uploaded once, a buffer staging every page for upload, and the buffer drawn from.
+    private final VertexBuffer unitSquare;
+    private FloatBuffer staging;
+    private final int instanceBufferId;
+
+    // Matrix that places the scene the sprites are in on the screen.
+    private float[] matrix;
+
+    // Renderer must have a shader program to draw with and room for some sprites to start.
+    public InstancedSpriteRenderer(
+        InstancedSpriteShader instancedSpriteShader, int capacityInSprites
+    ) {
+        this.instancedSpriteShader = instancedSpriteShader;
+
+        for( int page = 0; page < MAX_PAGES; page++ )
+            pageInstances[ page ] =
+                new float[ Math.max( 1, capacityInSprites ) * FLOATS_PER_INSTANCE ];
+
+        staging = allocateStaging( Math.max( 1, capacityInSprites ) );
+        unitSquare = new VertexBuffer( "Unit Square", UNIT_SQUARE );
+
+        final int[] buffers = new int[ 1 ];
+
+        glGenBuffers( buffers.length, buffers, 0 );
+
+        // Guard against OpenGL failing to create the buffer.
+        if( buffers[ 0 ] == 0 ) throw new RuntimeException( "Instance Buffer Not Created" );
+
+        instanceBufferId = buffers[ 0 ];
+    }
+
+    // Start a batch of sprites placed on the screen by the given matrix.
+    @Override public void begin( float[] matrix ) {
+        this.matrix = matrix;
+        pageCount = 0;
+        spriteCount = 0;
+    }
+
+    /*
+    Append an instance with a region of a texture atlas, centered at X and Y in the scene, rotated
+    counterclockwise by some degrees, and of some width and height.
+    */
+    @Override public void draw(
+        TextureAtlas.Region region, float x, float y, float rotation, float width, float height
+    ) {
+        int page = findPage( region.getTexture() );
+        int offset = pageSpriteCounts[ page ] * FLOATS_PER_INSTANCE;
+
+        ensurePageCapacity( page, pageSpriteCounts[ page ] + 1 );
+
+        float[] instances = pageInstances[ page ];
+
+        instances[ offset++ ] = x;
+        instances[ offset++ ] = y;
+        instances[ offset++ ] = (float) Math.toRadians( rotation );
+        instances[ offset++ ] = width;
+        instances[ offset++ ] = height;
+        instances[ offset++ ] = region.getS0();
+        instances[ offset++ ] = region.getT0();
+        instances[ offset++ ] = region.getS1();
+        instances[ offset ] = region.getT1();
+
+        pageSpriteCounts[ page ]++;
+        spriteCount++;
+    }
+
+    // End the batch, drawing every sprite appended to it.
+    @Override public void end() { flush(); }
+
+    // Delete the buffers from the graphics hardware while the OpenGL context is still current.
+    @Override public void release() {
+        unitSquare.release();
+        glDeleteBuffers( 1, new int[] { instanceBufferId }, 0 );
+    }
+
+    // Find the page for a texture, starting a new one if needed and flushing early if out of pages.
+    private int findPage( int texture ) {
+        for( int page = 0; page < pageCount; page++ )
+            if( pageTextures[ page ] == texture ) return page;
+
+        if( pageCount == MAX_PAGES ) flush();
+
+        pageTextures[ pageCount ] = texture;
+        pageSpriteCounts[ pageCount ] = 0;
+
+        return pageCount++;
+    }
+
+    // Upload every page at once and draw each with one instanced draw call.
+    private void flush() {
+        // Guard against drawing nothing.
+        if( spriteCount == 0 ) { pageCount = 0; return; }
+
+        ensureStagingCapacity( spriteCount );
+
+        // Stage the pages one after another, remembering nothing but their order.
+        staging.position( 0 );
+
+        for( int page = 0; page < pageCount; page++ )
+            staging.put( pageInstances[ page ], 0, pageSpriteCounts[ page ] * FLOATS_PER_INSTANCE );
+
+        staging.position( 0 );
+
+        // Upload the instances, letting OpenGL orphan whatever the buffer held for the last batch.
+        glBindBuffer( GL_ARRAY_BUFFER, instanceBufferId );
+
+        glBufferData(
+            GL_ARRAY_BUFFER, spriteCount * INSTANCE_STRIDE, staging, GL_STREAM_DRAW
+        );
+
+        glBindBuffer( GL_ARRAY_BUFFER, 0 );
+
+        instancedSpriteShader.use();
+        instancedSpriteShader.setMatrix( matrix );
+
+        // Point the shader's vertex attributes at the unit square, the same for every page.
+        unitSquare.setVertexAttributePointer(
+            0, instancedSpriteShader.getPositionAttributeLocation(),
+            POSITION_COMPONENT_COUNT, VERTEX_STRIDE
+        );
+
+        unitSquare.setVertexAttributePointer(
+            POSITION_COMPONENT_COUNT,
+            instancedSpriteShader.getTextureCoordinatesAttributeLocation(),
+            TEXTURE_COORDINATES_COMPONENT_COUNT, VERTEX_STRIDE
+        );
+
+        int firstSprite = 0;
+
+        glBindBuffer( GL_ARRAY_BUFFER, instanceBufferId );
+
+        for( int page = 0; page < pageCount; page++ ) {
+            instancedSpriteShader.setTexture( pageTextures[ page ] );
+
+            setInstanceAttributePointers( firstSprite * FLOATS_PER_INSTANCE, 1 );
+
+            glDrawArraysInstanced(
+                GL_TRIANGLE_FAN, 0, VERTICES_PER_SPRITE, pageSpriteCounts[ page ]
+            );
+
+            firstSprite += pageSpriteCounts[ page ];
+        }
+
+        /*
+        Attribute locations are shared by every program, so put them back to advancing once for
+        every vertex, and stop reading instances from them, before anything else is drawn.
+        */
+        resetInstanceAttributes();
+
+        // Unbind the buffer so client memory data can still be drawn elsewhere.
+        glBindBuffer( GL_ARRAY_BUFFER, 0 );
+
+        pageCount = 0;
+        spriteCount = 0;
+    }
+
+    /*
+    Point the shader's instance attributes at the instances starting at some offset in floats in
+    the bound buffer, advancing them after every so many instances.
+    */
+    private void setInstanceAttributePointers( int offset, int divisor ) {
+        offset = setInstanceAttributePointer(
+            instancedSpriteShader.getCenterAttributeLocation(), CENTER_COMPONENT_COUNT, offset,
+            divisor
+        );
+
+        offset = setInstanceAttributePointer(
+            instancedSpriteShader.getRotationAttributeLocation(), ROTATION_COMPONENT_COUNT, offset,
+            divisor
+        );
+
+        offset = setInstanceAttributePointer(
+            instancedSpriteShader.getSizeAttributeLocation(), SIZE_COMPONENT_COUNT, offset,
+            divisor
+        );
+
+        setInstanceAttributePointer(
+            instancedSpriteShader.getRegionAttributeLocation(), REGION_COMPONENT_COUNT, offset,
+            divisor
+        );
+    }
+
+    // Point one instance attribute at an offset in floats, returning the offset after it.
+    private static int setInstanceAttributePointer(
+        int attributeLocation, int componentCount, int offset, int divisor
+    ) {
+        glVertexAttribPointer(
+            attributeLocation, componentCount, GL_FLOAT, false, INSTANCE_STRIDE,
+            offset * BYTES_PER_FLOAT
+        );
+
+        glVertexAttribDivisor( attributeLocation, divisor );
+        GLStateUtil.enableVertexAttribArray( attributeLocation );
+
+        return offset + componentCount;
+    }
+
+    // Stop reading the instance attributes from the instance buffer.
+    private void resetInstanceAttributes() {
+        resetInstanceAttribute( instancedSpriteShader.getCenterAttributeLocation() );
+        resetInstanceAttribute( instancedSpriteShader.getRotationAttributeLocation() );
+        resetInstanceAttribute( instancedSpriteShader.getSizeAttributeLocation() );
+        resetInstanceAttribute( instancedSpriteShader.getRegionAttributeLocation() );
+    }
+
+    // Put one instance attribute back to advancing every vertex and stop reading it.
+    private static void resetInstanceAttribute( int attributeLocation ) {
+        glVertexAttribDivisor( attributeLocation, 0 );
+        GLStateUtil.disableVertexAttribArray( attributeLocation );
+    }
+
+    // Grow the instances of a page by doubling until they hold at least some number of sprites.
+    private void ensurePageCapacity( int page, int capacityInSprites ) {
+        int length = pageInstances[ page ].length;
+
+        if( capacityInSprites * FLOATS_PER_INSTANCE <= length ) return;
+
+        while( length < capacityInSprites * FLOATS_PER_INSTANCE ) length *= 2;
+
+        pageInstances[ page ] = Arrays.copyOf( pageInstances[ page ], length );
+    }
+
+    // Grow the staging buffer by doubling until it holds at least the given number of sprites.
+    private void ensureStagingCapacity( int capacityInSprites ) {
+        int capacity = staging.capacity() / FLOATS_PER_INSTANCE;
+
+        if( capacityInSprites <= capacity ) return;
+
+        while( capacity < capacityInSprites ) capacity *= 2;
+
+        staging = allocateStaging( capacity );
+    }
+
+    // Allocate a direct buffer in native endian order to stage some number of sprites.
+    private static FloatBuffer allocateStaging( int capacityInSprites ) {
+        return ByteBuffer
+            .allocateDirect( capacityInSprites * INSTANCE_STRIDE )
+            .order( ByteOrder.nativeOrder() )
+            .asFloatBuffer();
+    }
+}
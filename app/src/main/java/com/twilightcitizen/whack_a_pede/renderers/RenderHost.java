@@ -0,0 +1,107 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.renderers;
+
+import android.content.Context;
+import android.graphics.PixelFormat;
+import android.opengl.GLSurfaceView;
+import android.view.ViewGroup;
+
+import com.twilightcitizen.whack_a_pede.data.TextureLoader;
+import com.twilightcitizen.whack_a_pede.utilities.GLResourceUtil;
+import com.twilightcitizen.whack_a_pede.utilities.GLVersionUtil;
+
+/*
+RenderHost holds the GLSurfaceView the game is drawn to, along with its renderer, frame pacer, and
+texture loader, for as long as the activity that creates it, rather than for as long as the view
+of a fragment showing it.  Fragments attach the GLSurfaceView to a frame of their own and detach it
+when their view is destroyed, as when navigating to another screen, and the same GLSurfaceView is
+attached again on the way back.  GLSurfaceView still destroys its context whenever it is detached,
+but every context it creates shares textures, programs, and buffers with one kept by the host, so
+the renderer draws with everything it created before as soon as it is attached again, without
+repeating any of the work of starting up.  Everything here must be done on the main thread.
+*/
+public class RenderHost {
+    // SurfaceView where OpenGL draws the game.
+    private final GLSurfaceView surfaceView;
+
+    // Context factory keeping a context for every context of the SurfaceView to share objects with.
+    private final GLVersionUtil.ContextFactory contextFactory = new GLVersionUtil.ContextFactory();
+
+    // Frame pacer, texture loader, and renderer OpenGL uses for the SurfaceView.
+    private final FramePacer framePacer;
+    private final TextureLoader textureLoader;
+    private final GameRenderer gameRenderer;
+
+    // Create the SurfaceView with a renderer for an activity, where this must be created.
+    public RenderHost( Context context ) {
+        surfaceView = new GLSurfaceView( context );
+        framePacer = new FramePacer( surfaceView::requestRender );
+        textureLoader = new TextureLoader( context, surfaceView );
+        gameRenderer = new GameRenderer( context, framePacer, textureLoader );
+
+        /*
+        Use OpenGL 3.0 where the device allows and OpenGL 2.0 otherwise, and GameRenderer will do
+        the drawing.  The client version still picks a configuration every OpenGL 2.0 device has.
+        */
+        surfaceView.setEGLContextClientVersion( 2 );
+        surfaceView.setEGLContextFactory( contextFactory );
+        surfaceView.setEGLConfigChooser( true );
+        surfaceView.getHolder().setFormat( PixelFormat.RGBA_8888 );
+        surfaceView.getHolder().setFormat( PixelFormat.TRANSPARENT );
+        surfaceView.setRenderer( gameRenderer );
+        surfaceView.setRenderMode( GLSurfaceView.RENDERMODE_WHEN_DIRTY );
+
+        /*
+        Keep the OpenGL context while paused where the device allows, so resuming needs nothing
+        created again.  Devices that lose it anyway create again only what was lost, from what
+        GLResourceUtil kept.
+        */
+        surfaceView.setPreserveEGLContextOnPause( true );
+    }
+
+    // Expose the SurfaceView, frame pacer, texture loader, and renderer for read access.
+    public GLSurfaceView getSurfaceView() { return surfaceView; }
+    public FramePacer getFramePacer() { return framePacer; }
+    public TextureLoader getTextureLoader() { return textureLoader; }
+    public GameRenderer getGameRenderer() { return gameRenderer; }
+
+    /*
+    Attach the SurfaceView to a frame, detaching it from wherever it was first, and time how long
+    it takes from here until a frame is drawn to it.
+    */
+    public void attach( ViewGroup frame ) {
+        detach();
+        gameRenderer.startNavigationTiming();
+        frame.addView( surfaceView );
+    }
+
+    // Detach the SurfaceView from its frame, if it is in one, destroying its current context.
+    public void detach() {
+        ViewGroup parent = (ViewGroup) surfaceView.getParent();
+
+        if( parent != null ) parent.removeView( surfaceView );
+    }
+
+    /*
+    Stop pacing frames and loading textures for good, release everything the renderer created in
+    the context kept for sharing, and destroy it, as when the activity is destroyed.  Every
+    reference acquired from GLResourceUtil should be released by then, which is checked when
+    debugging.  The SurfaceView must already be detached.
+    */
+    public void release() {
+        framePacer.stop();
+        textureLoader.shutdown();
+
+        if( contextFactory.runInSharedContext( gameRenderer::release ) )
+            GLResourceUtil.checkReleased();
+
+        contextFactory.release();
+        GLResourceUtil.onContextsDestroyed();
+    }
+}
@@ -0,0 +1,422 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.renderers;
+
+import com.twilightcitizen.whack_a_pede.data.TextureAtlas;
+import com.twilightcitizen.whack_a_pede.shaders.SpriteShader;
+import com.twilightcitizen.whack_a_pede.shaders.TextureShader;
+import com.twilightcitizen.whack_a_pede.utilities.GLStateUtil;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+
+import static android.opengl.GLES20.*;
+
+/*
+SpriteBatch is a SpriteRenderer for OpenGL ES 2.0 that draws many textured rectangles, or sprites,
+with as few draw calls as possible.  Rather than positioning a model in the scene with a matrix,
+setting uniforms, and drawing it once for every sprite, each sprite drawn is transformed on the CPU
+into four vertices already in place in the scene and appended to a page of vertices for its texture.
+Batches made with a SpriteShader instead leave rotating and placing the corners to the graphics
+hardware, writing each corner's offset from the center along with the center and rotation, so a
+sprite costs the CPU a few float writes and no trigonometry.  Ending the batch uploads every page at
+once to a single dynamic vertex buffer and draws each page with one draw call, so the number of draw
+calls grows with the number of textures in use rather than the number of sprites, and sprites packed
+in the same texture atlas are all drawn with one.  Pages are drawn in the order their textures were
+first drawn within the batch, and sprites within a page in the order they were drawn.  Vertex
+storage grows as needed and is reused from batch to batch, so drawing allocates nothing once it has
+seen the most sprites it will.  Batches hold buffers on the graphics hardware, so they must be
+created on the thread with the OpenGL context, as in onSurfaceCreated.
+*/
+public class SpriteBatch implements SpriteRenderer {
+    // Single precision floating point numbers and short integers require 4 and 2 bytes each.
+    private static final int BYTES_PER_FLOAT = 4;
+    private static final int BYTES_PER_SHORT = 2;
+
+    /*
+    Vertices of a sprite carry X and Y positions and S and T texture coordinates.  Transformed on
+    the graphics hardware, those positions are of the corners from the sprite's center, and vertices
+    also carry the X and Y of the center and the rotation in radians.
+    */
+    private static final int POSITION_COMPONENT_COUNT = 2;
+    private static final int TEXTURE_COORDINATES_COMPONENT_COUNT = 2;
+    private static final int CENTER_COMPONENT_COUNT = 2;
+    private static final int ROTATION_COMPONENT_COUNT = 1;
+
+    // Sprites are drawn as two triangles sharing four vertices by six indices.
+    private static final int VERTICES_PER_SPRITE = 4;
+    private static final int INDICES_PER_SPRITE = 6;
+
+    /*
+    Most sprites drawn by a single draw call.  Indices are short integers, which can only reach so
+    many vertices, so larger pages are drawn in runs of this many sprites.
+    */
+    private static final int MAX_SPRITES_PER_DRAW = 4_096;
+
+    // Most textures, and therefore pages, in a batch before it must be flushed early.
+    private static final int MAX_PAGES = 8;
+
+    // Shader program that draws the sprites, and the same program if it transforms them, or null.
+    private final TextureShader textureShader;
+    private final SpriteShader spriteShader;
+
+    // Floats for each vertex and sprite, and the bytes between vertices, for the shader program.
+    private final int floatsPerVertex;
+    private final int floatsPerSprite;
+    private final int stride;
+
+    // Textures of the pages in use, the vertices appended to each, and how many sprites each holds.
+    private final int[] pageTextures = new int[ MAX_PAGES ];
+    private final float[][] pageVertices = new float[ MAX_PAGES ][];
+    private final int[] pageSpriteCounts = new int[ MAX_PAGES ];
+    private int pageCount;
+
+    // Total sprites across all pages.
+    private int spriteCount;
+
+    // Direct buffer that stages every page for upload, and the vertex and index buffers drawn from.
+    private FloatBuffer staging;
+    private final int vertexBufferId;
+    private final int indexBufferId;
+
+    // Matrix that places the scene the sprites are in on the screen.
+    private float[] matrix;
+
+    // Batch sprites transformed on the CPU, drawn by a shader program with room for some to start.
+    public SpriteBatch( TextureShader textureShader, int capacityInSprites ) {
+        this( textureShader, null, capacityInSprites );
+    }
+
+    // Batch sprites transformed on the graphics hardware, drawn by a sprite shader program instead.
+    public SpriteBatch( SpriteShader spriteShader, int capacityInSprites ) {
+        this( spriteShader, spriteShader, capacityInSprites );
+    }
+
+    private SpriteBatch(
+        TextureShader textureShader, SpriteShader spriteShader, int capacityInSprites
+    ) {
+        this.textureShader = textureShader;
+        this.spriteShader = spriteShader;
+
+        floatsPerVertex = POSITION_COMPONENT_COUNT + TEXTURE_COORDINATES_COMPONENT_COUNT + (
+            spriteShader == null ? 0 : CENTER_COMPONENT_COUNT + ROTATION_COMPONENT_COUNT
+        );
+
+        floatsPerSprite = VERTICES_PER_SPRITE * floatsPerVertex;
+        stride = floatsPerVertex * BYTES_PER_FLOAT;
+
+        for( int page = 0; page < MAX_PAGES; page++ )
+            pageVertices[ page ] = new float[ Math.max( 1, capacityInSprites ) * floatsPerSprite ];
+
+        staging = allocateStaging( Math.max( 1, capacityInSprites ) * floatsPerSprite );
+
+        final int[] buffers = new int[ 2 ];
+
+        glGenBuffers( buffers.length, buffers, 0 );
+
+        // Guard against OpenGL failing to create the buffers.
+        if( buffers[ 0 ] == 0 || buffers[ 1 ] == 0 )
+            throw new RuntimeException( "Sprite Batch Buffers Not Created" );
+
+        vertexBufferId = buffers[ 0 ];
+        indexBufferId = buffers[ 1 ];
+
+        uploadIndices();
+    }
+
+    /*
+    Indices never change, since every sprite is drawn the same way from its own four vertices, so
+    they are uploaded once for the most sprites a single draw call draws.  Vertices go around each
+    sprite counterclockwise from bottom left, and the two triangles split it corner to corner.
+    */
+    private void uploadIndices() {
+        ShortBuffer indices = ByteBuffer
+            .allocateDirect( MAX_SPRITES_PER_DRAW * INDICES_PER_SPRITE * BYTES_PER_SHORT )
+            .order( ByteOrder.nativeOrder() )
+            .asShortBuffer();
+
+        for( int sprite = 0; sprite < MAX_SPRITES_PER_DRAW; sprite++ ) {
+            short first = (short) ( sprite * VERTICES_PER_SPRITE );
+
+            indices.put( first ).put( (short) ( first + 1 ) ).put( (short) ( first + 2 ) );
+            indices.put( first ).put( (short) ( first + 2 ) ).put( (short) ( first + 3 ) );
+        }
+
+        indices.position( 0 );
+
+        glBindBuffer( GL_ELEMENT_ARRAY_BUFFER, indexBufferId );
+
+        glBufferData(
+            GL_ELEMENT_ARRAY_BUFFER, indices.capacity() * BYTES_PER_SHORT, indices, GL_STATIC_DRAW
+        );
+
+        glBindBuffer( GL_ELEMENT_ARRAY_BUFFER, 0 );
+    }
+
+    // Start a batch of sprites placed on the screen by the given matrix.
+    @Override public void begin( float[] matrix ) {
+        this.matrix = matrix;
+        pageCount = 0;
+        spriteCount = 0;
+    }
+
+    /*
+    Append a sprite with a region of a texture atlas, centered at X and Y in the scene, rotated
+    counterclockwise by some degrees, and of some width and height.  Texture coordinate T is
+    inverted due to how images are stored, just as for models, so the top of a region is at T0 and
+    the bottom at T1.  Sprites from the same atlas share a page, however many regions they use.
+    */
+    @Override public void draw(
+        TextureAtlas.Region region, float x, float y, float rotation, float width, float height
+    ) {
+        int page = findPage( region.getTexture() );
+        int offset = pageSpriteCounts[ page ] * floatsPerSprite;
+
+        ensurePageCapacity( page, pageSpriteCounts[ page ] + 1 );
+
+        if( spriteShader == null )
+            transformOnCpu( pageVertices[ page ], offset, region, x, y, rotation, width, height );
+        else
+            transformOnGpu( pageVertices[ page ], offset, region, x, y, rotation, width, height );
+
+        pageSpriteCounts[ page ]++;
+        spriteCount++;
+    }
+
+    // Write the vertices of a sprite with its corners already rotated and placed in the scene.
+    private static void transformOnCpu(
+        float[] vertices, int offset, TextureAtlas.Region region,
+        float x, float y, float rotation, float width, float height
+    ) {
+        // Rotate the half width and height once, and place each corner from the center by them.
+        double radians = Math.toRadians( rotation );
+        float cos = (float) Math.cos( radians );
+        float sin = (float) Math.sin( radians );
+        float halfWidthCos = width / 2.0f * cos;
+        float halfWidthSin = width / 2.0f * sin;
+        float halfHeightCos = height / 2.0f * cos;
+        float halfHeightSin = height / 2.0f * sin;
+
+        // Bottom left.
+        vertices[ offset++ ] = x - halfWidthCos + halfHeightSin;
+        vertices[ offset++ ] = y - halfWidthSin - halfHeightCos;
+        vertices[ offset++ ] = region.getS0();
+        vertices[ offset++ ] = region.getT1();
+
+        // Bottom right.
+        vertices[ offset++ ] = x + halfWidthCos + halfHeightSin;
+        vertices[ offset++ ] = y + halfWidthSin - halfHeightCos;
+        vertices[ offset++ ] = region.getS1();
+        vertices[ offset++ ] = region.getT1();
+
+        // Top right.
+        vertices[ offset++ ] = x + halfWidthCos - halfHeightSin;
+        vertices[ offset++ ] = y + halfWidthSin + halfHeightCos;
+        vertices[ offset++ ] = region.getS1();
+        vertices[ offset++ ] = region.getT0();
+
+        // Top left.
+        vertices[ offset++ ] = x - halfWidthCos - halfHeightSin;
+        vertices[ offset++ ] = y - halfWidthSin + halfHeightCos;
+        vertices[ offset++ ] = region.getS0();
+        vertices[ offset ] = region.getT0();
+    }
+
+    /*
+    Write the vertices of a sprite with corners around its center, along with the center and the
+    rotation, leaving the sprite shader program to rotate and place the corners in the scene.
+    */
+    private static void transformOnGpu(
+        float[] vertices, int offset, TextureAtlas.Region region,
+        float x, float y, float rotation, float width, float height
+    ) {
+        float halfWidth = width / 2.0f;
+        float halfHeight = height / 2.0f;
+        float radians = (float) Math.toRadians( rotation );
+
+        offset = putVertex(
+            vertices, offset, -halfWidth, -halfHeight, region.getS0(), region.getT1(), x, y, radians
+        );
+
+        offset = putVertex(
+            vertices, offset, halfWidth, -halfHeight, region.getS1(), region.getT1(), x, y, radians
+        );
+
+        offset = putVertex(
+            vertices, offset, halfWidth, halfHeight, region.getS1(), region.getT0(), x, y, radians
+        );
+
+        putVertex(
+            vertices, offset, -halfWidth, halfHeight, region.getS0(), region.getT0(), x, y, radians
+        );
+    }
+
+    // Write a vertex for transforming on the graphics hardware, returning the offset after it.
+    private static int putVertex(
+        float[] vertices, int offset, float cornerX, float cornerY, float s, float t,
+        float centerX, float centerY, float rotation
+    ) {
+        vertices[ offset++ ] = cornerX;
+        vertices[ offset++ ] = cornerY;
+        vertices[ offset++ ] = s;
+        vertices[ offset++ ] = t;
+        vertices[ offset++ ] = centerX;
+        vertices[ offset++ ] = centerY;
+        vertices[ offset++ ] = rotation;
+
+        return offset;
+    }
+
+    // End the batch, drawing every sprite appended to it.
+    @Override public void end() { flush(); }
+
+    // Delete the buffers from the graphics hardware while the OpenGL context is still current.
+    @Override public void release() {
+        glDeleteBuffers( 2, new int[] { vertexBufferId, indexBufferId }, 0 );
+    }
+
+    // Find the page for a texture, starting a new one if needed and flushing early if out of pages.
+    private int findPage( int texture ) {
+        for( int page = 0; page < pageCount; page++ )
+            if( pageTextures[ page ] == texture ) return page;
+
+        if( pageCount == MAX_PAGES ) flush();
+
+        pageTextures[ pageCount ] = texture;
+        pageSpriteCounts[ pageCount ] = 0;
+
+        return pageCount++;
+    }
+
+    // Upload every page at once and draw each in as few draw calls as indices allow.
+    private void flush() {
+        // Guard against drawing nothing.
+        if( spriteCount == 0 ) { pageCount = 0; return; }
+
+        ensureStagingCapacity( spriteCount * floatsPerSprite );
+
+        // Stage the pages one after another, remembering nothing but their order.
+        staging.position( 0 );
+
+        for( int page = 0; page < pageCount; page++ )
+            staging.put( pageVertices[ page ], 0, pageSpriteCounts[ page ] * floatsPerSprite );
+
+        staging.position( 0 );
+
+        // Upload the vertices, letting OpenGL orphan whatever the buffer held for the last batch.
+        glBindBuffer( GL_ARRAY_BUFFER, vertexBufferId );
+
+        glBufferData(
+            GL_ARRAY_BUFFER, spriteCount * floatsPerSprite * BYTES_PER_FLOAT, staging,
+            GL_STREAM_DRAW
+        );
+
+        glBindBuffer( GL_ELEMENT_ARRAY_BUFFER, indexBufferId );
+
+        textureShader.use();
+        textureShader.setMatrix( matrix );
+
+        int firstSprite = 0;
+
+        for( int page = 0; page < pageCount; page++ ) {
+            textureShader.setTexture( pageTextures[ page ] );
+
+            // Draw the page in runs of sprites the indices can reach, pointing at each run in turn.
+            for( int drawn = 0; drawn < pageSpriteCounts[ page ]; drawn += MAX_SPRITES_PER_DRAW ) {
+                int sprites = Math.min( MAX_SPRITES_PER_DRAW, pageSpriteCounts[ page ] - drawn );
+
+                setVertexAttributePointers( ( firstSprite + drawn ) * floatsPerSprite );
+                glDrawElements( GL_TRIANGLES, sprites * INDICES_PER_SPRITE, GL_UNSIGNED_SHORT, 0 );
+            }
+
+            firstSprite += pageSpriteCounts[ page ];
+        }
+
+        // Unbind the buffers so client memory data can still be drawn elsewhere.
+        glBindBuffer( GL_ELEMENT_ARRAY_BUFFER, 0 );
+        glBindBuffer( GL_ARRAY_BUFFER, 0 );
+
+        pageCount = 0;
+        spriteCount = 0;
+    }
+
+    // Point the shader's attributes at the vertices starting at some offset in floats.
+    private void setVertexAttributePointers( int offset ) {
+        glVertexAttribPointer(
+            textureShader.getPositionAttributeLocation(), POSITION_COMPONENT_COUNT, GL_FLOAT,
+            false, stride, offset * BYTES_PER_FLOAT
+        );
+
+        GLStateUtil.enableVertexAttribArray( textureShader.getPositionAttributeLocation() );
+
+        offset += POSITION_COMPONENT_COUNT;
+
+        glVertexAttribPointer(
+            textureShader.getTextureCoordinatesAttributeLocation(),
+            TEXTURE_COORDINATES_COMPONENT_COUNT, GL_FLOAT, false, stride, offset * BYTES_PER_FLOAT
+        );
+
+        GLStateUtil.enableVertexAttribArray(
+            textureShader.getTextureCoordinatesAttributeLocation()
+        );
+
+        // Guard against pointing at centers and rotations the vertices do not carry.
+        if( spriteShader == null ) return;
+
+        offset += TEXTURE_COORDINATES_COMPONENT_COUNT;
+
+        glVertexAttribPointer(
+            spriteShader.getCenterAttributeLocation(), CENTER_COMPONENT_COUNT, GL_FLOAT, false,
+            stride, offset * BYTES_PER_FLOAT
+        );
+
+        GLStateUtil.enableVertexAttribArray( spriteShader.getCenterAttributeLocation() );
+
+        offset += CENTER_COMPONENT_COUNT;
+
+        glVertexAttribPointer(
+            spriteShader.getRotationAttributeLocation(), ROTATION_COMPONENT_COUNT, GL_FLOAT, false,
+            stride, offset * BYTES_PER_FLOAT
+        );
+
+        GLStateUtil.enableVertexAttribArray( spriteShader.getRotationAttributeLocation() );
+    }
+
+    // Grow the vertices of a page by doubling until they hold at least the given number of sprites.
+    private void ensurePageCapacity( int page, int capacityInSprites ) {
+        int length = pageVertices[ page ].length;
+
+        if( capacityInSprites * floatsPerSprite <= length ) return;
+
+        while( length < capacityInSprites * floatsPerSprite ) length *= 2;
+
+        pageVertices[ page ] = Arrays.copyOf( pageVertices[ page ], length );
+    }
+
+    // Grow the staging buffer by doubling until it holds at least the given number of floats.
+    private void ensureStagingCapacity( int capacityInFloats ) {
+        int capacity = staging.capacity();
+
+        if( capacityInFloats <= capacity ) return;
+
+        while( capacity < capacityInFloats ) capacity *= 2;
+
+        staging = allocateStaging( capacity );
+    }
+
+    // Allocate a direct buffer in native endian order to stage some number of floats.
+    private static FloatBuffer allocateStaging( int capacityInFloats ) {
+        return ByteBuffer
+            .allocateDirect( capacityInFloats * BYTES_PER_FLOAT )
+            .order( ByteOrder.nativeOrder() )
+            .asFloatBuffer();
+    }
+}
@@ -0,0 +1,36 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.renderers;
+
+import com.twilightcitizen.whack_a_pede.data.TextureAtlas;
+
+/*
+SpriteRenderer draws batches of sprites from texture atlases, however the graphics hardware at hand
+is best able to.  Sprites are drawn between begin and end, in the order they were drawn for any
+one atlas, and all of them are on the screen once end returns.  GameRenderer draws through it alone,
+so it need not know which way is in use.  Renderers hold resources on the graphics hardware, so they
+must be created on the thread with the OpenGL context, as in onSurfaceCreated.
+*/
+public interface SpriteRenderer {
+    // Start a batch of sprites placed on the screen by the given matrix.
+    void begin( float[] matrix );
+
+    /*
+    Draw a sprite with a region of a texture atlas, centered at X and Y in the scene, rotated
+    counterclockwise by some degrees, and of some width and height.
+    */
+    void draw(
+        TextureAtlas.Region region, float x, float y, float rotation, float width, float height
+    );
+
+    // End the batch, drawing every sprite drawn since it began.
+    void end();
+
+    // Delete resources from the graphics hardware while the OpenGL context is still current.
+    void release();
+}
@@ -0,0 +1,58 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.shaders;
+
+import android.content.Context;
+
+import com.twilightcitizen.whack_a_pede.R;
+
+import static android.opengl.GLES20.*;
+
+/*
+InstancedSpriteShader is a derivative TextureShader for OpenGL ES 3.0 that links
+InstancedSpriteVertexShader and InstancedSpriteFragmentShader, additionally extracting and exposing
+the locations of the center, rotation, size, and region attributes.  Positions and texture
+coordinates are those of a single square of unit size shared by every sprite, while the rest are
+read once per sprite, or instance, and stretch, rotate, and move the square into place and map it
+onto the sprite's region of a texture atlas.
+*/
+public class InstancedSpriteShader extends TextureShader {
+    // Attributes within the GLSL source to convert to hardware locations.
+    protected static final String A_CENTER = "a_Center";
+    protected static final String A_ROTATION = "a_Rotation";
+    protected static final String A_SIZE = "a_Size";
+    protected static final String A_REGION = "a_Region";
+
+    // Hardware locations of attributes in the shader program.
+    private final int aCenterLocation;
+    private final int aRotationLocation;
+    private final int aSizeLocation;
+    private final int aRegionLocation;
+
+    /*
+    Create an InstancedSpriteShader program from the InstancedSpriteVertexShader and
+    InstancedSpriteFragmentShader programs, resolving the locations of the instance attributes
+    along with the rest.
+    */
+    public InstancedSpriteShader( Context context ) {
+        super(
+            context, R.raw.instanced_sprite_vertex_shader, R.raw.instanced_sprite_fragment_shader
+        );
+
+        aCenterLocation = glGetAttribLocation( program, A_CENTER );
+        aRotationLocation = glGetAttribLocation( program, A_ROTATION );
+        aSizeLocation = glGetAttribLocation( program, A_SIZE );
+        aRegionLocation = glGetAttribLocation( program, A_REGION );
+    }
+
+    // Get the instance attribute locations, which are read once for every sprite drawn.
+    public int getCenterAttributeLocation() { return aCenterLocation; }
+    public int getRotationAttributeLocation() { return aRotationLocation; }
+    public int getSizeAttributeLocation() { return aSizeLocation; }
+    public int getRegionAttributeLocation() { return aRegionLocation; }
+}
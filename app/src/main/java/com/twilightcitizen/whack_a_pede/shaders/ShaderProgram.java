@@ -8,11 +8,19 @@ MDV4910-O, C202006-01
 package com.twilightcitizen.whack_a_pede.shaders;
 
 import android.content.Context;
+import android.opengl.GLES30;
 import android.util.Log;
 
+import com.twilightcitizen.whack_a_pede.BuildConfig;
+import com.twilightcitizen.whack_a_pede.utilities.GLResourceUtil;
+import com.twilightcitizen.whack_a_pede.utilities.GLStateUtil;
+import com.twilightcitizen.whack_a_pede.utilities.GLVersionUtil;
 import com.twilightcitizen.whack_a_pede.utilities.LoggerUtil;
+import com.twilightcitizen.whack_a_pede.utilities.ProgramBinaryUtil;
 import com.twilightcitizen.whack_a_pede.utilities.TextResourceUtil;
 
+import java.io.File;
+
 import static android.opengl.GLES20.*;
 
 /*
@@ -27,25 +35,100 @@ and slight performance enhancements.
     // Tag for filtering any debug message logged.
     private static final String TAG = "ShaderProgram";
 
+    /*
+    Vertex and fragment shader sources, kept for building the program again in a new context, and
+    the directory where binaries of the programs built from them are kept.
+    */
+    private static class Source implements GLResourceUtil.Source {
+        private final String vertexSource;
+        private final String fragmentSource;
+        private final File binaryDirectory;
+
+        private Source( String vertexSource, String fragmentSource, File binaryDirectory ) {
+            this.vertexSource = vertexSource;
+            this.fragmentSource = fragmentSource;
+            this.binaryDirectory = binaryDirectory;
+        }
+
+        /*
+        Load the program from the binary kept for it by the driver where there is one, or build it
+        from its sources otherwise, keeping its binary for next time.
+        */
+        @Override public int create() {
+            File binaryFile =
+                ProgramBinaryUtil.getBinaryFile( binaryDirectory, vertexSource, fragmentSource );
+
+            int program = ProgramBinaryUtil.loadProgram( binaryFile );
+
+            if( program == 0 ) {
+                program = buildProgram( vertexSource, fragmentSource );
+                ProgramBinaryUtil.saveProgram( binaryFile, program );
+            }
+
+            // Validate the program OpenGL created only in debug builds, since it is slow.
+            if( BuildConfig.DEBUG && program != 0 ) validateProgram( program );
+
+            return program;
+        }
+
+        // Programs take as many bytes as their binaries, where OpenGL ES 3.0 tells, and sources.
+        @Override public int getByteCount( int handle ) {
+            if( !GLVersionUtil.isES3() ) return 0;
+
+            final int[] binaryLength = new int[ 1 ];
+
+            glGetProgramiv( handle, GLES30.GL_PROGRAM_BINARY_LENGTH, binaryLength, 0 );
+
+            return binaryLength[ 0 ];
+        }
+
+        @Override public int getCachedByteCount() {
+            return ( vertexSource.length() + fragmentSource.length() ) * 2;
+        }
+    }
+
+    // Name the program is shared by, after the shader resources it is built from.
+    private final String name;
+
     // Shader program built on the hardware with OpenGL from vertex and fragment shader programs.
     protected int program;
 
     /*
     Build a shader program on the hardware with OpenGL from vertex and fragment shader programs.
     These are provided as raw text resources and must be read from them into Strings OpenGl
-    understands.
+    understands.  Programs are shared by the resources they are built from through GLResourceUtil,
+    so they are read only once, and built only once for every new OpenGL context, or loaded from
+    binaries kept by ProgramBinaryUtil where the driver built them before.
     */
     protected ShaderProgram(
         Context context, int vertexShaderId, int fragmentShaderId
     ) {
-        String vertexSource = TextResourceUtil.readTextResource( context, vertexShaderId );
-        String fragmentSource = TextResourceUtil.readTextResource( context, fragmentShaderId );
+        name = "Program " + vertexShaderId + " " + fragmentShaderId;
+
+        GLResourceUtil.Source source = GLResourceUtil.getSource( name );
 
-        buildProgram( vertexSource, fragmentSource );
+        if( source == null ) source = new Source(
+            TextResourceUtil.readTextResource( context, vertexShaderId ),
+            TextResourceUtil.readTextResource( context, fragmentShaderId ),
+            ProgramBinaryUtil.getDirectory( context )
+        );
+
+        program = GLResourceUtil.acquire( name, GLResourceUtil.Kind.program, source );
     }
 
     // Tell OpenGL to use this program.  There can be many built on the hardware at any given time.
-    public void use() { glUseProgram( program ); }
+    public void use() { GLStateUtil.useProgram( program ); }
+
+    /*
+    Release the program while its context is still current, deleting it from the hardware once
+    nothing else shares it.
+    */
+    public void release() {
+        if( program == 0 ) return;
+
+        GLResourceUtil.release( name );
+        program = 0;
+    }
 
     /*
     An OpenGL shader program is a pipeline between a few different components that make it up.
@@ -54,37 +137,36 @@ and slight performance enhancements.
     a vertex shader program and a fragment shader program.  These let OpenGL know how vertices
     should be manipulated before being converted into fragments for drawing to the screen.
     */
-    private void buildProgram( String vertexSource, String fragmentSource ) {
+    private static int buildProgram( String vertexSource, String fragmentSource ) {
         // Compile the vertex and fragment shader sources on the hardware.
         int vertexShader = compileShader( GL_VERTEX_SHADER, vertexSource );
         int fragmentShader = compileShader( GL_FRAGMENT_SHADER, fragmentSource );
 
         // Link them into an OpenGL program on the hardware.
-        linkProgram( vertexShader, fragmentShader );
-
-        // Validate the program OpenGL created when debugging.
-        if( LoggerUtil.DEBUGGING ) validateProgram();
+        return linkProgram( vertexShader, fragmentShader );
     }
 
     /*
     Attempt to create an OpenGL program.  If this works, attach the vertex and fragment shader
     programs created on the hardware and link them into the program.  Delete the program if
-    linking fails and log the results of all operations when debugging.
+    linking fails and log the results of all operations when debugging.  Return the program, or 0
+    if it could not be created or linked.
     */
-    private void linkProgram( int vertexShader, int fragmentShader ) {
+    private static int linkProgram( int vertexShader, int fragmentShader ) {
         // Create an OpenGl program on the hardware.
-        program = glCreateProgram();
+        final int program = glCreateProgram();
 
         // Guard against any failure there and log it.
-        if( program == 0 && LoggerUtil.DEBUGGING ) {
-            Log.w( TAG, "Could not create new program" );
+        if( program == 0 ) {
+            if( LoggerUtil.DEBUGGING ) Log.w( TAG, "Could not create new program" );
 
-            return;
+            return 0;
         }
 
         // Attach the vertex and fragment shader programs and link them into the program.
         glAttachShader( program, vertexShader );
         glAttachShader( program, fragmentShader );
+        ProgramBinaryUtil.setRetrievable( program );
         glLinkProgram( program );
 
         // Hold the status of linking them into the program.
@@ -103,7 +185,11 @@ and slight performance enhancements.
             glDeleteProgram( program );
 
             if( LoggerUtil.DEBUGGING ) Log.w( TAG, "Linking of program failed." );
+
+            return 0;
         }
+
+        return program;
     }
 
     /*
@@ -113,7 +199,7 @@ and slight performance enhancements.
     helps catch scenarios like this and provides useful validation status information that can
     be logged for analysis during debugging.
     */
-    private void validateProgram() {
+    private static void validateProgram( int program ) {
         // Validate the OpenGl program.
         glValidateProgram( program );
 
@@ -136,7 +222,7 @@ and slight performance enhancements.
     source code into the created shader and compile it.  Check the compilation status.  Delete any
     shader that failed to compile and log the failure for debugging.  Otherwise, return it.
     */
-    private int compileShader( int shaderType, String shaderCode ) {
+    private static int compileShader( int shaderType, String shaderCode ) {
         // Create a shader on the hardware.
         final int shader = glCreateShader( shaderType );
 
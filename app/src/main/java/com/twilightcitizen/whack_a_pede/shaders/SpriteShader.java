@@ -0,0 +1,49 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.shaders;
+
+import android.content.Context;
+
+import com.twilightcitizen.whack_a_pede.R;
+
+import static android.opengl.GLES20.*;
+
+/*
+SpriteShader is a derivative TextureShader that links SpriteVertexShader and TextureFragmentShader,
+additionally extracting and exposing the locations of the center and rotation attributes.  Where
+TextureShader places vertices by the matrix alone, SpriteShader takes the position of each vertex
+as the corner of a sprite around its center, rotates it by the sprite's rotation, and moves it to
+the center before applying the matrix.  The matrix can then be the same for every sprite drawn,
+leaving the CPU nothing to calculate for any one of them.
+*/
+public class SpriteShader extends TextureShader {
+    // Attributes within the GLSL source to convert to hardware locations.
+    protected static final String A_CENTER = "a_Center";
+    protected static final String A_ROTATION = "a_Rotation";
+
+    // Hardware locations of attributes in the shader program.
+    private final int aCenterLocation;
+    private final int aRotationLocation;
+
+    /*
+    Create a SpriteShader program from the SpriteVertexShader and TextureFragmentShader programs,
+    resolving the locations of the center and rotation attributes along with the rest.
+    */
+    public SpriteShader( Context context ) {
+        super( context, R.raw.sprite_vertex_shader, R.raw.texture_fragment_shader );
+
+        aCenterLocation = glGetAttribLocation( program, A_CENTER );
+        aRotationLocation = glGetAttribLocation( program, A_ROTATION );
+    }
+
+    // Get the center attribute location, which is the same for all four vertices of a sprite.
+    public int getCenterAttributeLocation() { return aCenterLocation; }
+
+    // Get the rotation attribute location, in radians, also the same for a sprite's vertices.
+    public int getRotationAttributeLocation() { return aRotationLocation; }
+}
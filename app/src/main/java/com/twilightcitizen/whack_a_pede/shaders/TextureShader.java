@@ -10,6 +10,7 @@ package com.twilightcitizen.whack_a_pede.shaders;
 import android.content.Context;
 
 import com.twilightcitizen.whack_a_pede.R;
+import com.twilightcitizen.whack_a_pede.utilities.GLStateUtil;
 
 import static android.opengl.GLES20.*;
 
@@ -39,20 +40,38 @@ public class TextureShader extends ShaderProgram {
     resolving the locations of the matrix and color uniforms, and the position attribute.
     */
     public TextureShader( Context context ) {
-        super( context, R.raw.texture_vertex_shader, R.raw.texture_fragment_shader );
+        this( context, R.raw.texture_vertex_shader, R.raw.texture_fragment_shader );
+    }
+
+    // Create a derivative program from other shaders that share the same uniforms and attributes.
+    protected TextureShader( Context context, int vertexShaderId, int fragmentShaderId ) {
+        super( context, vertexShaderId, fragmentShaderId );
 
         uMatrixLocation = glGetUniformLocation( program, U_MATRIX );
         uTextureUnitLocation = glGetUniformLocation( program, U_TEXTURE_UNIT );
         aPositionLocation = glGetAttribLocation( program, A_POSITION );
         aTextureCoordinatesLocation = glGetAttribLocation( program, A_TEXTURE_COORDINATES );
+
+        // Textures are always bound to the first unit, so the program only needs to be told once.
+        use();
+        glUniform1i( uTextureUnitLocation, 0 );
     }
 
     // Set the matrix and texture uniforms with those provided.
     public void setUniforms( float[] matrix, int textureId ) {
+        setMatrix( matrix );
+        setTexture( textureId );
+    }
+
+    // Set the matrix uniform alone, for drawing many things with different textures by it.
+    public void setMatrix( float[] matrix ) {
         glUniformMatrix4fv( uMatrixLocation, 1, false, matrix, 0 );
-        glActiveTexture( GL_TEXTURE0 );
-        glBindTexture( GL_TEXTURE_2D, textureId );
-        glUniform1i( uTextureUnitLocation, 0 );
+    }
+
+    // Set the texture uniform alone, for drawing many things with the same matrix.
+    public void setTexture( int textureId ) {
+        GLStateUtil.activeTexture( GL_TEXTURE0 );
+        GLStateUtil.bindTexture2D( textureId );
     }
 
     /*
@@ -0,0 +1,68 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.simulation;
+
+/*
+GameRandom is the seeded pseudo-random number generator behind every random choice in a game, from
+the edges centipedes and power ups enter by to the exits they take at turns.  It implements
+xoroshiro128** seeded through SplitMix64, entirely in plain arithmetic, so the same seed yields the
+same sequence on every device and JVM.  A game can then be reproduced exactly from its seed and the
+touches made during it.  It is not safe for use by more than one thread.
+*/
+public class GameRandom {
+    // State of the generator.
+    private long state0;
+    private long state1;
+
+    // Generator must have a seed.
+    public GameRandom( long seed ) { setSeed( seed ); }
+
+    // Restart the sequence from a seed, spreading it over the whole state with SplitMix64.
+    public void setSeed( long seed ) {
+        seed += 0x9E3779B97F4A7C15L;
+        state0 = mix( seed );
+        seed += 0x9E3779B97F4A7C15L;
+        state1 = mix( seed );
+    }
+
+    // Get the next 64 random bits.
+    public long nextLong() {
+        long s0 = state0;
+        long s1 = state1;
+        long result = Long.rotateLeft( s0 * 5L, 7 ) * 9L;
+
+        s1 ^= s0;
+        state0 = Long.rotateLeft( s0, 24 ) ^ s1 ^ ( s1 << 16 );
+        state1 = Long.rotateLeft( s1, 37 );
+
+        return result;
+    }
+
+    // Get a random int from 0 inclusive to a bound exclusive, without bias toward any.
+    public int nextInt( int bound ) {
+        if( bound <= 0 ) throw new IllegalArgumentException( "Bound Must Be Positive" );
+
+        int bits, value;
+
+        // Reject the few draws at the top of the range that would favor the smallest values.
+        do {
+            bits = (int) ( nextLong() >>> 33 );
+            value = bits % bound;
+        } while( bits - value + ( bound - 1 ) < 0 );
+
+        return value;
+    }
+
+    // SplitMix64 finalizer.
+    private static long mix( long z ) {
+        z = ( z ^ ( z >>> 30 ) ) * 0xBF58476D1CE4E5B9L;
+        z = ( z ^ ( z >>> 27 ) ) * 0x94D049BB133111EBL;
+
+        return z ^ ( z >>> 31 );
+    }
+}
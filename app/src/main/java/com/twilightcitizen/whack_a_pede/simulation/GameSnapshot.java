@@ -0,0 +1,42 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.simulation;
+
+/*
+GameSnapshot is an immutable copy of the scoring and timing of a WhackAPedeWorld at the end of some
+step.  The world keeps all of these as primitives it changes freely while stepping, and a snapshot
+of them all is taken whenever the rest of the application should see them, so the score, rounds,
+and time anyone reads always come from the same step and never from a half-finished one.
+*/
+public class GameSnapshot {
+    // Scoring and timing of the world when the snapshot was taken.
+    private final int score;
+    private final int rounds;
+    private final long elapsedTimeMillis;
+    private final long remainingTimeMillis;
+    private final float centipedeSpeed;
+    private final boolean isOver;
+
+    // Snapshot must be taken of some world.
+    public GameSnapshot( WhackAPedeWorld world ) {
+        score = world.getScore();
+        rounds = world.getRounds();
+        elapsedTimeMillis = world.getElapsedTimeMillis();
+        remainingTimeMillis = world.getRemainingTimeMillis();
+        centipedeSpeed = world.getCentipedeSpeed();
+        isOver = world.getIsOver();
+    }
+
+    // Expose the scoring and timing of the world.
+    public int getScore() { return score; }
+    public int getRounds() { return rounds; }
+    public long getElapsedTimeMillis() { return elapsedTimeMillis; }
+    public long getRemainingTimeMillis() { return remainingTimeMillis; }
+    public float getCentipedeSpeed() { return centipedeSpeed; }
+    public boolean getIsOver() { return isOver; }
+}
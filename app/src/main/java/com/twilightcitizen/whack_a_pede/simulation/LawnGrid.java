@@ -0,0 +1,153 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.simulation;
+
+import com.twilightcitizen.whack_a_pede.geometry.Point;
+
+/*
+LawnGrid is a precomputed lattice index over the turns of a lawn.  Turns sit at every intersection
+of evenly spaced column and row lines centered on the origin, and holes sit at every turn on an odd
+column and an odd row, leaving grass patches at the rest.  Because the lattice is regular, the turn
+that something moving along a column or row crossed can be found directly from its previous and
+next positions in cell coordinates instead of testing every turn on the lawn, so the cost per moving
+thing does not grow with the size of the lawn.  Turns are identified by index, column major, which
+matches the order in which the lawn's turns have always been generated.  Crossing follows the same
+exact float comparisons as Point.intersectsPathOf, so a path along a column or row no longer than
+one cell resolves to the same turn as testing every turn in order would, since it can cross at most
+one line and cannot cross one and also end on another.  Longer paths can cross several lines, and
+resolve to the first crossed in the direction of travel, where testing every turn in order would
+resolve to the one generated first.  Nothing on the lawn moves more than a cell in a step.
+*/
+public class LawnGrid {
+    // Index returned when nothing was crossed.
+    public static final int NONE = -1;
+
+    // Count of column and row lines.
+    private final int columns;
+    private final int rows;
+
+    // Spacing between lines, which is the size of a cell.
+    private final float cellWidth;
+    private final float cellHeight;
+
+    // Positions of the column lines along the X axis and row lines along the Y axis.
+    private final float[] linesX;
+    private final float[] linesY;
+
+    // Turns at every intersection of the lines, and whether each is a hole.
+    private final Point[] turns;
+    private final boolean[] holes;
+
+    // Generate the lines, turns, and holes for a lawn of the given size.
+    public LawnGrid( int columns, int rows, float cellWidth, float cellHeight ) {
+        this.columns = columns;
+        this.rows = rows;
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+
+        linesX = new float[ columns ];
+        linesY = new float[ rows ];
+
+        // Lines are centered on the origin.
+        for( int column = 0; column < columns; column++ )
+            linesX[ column ] = cellWidth * ( column - ( columns - 1 ) / 2.0f );
+
+        for( int row = 0; row < rows; row++ )
+            linesY[ row ] = cellHeight * ( row - ( rows - 1 ) / 2.0f );
+
+        turns = new Point[ columns * rows ];
+        holes = new boolean[ columns * rows ];
+
+        for( int column = 0; column < columns; column++ ) for( int row = 0; row < rows; row++ ) {
+            int turn = getTurn( column, row );
+
+            turns[ turn ] = new Point( linesX[ column ], linesY[ row ] );
+            holes[ turn ] = column % 2 == 1 && row % 2 == 1;
+        }
+    }
+
+    // Get the dimensions of the lawn in lines.
+    public int getColumns() { return columns; }
+    public int getRows() { return rows; }
+
+    // Get the count of turns, and the index of the turn at a column and row.
+    public int getTurnCount() { return turns.length; }
+    public int getTurn( int column, int row ) { return column * rows + row; }
+
+    // Get the column, row, or position of a turn by index.
+    public int getColumn( int turn ) { return turn / rows; }
+    public int getRow( int turn ) { return turn % rows; }
+    public Point getPosition( int turn ) { return turns[ turn ]; }
+
+    // Determine whether a turn is a hole or a grass patch.
+    public boolean isHole( int turn ) { return holes[ turn ]; }
+    public boolean isPatch( int turn ) { return !holes[ turn ]; }
+
+    /*
+    Find the turn whose line the path from the previous to the next position crossed, or on which
+    it ended, or NONE.  Paths run along a column or a row, so only the lines near the path on one
+    axis need testing, and the first line crossed in the direction of travel wins.
+    */
+    public int findCrossedTurn( float previousX, float previousY, float nextX, float nextY ) {
+        // Lines on which the next position lies exactly, if any.
+        int column = findLine( linesX, cellWidth, nextX );
+        int row = findLine( linesY, cellHeight, nextY );
+
+        // Paths along a column crossed a row line between the positions.
+        if( column != NONE ) {
+            int passed = findPassedLine( linesY, cellHeight, previousY, nextY );
+
+            if( passed != NONE ) return getTurn( column, passed );
+        }
+
+        // Paths along a row crossed a column line between the positions.
+        if( row != NONE ) {
+            int passed = findPassedLine( linesX, cellWidth, previousX, nextX );
+
+            if( passed != NONE ) return getTurn( passed, row );
+        }
+
+        // Paths that end dead on a turn reached it.
+        if( column != NONE && row != NONE ) return getTurn( column, row );
+
+        return NONE;
+    }
+
+    // Find the line exactly at a position, or NONE, rounding into cell coordinates to find it.
+    private static int findLine( float[] lines, float spacing, float position ) {
+        int line = Math.round( ( position - lines[ 0 ] ) / spacing );
+
+        if( line < 0 || line >= lines.length ) return NONE;
+
+        return Float.compare( lines[ line ], position ) == 0 ? line : NONE;
+    }
+
+    /*
+    Find the first line strictly between two positions in the direction from one to the other, or
+    NONE.  Only the lines in the span of cells covering the positions are tested.
+    */
+    private static int findPassedLine( float[] lines, float spacing, float from, float to ) {
+        float low = Math.min( from, to );
+        float high = Math.max( from, to );
+
+        int first = Math.max( 0, (int) Math.floor( ( low - lines[ 0 ] ) / spacing ) );
+        int last = Math.min( lines.length - 1, (int) Math.ceil( ( high - lines[ 0 ] ) / spacing ) );
+
+        if( Float.compare( from, to ) < 0 ) {
+            for( int line = first; line <= last; line++ )
+                if( Float.compare( from, lines[ line ] ) < 0 && Float.compare( lines[ line ], to ) < 0 )
+                    return line;
+        } else {
+            for( int line = last; line >= first; line-- )
+                if( Float.compare( from, lines[ line ] ) > 0 && Float.compare( lines[ line ], to ) > 0 )
+                    return line;
+        }
+
+        return NONE;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.simulation;
+
+import com.twilightcitizen.whack_a_pede.models.PowerUp;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.twilightcitizen.whack_a_pede.simulation.SimulationClock.STEP_MILLIS;
+
+/*
+RenderSnapshot is a copy of everything the renderer draws from a WhackAPedeWorld at the end of some
+step, held in primitive arrays:  the previous and current positions, rotation, and layer of every
+centipede segment and whether it is a head, and the previous and current positions and kind of
+every power up.  A snapshot is filled on whichever thread steps the world and then handed whole to
+the thread that draws it, so drawing never reads the world while it is being stepped.  Snapshots
+are reused from frame to frame, growing their arrays only when the lawn holds more than ever before.
+*/
+public class RenderSnapshot {
+    // Nanosecond length of a step for interpolating past the time a snapshot was taken.
+    private static final float STEP_NANOS = STEP_MILLIS * 1_000_000.0f;
+
+    // Flags for the above-ground layer and heads.
+    private static final byte ABOVE = 1;
+    private static final byte HEAD = 1 << 1;
+
+    // Number of segments in the snapshot and their positions, rotations, and flags.
+    private int segmentCount;
+    private float[] segmentX;
+    private float[] segmentY;
+    private float[] segmentPreviousX;
+    private float[] segmentPreviousY;
+    private float[] segmentRotation;
+    private byte[] segmentFlags;
+
+    // Number of power ups in the snapshot and their positions and kinds.
+    private int powerUpCount;
+    private float[] powerUpX;
+    private float[] powerUpY;
+    private float[] powerUpPreviousX;
+    private float[] powerUpPreviousY;
+    private PowerUp.Kind[] powerUpKind;
+
+    // Interpolation between previous and current positions when taken, and the time it was taken.
+    private float alpha;
+    private long takenNanos;
+
+    // Flag for the world advancing when taken, so interpolation should keep advancing with time.
+    private boolean isAdvancing;
+
+    // Snapshot must have room for some number of segments and power ups to start.
+    public RenderSnapshot( int segmentCapacity, int powerUpCapacity ) {
+        segmentX = new float[ segmentCapacity ];
+        segmentY = new float[ segmentCapacity ];
+        segmentPreviousX = new float[ segmentCapacity ];
+        segmentPreviousY = new float[ segmentCapacity ];
+        segmentRotation = new float[ segmentCapacity ];
+        segmentFlags = new byte[ segmentCapacity ];
+
+        powerUpX = new float[ powerUpCapacity ];
+        powerUpY = new float[ powerUpCapacity ];
+        powerUpPreviousX = new float[ powerUpCapacity ];
+        powerUpPreviousY = new float[ powerUpCapacity ];
+        powerUpKind = new PowerUp.Kind[ powerUpCapacity ];
+    }
+
+    /*
+    Take a snapshot of a world at the given time and interpolation between the previous and current
+    positions of everything on its lawn.  Worlds that are advancing keep interpolating forward from
+    there as time passes, up to the current positions.
+    */
+    public void take( WhackAPedeWorld world, float alpha, long takenNanos, boolean isAdvancing ) {
+        SegmentStore segments = world.getSegments();
+        List< PowerUp > powerUps = world.getPowerUps();
+
+        ensureSegmentCapacity( segments.getCount() );
+        segmentCount = segments.getCount();
+
+        for( int index = 0; index < segmentCount; index++ ) {
+            segmentX[ index ] = segments.getX( index );
+            segmentY[ index ] = segments.getY( index );
+            segmentPreviousX[ index ] = segments.getPreviousX( index );
+            segmentPreviousY[ index ] = segments.getPreviousY( index );
+            segmentRotation[ index ] = segments.getRotation( index );
+
+            segmentFlags[ index ] = (byte) (
+                ( segments.getIsAbove( index ) ? ABOVE : 0 ) |
+                ( segments.getIsHead( index ) ? HEAD : 0 )
+            );
+        }
+
+        ensurePowerUpCapacity( powerUps.size() );
+        powerUpCount = powerUps.size();
+
+        for( int index = 0; index < powerUpCount; index++ ) {
+            PowerUp powerUp = powerUps.get( index );
+
+            powerUpX[ index ] = powerUp.getX();
+            powerUpY[ index ] = powerUp.getY();
+            powerUpPreviousX[ index ] = powerUp.getPreviousX();
+            powerUpPreviousY[ index ] = powerUp.getPreviousY();
+            powerUpKind[ index ] = powerUp.getKind();
+        }
+
+        this.alpha = alpha;
+        this.takenNanos = takenNanos;
+        this.isAdvancing = isAdvancing;
+    }
+
+    // Get the interpolation between previous and current positions for a frame drawn at some time.
+    public float getAlpha( long frameTimeNanos ) {
+        if( !isAdvancing ) return alpha;
+
+        return Math.min( 1.0f, alpha + Math.max( 0L, frameTimeNanos - takenNanos ) / STEP_NANOS );
+    }
+
+    // Expose the segments.
+    public int getSegmentCount() { return segmentCount; }
+    public float getSegmentX( int segment ) { return segmentX[ segment ]; }
+    public float getSegmentY( int segment ) { return segmentY[ segment ]; }
+    public float getSegmentPreviousX( int segment ) { return segmentPreviousX[ segment ]; }
+    public float getSegmentPreviousY( int segment ) { return segmentPreviousY[ segment ]; }
+    public float getSegmentRotation( int segment ) { return segmentRotation[ segment ]; }
+    public boolean getSegmentIsAbove( int segment ) { return ( segmentFlags[ segment ] & ABOVE ) != 0; }
+    public boolean getSegmentIsHead( int segment ) { return ( segmentFlags[ segment ] & HEAD ) != 0; }
+
+    // Expose the power ups.
+    public int getPowerUpCount() { return powerUpCount; }
+    public float getPowerUpX( int powerUp ) { return powerUpX[ powerUp ]; }
+    public float getPowerUpY( int powerUp ) { return powerUpY[ powerUp ]; }
+    public float getPowerUpPreviousX( int powerUp ) { return powerUpPreviousX[ powerUp ]; }
+    public float getPowerUpPreviousY( int powerUp ) { return powerUpPreviousY[ powerUp ]; }
+    public PowerUp.Kind getPowerUpKind( int powerUp ) { return powerUpKind[ powerUp ]; }
+
+    // Grow the segment arrays by doubling until they hold at least the given number of segments.
+    private void ensureSegmentCapacity( int capacity ) {
+        if( capacity <= segmentX.length ) return;
+
+        int newCapacity = Math.max( 1, segmentX.length );
+
+        while( newCapacity < capacity ) newCapacity *= 2;
+
+        segmentX = Arrays.copyOf( segmentX, newCapacity );
+        segmentY = Arrays.copyOf( segmentY, newCapacity );
+        segmentPreviousX = Arrays.copyOf( segmentPreviousX, newCapacity );
+        segmentPreviousY = Arrays.copyOf( segmentPreviousY, newCapacity );
+        segmentRotation = Arrays.copyOf( segmentRotation, newCapacity );
+        segmentFlags = Arrays.copyOf( segmentFlags, newCapacity );
+    }
+
+    // Grow the power up arrays by doubling until they hold at least the given number of power ups.
+    private void ensurePowerUpCapacity( int capacity ) {
+        if( capacity <= powerUpX.length ) return;
+
+        int newCapacity = Math.max( 1, powerUpX.length );
+
+        while( newCapacity < capacity ) newCapacity *= 2;
+
+        powerUpX = Arrays.copyOf( powerUpX, newCapacity );
+        powerUpY = Arrays.copyOf( powerUpY, newCapacity );
+        powerUpPreviousX = Arrays.copyOf( powerUpPreviousX, newCapacity );
+        powerUpPreviousY = Arrays.copyOf( powerUpPreviousY, newCapacity );
+        powerUpKind = Arrays.copyOf( powerUpKind, newCapacity );
+    }
+}
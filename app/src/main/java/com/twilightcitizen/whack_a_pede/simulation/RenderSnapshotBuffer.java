@@ -0,0 +1,55 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.simulation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+RenderSnapshotBuffer hands render snapshots from the one thread that steps the world to the one
+thread that draws it through three snapshots:  one the stepping thread is filling, one the drawing
+thread is drawing, and one in between holding the latest filled snapshot.  Each side swaps its own
+snapshot for the one in between with a single atomic exchange, so neither ever waits on the other,
+a slow frame never holds up a step, and a slow step never holds up a frame, which simply draws the
+latest snapshot again.
+*/
+public class RenderSnapshotBuffer {
+    // Flag set alongside the index of the snapshot in between when it is fresher than the drawn one.
+    private static final int FRESH = 1 << 2;
+    private static final int INDEX = FRESH - 1;
+
+    // The three snapshots swapped between the threads.
+    private final RenderSnapshot[] snapshots = new RenderSnapshot[ 3 ];
+
+    // Index of the snapshot being filled, only ever touched by the stepping thread.
+    private int back = 0;
+
+    // Index of the snapshot in between, and whether it is fresh.
+    private final AtomicInteger middle = new AtomicInteger( 1 );
+
+    // Index of the snapshot being drawn, only ever touched by the drawing thread.
+    private int front = 2;
+
+    // Buffer must have room for some number of segments and power ups to start.
+    public RenderSnapshotBuffer( int segmentCapacity, int powerUpCapacity ) {
+        for( int index = 0; index < snapshots.length; index++ )
+            snapshots[ index ] = new RenderSnapshot( segmentCapacity, powerUpCapacity );
+    }
+
+    // Take a snapshot of a world on the stepping thread and publish it as the latest one to draw.
+    public void publish( WhackAPedeWorld world, float alpha, long takenNanos, boolean isAdvancing ) {
+        snapshots[ back ].take( world, alpha, takenNanos, isAdvancing );
+        back = middle.getAndSet( back | FRESH ) & INDEX;
+    }
+
+    // Get the latest snapshot published on the drawing thread, or the one last drawn if none since.
+    public RenderSnapshot acquire() {
+        if( ( middle.get() & FRESH ) != 0 ) front = middle.getAndSet( front ) & INDEX;
+
+        return snapshots[ front ];
+    }
+}
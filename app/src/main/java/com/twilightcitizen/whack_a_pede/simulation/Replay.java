@@ -0,0 +1,220 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.simulation;
+
+import com.twilightcitizen.whack_a_pede.geometry.Point;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+Replay records a game as the seed it was played with and the touches made during it, each stamped
+with the step of the world it was applied to.  Worlds are deterministic given both, so playing the
+touches back into a fresh world with the same seed reproduces the game bit for bit, which makes any
+bug seen in play repeatable.  Replays are written in a compact binary form:  a magic number and
+version, the seed, the fixed step length, the number of touches, each touch as the steps since the
+previous touch in a variable length encoding followed by its coordinates, and finally the number of
+steps and score the game ended with so playback can be checked against them.
+*/
+public class Replay {
+    // Magic number "WAPR" and version that begin every replay.
+    private static final int MAGIC = 0x57415052;
+    private static final int VERSION = 1;
+
+    // Touches room is first made for, grown by doubling as needed.
+    private static final int INITIAL_CAPACITY = 256;
+
+    // Seed the game was played with.
+    private long seed;
+
+    // Steps and coordinates of every touch in the order they were made.
+    private long[] touchTicks = new long[ INITIAL_CAPACITY ];
+    private float[] touchXs = new float[ INITIAL_CAPACITY ];
+    private float[] touchYs = new float[ INITIAL_CAPACITY ];
+    private int touchCount;
+
+    // Steps taken and score reached by the end of the game, and whether it has ended.
+    private long ticks;
+    private int score;
+    private boolean isFinished;
+
+    // Expose the seed, the touches, and the results of the game.
+    public long getSeed() { return seed; }
+    public int getTouchCount() { return touchCount; }
+    public long getTicks() { return ticks; }
+    public int getScore() { return score; }
+    public boolean getIsFinished() { return isFinished; }
+
+    // Start recording a new game with the given seed, forgetting any recorded before.
+    public void start( long seed ) {
+        this.seed = seed;
+        touchCount = 0;
+        ticks = 0L;
+        score = 0;
+        isFinished = false;
+    }
+
+    // Record the touches applied to the world at the given step.
+    public void record( long tick, List< Point > touches ) {
+        // Guard against recording past the end of the game.
+        if( isFinished ) return;
+
+        for( int index = 0; index < touches.size(); index++ ) {
+            Point touch = touches.get( index );
+
+            ensureCapacity( touchCount + 1 );
+            touchTicks[ touchCount ] = tick;
+            touchXs[ touchCount ] = touch.x;
+            touchYs[ touchCount ] = touch.y;
+            touchCount++;
+        }
+    }
+
+    // Record the end of the game with the steps taken and score reached.
+    public void finish( long ticks, int score ) {
+        this.ticks = ticks;
+        this.score = score;
+        isFinished = true;
+    }
+
+    /*
+    Play the replay back into a new world with its seed and the given listener, stepping it once
+    for every step of the recorded game and applying each touch at the step it was recorded at.
+    */
+    public WhackAPedeWorld play( WorldListener listener ) {
+        WhackAPedeWorld world = new WhackAPedeWorld( seed, listener );
+        List< Point > touches = new ArrayList<>();
+        int touch = 0;
+
+        world.start();
+
+        for( long tick = 0L; tick < ticks && !world.getIsOver(); tick++ ) {
+            touches.clear();
+
+            // Gather every touch made at this step.
+            while( touch < touchCount && touchTicks[ touch ] == tick ) {
+                touches.add( new Point( touchXs[ touch ], touchYs[ touch ] ) );
+                touch++;
+            }
+
+            world.step( SimulationClock.STEP_MILLIS, touches );
+        }
+
+        return world;
+    }
+
+    // Check that a world played back from the replay ended the way the recorded game did.
+    public boolean matches( WhackAPedeWorld world ) {
+        return world.getSeed() == seed && world.getTicks() == ticks && world.getScore() == score;
+    }
+
+    // Write the replay to an output stream in its binary form.
+    public void writeTo( OutputStream outputStream ) throws IOException {
+        DataOutputStream output = new DataOutputStream( new BufferedOutputStream( outputStream ) );
+        long previousTick = 0L;
+
+        output.writeInt( MAGIC );
+        output.writeByte( VERSION );
+        output.writeLong( seed );
+        output.writeLong( SimulationClock.STEP_MILLIS );
+        output.writeInt( touchCount );
+
+        // Touches are far apart in steps but close together in order, so only deltas are written.
+        for( int touch = 0; touch < touchCount; touch++ ) {
+            writeVarLong( output, touchTicks[ touch ] - previousTick );
+            output.writeFloat( touchXs[ touch ] );
+            output.writeFloat( touchYs[ touch ] );
+            previousTick = touchTicks[ touch ];
+        }
+
+        output.writeLong( ticks );
+        output.writeInt( score );
+        output.flush();
+    }
+
+    // Read a replay in its binary form from an input stream.
+    public static Replay readFrom( InputStream inputStream ) throws IOException {
+        DataInputStream input = new DataInputStream( new BufferedInputStream( inputStream ) );
+        Replay replay = new Replay();
+        long tick = 0L;
+
+        // Guard against reading anything but a replay this version can play back.
+        if( input.readInt() != MAGIC ) throw new IOException( "Not a Replay" );
+        if( input.readUnsignedByte() != VERSION ) throw new IOException( "Unsupported Replay Version" );
+
+        replay.start( input.readLong() );
+
+        // Guard against replays recorded with steps of another length, which would play out differently.
+        if( input.readLong() != SimulationClock.STEP_MILLIS )
+            throw new IOException( "Replay Step Length Mismatch" );
+
+        int touchCount = input.readInt();
+
+        if( touchCount < 0 ) throw new IOException( "Negative Replay Touch Count" );
+
+        replay.ensureCapacity( touchCount );
+
+        for( int touch = 0; touch < touchCount; touch++ ) {
+            tick += readVarLong( input );
+            replay.touchTicks[ touch ] = tick;
+            replay.touchXs[ touch ] = input.readFloat();
+            replay.touchYs[ touch ] = input.readFloat();
+        }
+
+        replay.touchCount = touchCount;
+        replay.finish( input.readLong(), input.readInt() );
+
+        return replay;
+    }
+
+    // Grow the touch arrays by doubling until they hold at least the given number of touches.
+    private void ensureCapacity( int capacity ) {
+        if( capacity <= touchTicks.length ) return;
+
+        int newCapacity = touchTicks.length;
+
+        while( newCapacity < capacity ) newCapacity *= 2;
+
+        touchTicks = Arrays.copyOf( touchTicks, newCapacity );
+        touchXs = Arrays.copyOf( touchXs, newCapacity );
+        touchYs = Arrays.copyOf( touchYs, newCapacity );
+    }
+
+    // Write a non-negative long seven bits at a time, low bits first, flagging each byte but the last.
+    private static void writeVarLong( DataOutputStream output, long value ) throws IOException {
+        while( ( value & ~0x7FL ) != 0L ) {
+            output.writeByte( (int) ( ( value & 0x7FL ) | 0x80L ) );
+            value >>>= 7;
+        }
+
+        output.writeByte( (int) value );
+    }
+
+    // Read a long written seven bits at a time.
+    private static long readVarLong( DataInputStream input ) throws IOException {
+        long value = 0L;
+
+        for( int shift = 0; shift < 64; shift += 7 ) {
+            int bits = input.readUnsignedByte();
+
+            value |= (long) ( bits & 0x7F ) << shift;
+
+            if( ( bits & 0x80 ) == 0 ) return value;
+        }
+
+        throw new IOException( "Malformed Replay Step" );
+    }
+}
@@ -0,0 +1,337 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.simulation;
+
+import com.twilightcitizen.whack_a_pede.geometry.Vector;
+
+import static com.twilightcitizen.whack_a_pede.simulation.TurnTable.DIRECTIONS;
+import static com.twilightcitizen.whack_a_pede.simulation.WhackAPedeWorld.CENTIPEDE_NORMAL_RADIUS;
+
+/*
+SegmentStore tracks every centipede segment on the lawn in parallel primitive arrays rather than as
+a graph of linked objects.  Each segment is an index into the arrays, which hold its position and
+the position before it was last set for smooth drawing between steps, its direction and the one
+it takes at the next turn, its rotation through turns, its above/below-ground layer, and the
+indices of its head and tail, if any.  Segments are kept packed in the order the centipedes would
+be walked from head to tail, one centipede after another, so the whole lawn can be animated or
+drawn with a single pass from the first index to the last.  Killing a segment relinks the indices
+of its neighbors instead of allocating anything, and the packing is restored once the killing for
+a step is done.
+*/
+public class SegmentStore {
+    // Index for no head or tail.
+    public static final int NONE = -1;
+
+    // Flags for the above-ground layer, killed segments, and those split off as new centipedes.
+    private static final byte ABOVE = 1;
+    private static final byte KILLED = 1 << 1;
+    private static final byte SPLIT = 1 << 2;
+
+    // Number of segments in use, packed at the front of the arrays.
+    private int count;
+
+    // Current and previous positions.
+    private float[] x;
+    private float[] y;
+    private float[] previousX;
+    private float[] previousY;
+
+    // Rotation and percentage for smooth rotation through turns.
+    private float[] rotation;
+    private float[] rotationPercentage;
+
+    // Direction of heading and direction once turn is encountered by TurnTable index, and flags.
+    private byte[] direction;
+    private byte[] nextDirection;
+    private byte[] flags;
+
+    // Indices of heads and tails, if any.
+    private int[] head;
+    private int[] tail;
+
+    // Arrays of the same shape the segments are packed into while killed ones are removed.
+    private float[] packedX;
+    private float[] packedY;
+    private float[] packedPreviousX;
+    private float[] packedPreviousY;
+    private float[] packedRotation;
+    private float[] packedRotationPercentage;
+    private byte[] packedDirection;
+    private byte[] packedNextDirection;
+    private byte[] packedFlags;
+    private int[] packedHead;
+    private int[] packedTail;
+
+    // Centipedes split off by kills, in the order they were split off, and their count.
+    private int[] splits;
+    private int splitCount;
+
+    // Whether any segment was killed since the segments were last packed.
+    private boolean anyKilled;
+
+    // Store must have room for some number of segments to start, though it grows as needed.
+    public SegmentStore( int capacity ) {
+        allocate( Math.max( 1, capacity ) );
+    }
+
+    // Get the number of segments on the lawn, or whether there are none.
+    public int getCount() { return count; }
+    public boolean isEmpty() { return count == 0; }
+
+    // Remove all segments from the lawn.
+    public void clear() { count = 0; splitCount = 0; anyKilled = false; }
+
+    /*
+    Add a centipede with the given number of segments, its head at the given position and the rest
+    trailing behind it opposite its direction, all heading the same way on the same layer.
+    */
+    public void addCentipede( float x, float y, Vector direction, boolean isAbove, int segments ) {
+        ensureCapacity( count + segments );
+
+        // Direction away from which the segments trail.
+        float trailX = 0.0f - direction.x;
+        float trailY = 0.0f - direction.y;
+
+        for( int segment = 0; segment < segments; segment++ ) {
+            int index = count++;
+
+            // Each segment trails its head by a diameter, as tails always have.
+            if( segment > 0 ) {
+                x += CENTIPEDE_NORMAL_RADIUS * 2.0f * trailX;
+                y += CENTIPEDE_NORMAL_RADIUS * 2.0f * trailY;
+            }
+
+            this.x[ index ] = x;
+            this.y[ index ] = y;
+            previousX[ index ] = x;
+            previousY[ index ] = y;
+            this.direction[ index ] = indexOf( direction );
+            nextDirection[ index ] = this.direction[ index ];
+            rotation[ index ] = direction.getTargetRotation();
+            rotationPercentage[ index ] = 0.0f;
+            flags[ index ] = isAbove ? ABOVE : 0;
+            head[ index ] = segment == 0 ? NONE : index - 1;
+            tail[ index ] = segment == segments - 1 ? NONE : index + 1;
+        }
+    }
+
+    // Determine if a segment is a head or tail.  Can be both.
+    public boolean getIsHead( int segment ) { return head[ segment ] == NONE; }
+    public boolean getIsTail( int segment ) { return tail[ segment ] == NONE; }
+
+    // Get the index of a segment's head or tail, or NONE.
+    public int getHead( int segment ) { return head[ segment ]; }
+    public int getTail( int segment ) { return tail[ segment ]; }
+
+    // Get or toggle the above/below-ground layer of a segment.
+    public boolean getIsAbove( int segment ) { return ( flags[ segment ] & ABOVE ) != 0; }
+    public void toggleAbove( int segment ) { flags[ segment ] ^= ABOVE; }
+
+    // Determine if a segment has been killed but not yet removed.
+    public boolean getIsKilled( int segment ) { return ( flags[ segment ] & KILLED ) != 0; }
+
+    // Get the current or previous position of a segment.
+    public float getX( int segment ) { return x[ segment ]; }
+    public float getY( int segment ) { return y[ segment ]; }
+    public float getPreviousX( int segment ) { return previousX[ segment ]; }
+    public float getPreviousY( int segment ) { return previousY[ segment ]; }
+
+    // Set the current position of a segment, keeping the one it replaces as the previous position.
+    public void setPosition( int segment, float x, float y ) {
+        previousX[ segment ] = this.x[ segment ];
+        previousY[ segment ] = this.y[ segment ];
+        this.x[ segment ] = x;
+        this.y[ segment ] = y;
+    }
+
+    // Get or set the direction of traversal of a segment.
+    public Vector getDirection( int segment ) { return DIRECTIONS[ direction[ segment ] ]; }
+    public void setDirection( int segment, Vector direction ) { this.direction[ segment ] = indexOf( direction ); }
+    public Vector getNextDirection( int segment ) { return DIRECTIONS[ nextDirection[ segment ] ]; }
+    public void setNextDirection( int segment, Vector nextDirection ) { this.nextDirection[ segment ] = indexOf( nextDirection ); }
+
+    // Get or set the rotation and rotation related data of a segment.
+    public float getRotation( int segment ) { return rotation[ segment ]; }
+    public void setRotation( int segment, float rotation ) { this.rotation[ segment ] = rotation; }
+    public float getTargetRotation( int segment ) { return getNextDirection( segment ).getTargetRotation(); }
+    public float getRotationPercentage( int segment ) { return rotationPercentage[ segment ]; }
+    public void setRotationPercentage( int segment, float rotationPercentage ) { this.rotationPercentage[ segment ] = rotationPercentage; }
+
+    /*
+    Kill a segment, unlinking it from its head and tail.  Killed heads scatter all their tails as
+    independent heads, killed middles split their centipede in two, and killed tails just go away.
+    Killed segments stay where they are until removeKilled is called, so indices stay valid.
+    */
+    public void kill( int segment ) {
+        // Guard against killing a segment twice.
+        if( getIsKilled( segment ) ) return;
+
+        flags[ segment ] |= KILLED;
+        anyKilled = true;
+
+        int head = this.head[ segment ];
+        int tail = this.tail[ segment ];
+
+        this.head[ segment ] = NONE;
+        this.tail[ segment ] = NONE;
+
+        // Killed heads scatter their tails, each of which becomes a centipede of its own.
+        if( head == NONE ) {
+            while( tail != NONE ) {
+                int nextTail = this.tail[ tail ];
+
+                this.head[ tail ] = NONE;
+                this.tail[ tail ] = NONE;
+                split( tail );
+
+                tail = nextTail;
+            }
+
+            return;
+        }
+
+        // Killed tails and middles are unlinked from their heads.
+        this.tail[ head ] = NONE;
+
+        // Killed middles leave their tails as a centipede of their own.
+        if( tail != NONE ) {
+            this.head[ tail ] = NONE;
+            split( tail );
+        }
+    }
+
+    /*
+    Remove killed segments and pack the rest back together, the centipedes that were already on the
+    lawn first, in the order they were, followed by those split off in the order they were split.
+    */
+    public void removeKilled() {
+        // Guard against needlessly repacking.
+        if( !anyKilled ) return;
+
+        int packed = 0;
+
+        // Pack the centipedes that were already on the lawn.
+        for( int segment = 0; segment < count; segment++ )
+            if( head[ segment ] == NONE && ( flags[ segment ] & ( KILLED | SPLIT ) ) == 0 )
+                packed = pack( segment, packed );
+
+        // Pack the centipedes that were split off.
+        for( int split = 0; split < splitCount; split++ )
+            if( !getIsKilled( splits[ split ] ) ) packed = pack( splits[ split ], packed );
+
+        swapPacked();
+
+        count = packed;
+        splitCount = 0;
+        anyKilled = false;
+    }
+
+    // Mark a segment as the head of a centipede split off by a kill.
+    private void split( int segment ) {
+        flags[ segment ] |= SPLIT;
+        splits[ splitCount++ ] = segment;
+    }
+
+    // Pack a centipede from its head to its tail starting at an index, returning the index after it.
+    private int pack( int segment, int packed ) {
+        int first = packed;
+
+        while( segment != NONE ) {
+            packedX[ packed ] = x[ segment ];
+            packedY[ packed ] = y[ segment ];
+            packedPreviousX[ packed ] = previousX[ segment ];
+            packedPreviousY[ packed ] = previousY[ segment ];
+            packedRotation[ packed ] = rotation[ segment ];
+            packedRotationPercentage[ packed ] = rotationPercentage[ segment ];
+            packedDirection[ packed ] = direction[ segment ];
+            packedNextDirection[ packed ] = nextDirection[ segment ];
+            packedFlags[ packed ] = (byte) ( flags[ segment ] & ABOVE );
+            packedHead[ packed ] = packed == first ? NONE : packed - 1;
+            packedTail[ packed ] = tail[ segment ] == NONE ? NONE : packed + 1;
+
+            segment = tail[ segment ];
+            packed++;
+        }
+
+        return packed;
+    }
+
+    // Swap the packed arrays in as the current ones, keeping the old ones for the next packing.
+    private void swapPacked() {
+        float[] floats; byte[] bytes; int[] ints;
+
+        floats = x; x = packedX; packedX = floats;
+        floats = y; y = packedY; packedY = floats;
+        floats = previousX; previousX = packedPreviousX; packedPreviousX = floats;
+        floats = previousY; previousY = packedPreviousY; packedPreviousY = floats;
+        floats = rotation; rotation = packedRotation; packedRotation = floats;
+        floats = rotationPercentage; rotationPercentage = packedRotationPercentage; packedRotationPercentage = floats;
+        bytes = direction; direction = packedDirection; packedDirection = bytes;
+        bytes = nextDirection; nextDirection = packedNextDirection; packedNextDirection = bytes;
+        bytes = flags; flags = packedFlags; packedFlags = bytes;
+        ints = head; head = packedHead; packedHead = ints;
+        ints = tail; tail = packedTail; packedTail = ints;
+    }
+
+    // Grow the arrays to hold at least the given number of segments, keeping those in use.
+    private void ensureCapacity( int capacity ) {
+        // Guard against growing when there is already room.
+        if( capacity <= x.length ) return;
+
+        float[] x = this.x, y = this.y, previousX = this.previousX, previousY = this.previousY;
+        float[] rotation = this.rotation, rotationPercentage = this.rotationPercentage;
+        byte[] direction = this.direction, nextDirection = this.nextDirection, flags = this.flags;
+        int[] head = this.head, tail = this.tail;
+
+        allocate( Math.max( capacity, x.length * 2 ) );
+
+        System.arraycopy( x, 0, this.x, 0, count );
+        System.arraycopy( y, 0, this.y, 0, count );
+        System.arraycopy( previousX, 0, this.previousX, 0, count );
+        System.arraycopy( previousY, 0, this.previousY, 0, count );
+        System.arraycopy( rotation, 0, this.rotation, 0, count );
+        System.arraycopy( rotationPercentage, 0, this.rotationPercentage, 0, count );
+        System.arraycopy( direction, 0, this.direction, 0, count );
+        System.arraycopy( nextDirection, 0, this.nextDirection, 0, count );
+        System.arraycopy( flags, 0, this.flags, 0, count );
+        System.arraycopy( head, 0, this.head, 0, count );
+        System.arraycopy( tail, 0, this.tail, 0, count );
+    }
+
+    // Allocate all arrays for the given number of segments.
+    private void allocate( int capacity ) {
+        x = new float[ capacity ];
+        y = new float[ capacity ];
+        previousX = new float[ capacity ];
+        previousY = new float[ capacity ];
+        rotation = new float[ capacity ];
+        rotationPercentage = new float[ capacity ];
+        direction = new byte[ capacity ];
+        nextDirection = new byte[ capacity ];
+        flags = new byte[ capacity ];
+        head = new int[ capacity ];
+        tail = new int[ capacity ];
+
+        packedX = new float[ capacity ];
+        packedY = new float[ capacity ];
+        packedPreviousX = new float[ capacity ];
+        packedPreviousY = new float[ capacity ];
+        packedRotation = new float[ capacity ];
+        packedRotationPercentage = new float[ capacity ];
+        packedDirection = new byte[ capacity ];
+        packedNextDirection = new byte[ capacity ];
+        packedFlags = new byte[ capacity ];
+        packedHead = new int[ capacity ];
+        packedTail = new int[ capacity ];
+
+        splits = new int[ capacity ];
+    }
+
+    // Get the index of a direction for storage.
+    private static byte indexOf( Vector direction ) { return (byte) TurnTable.indexOf( direction ); }
+}
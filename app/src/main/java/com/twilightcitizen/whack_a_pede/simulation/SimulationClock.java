@@ -0,0 +1,65 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.simulation;
+
+/*
+SimulationClock decouples the rate at which the world is stepped from the rate at which frames are
+drawn.  Real frame time is accumulated and spent in fixed steps, so the world advances at the same
+pace on 60, 90, or 120 Hz displays, and a long frame is split into several short steps that each
+keep centipedes coherent through turns even at top speed.  The steps taken in a single frame are
+capped so that a stall cannot be followed by an ever-growing backlog of catch-up steps; time beyond
+the cap is dropped and the game briefly slows instead.  Whatever time is left over after stepping
+is exposed as an interpolation alpha between the previous and current step for smooth drawing.
+*/
+public class SimulationClock {
+    // Fixed time slice for each step of the world.
+    public static final long STEP_MILLIS = 10L;
+
+    // Cap on the number of steps that can be taken for a single frame.
+    public static final int MAX_STEPS_PER_FRAME = 10;
+
+    // Nanosecond equivalents for accumulating real frame time.
+    private static final long STEP_NANOS = STEP_MILLIS * 1_000_000L;
+    private static final long MAX_ACCUMULATED_NANOS = STEP_NANOS * MAX_STEPS_PER_FRAME;
+
+    // Time of the previous frame, or negative before the first frame after a reset.
+    private long previousFrameTimeNanos = -1L;
+
+    // Real frame time accumulated and not yet spent in steps.
+    private long accumulatedNanos = 0L;
+
+    /*
+    Forget the previous frame so time spent paused is not caught up on later.  The fraction of a
+    step already accumulated is kept so drawing does not jump back while paused.
+    */
+    public void reset() { previousFrameTimeNanos = -1L; }
+
+    /*
+    Accumulate the time since the previous frame and return the number of fixed steps that should
+    be taken for this one.  The first frame after a reset only establishes the time base.
+    */
+    public int advance( long frameTimeNanos ) {
+        if( previousFrameTimeNanos >= 0L )
+            accumulatedNanos += Math.max( 0L, frameTimeNanos - previousFrameTimeNanos );
+
+        previousFrameTimeNanos = frameTimeNanos;
+
+        // Drop whatever time exceeds the cap on steps for the frame.
+        accumulatedNanos = Math.min( accumulatedNanos, MAX_ACCUMULATED_NANOS );
+
+        // Spend as many whole steps as have accumulated.
+        int steps = (int) ( accumulatedNanos / STEP_NANOS );
+
+        accumulatedNanos -= steps * STEP_NANOS;
+
+        return steps;
+    }
+
+    // Fraction of a step left over after the last advance, between 0 inclusive and 1 exclusive.
+    public float getAlpha() { return (float) accumulatedNanos / STEP_NANOS; }
+}
@@ -0,0 +1,83 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.simulation;
+
+import java.util.concurrent.locks.LockSupport;
+
+import static com.twilightcitizen.whack_a_pede.simulation.SimulationClock.STEP_MILLIS;
+
+/*
+SimulationThread loops a game on a thread of its own, once for every fixed step of the simulation,
+instead of once for every frame drawn.  Game logic and drawing then run side by side on separate
+cores rather than taking turns on the drawing thread, so a long step no longer delays a frame and a
+long frame no longer delays a step.  Whatever is looped should publish what it would have drawn for
+the drawing thread to pick up.  A thread that falls far behind its schedule, as when the device is
+busy, does not rush to catch up but starts its schedule over from the time it resumes.
+*/
+public class SimulationThread extends Thread {
+    // Something that can be looped up to a time in nanoseconds.
+    public interface Loop { void loop( long timeNanos ); }
+
+    // Nanosecond length of a step, and how far behind the schedule can fall before it starts over.
+    private static final long STEP_NANOS = STEP_MILLIS * 1_000_000L;
+    private static final long MAX_BEHIND_NANOS = STEP_NANOS * SimulationClock.MAX_STEPS_PER_FRAME;
+
+    // Loop to run on the thread.
+    private final Loop loop;
+
+    // Flag for the thread to keep looping.
+    private volatile boolean isLooping = true;
+
+    // Thread must have a loop to run.
+    public SimulationThread( Loop loop ) {
+        super( "Simulation" );
+
+        this.loop = loop;
+    }
+
+    // Loop once for every step until asked to quit.
+    @Override public void run() {
+        long nextLoopNanos = System.nanoTime();
+
+        while( isLooping ) {
+            long timeNanos = System.nanoTime();
+
+            loop.loop( timeNanos );
+
+            // Schedule the next loop a step after this one, starting over if too far behind.
+            nextLoopNanos += STEP_NANOS;
+
+            if( timeNanos - nextLoopNanos > MAX_BEHIND_NANOS ) nextLoopNanos = timeNanos + STEP_NANOS;
+
+            // Wait for the next loop, ignoring any early wake ups.
+            for(
+                long waitNanos = nextLoopNanos - System.nanoTime();
+                waitNanos > 0L && isLooping;
+                waitNanos = nextLoopNanos - System.nanoTime()
+            )
+                LockSupport.parkNanos( this, waitNanos );
+        }
+    }
+
+    // Stop looping and wait for the loop in progress, if any, to finish.
+    public void quit() {
+        isLooping = false;
+        LockSupport.unpark( this );
+
+        boolean isInterrupted = false;
+
+        // Keep waiting through interruptions, but pass them on afterward.
+        while( isAlive() ) try {
+            join();
+        } catch( InterruptedException e ) {
+            isInterrupted = true;
+        }
+
+        if( isInterrupted ) Thread.currentThread().interrupt();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.simulation;
+
+import com.twilightcitizen.whack_a_pede.geometry.Vector;
+
+/*
+TurnTable holds the exits open to anything reaching each turn of a lawn from each direction.  Exits
+never lead back the way something came, nor off the edges of the lawn, and they depend only on the
+turn and the incoming direction, so they are worked out once for the whole lawn rather than every
+time something reaches a turn.  Picking an exit is then a single lookup and a single random draw,
+whatever the size of the lawn.  Centipedes and power ups share the same table.
+*/
+public class TurnTable {
+    // Directions of travel on the lawn, identified by their index here wherever they are stored.
+    public static final Vector[] DIRECTIONS = {
+        Vector.up, Vector.down, Vector.left, Vector.right
+    };
+
+    // Exits for each turn and incoming direction, indexed by turn and then direction.
+    private final Vector[][] exits;
+
+    // Work out the exits for every turn of the lawn and every direction from which it is reached.
+    public TurnTable( LawnGrid grid ) {
+        exits = new Vector[ grid.getTurnCount() * DIRECTIONS.length ][];
+
+        for( int turn = 0; turn < grid.getTurnCount(); turn++ )
+            for( int incoming = 0; incoming < DIRECTIONS.length; incoming++ )
+                exits[ turn * DIRECTIONS.length + incoming ] =
+                    findExits( grid, turn, DIRECTIONS[ incoming ] );
+    }
+
+    // Get the index of a direction of travel.
+    public static int indexOf( Vector direction ) {
+        for( int index = 0; index < DIRECTIONS.length; index++ )
+            if( DIRECTIONS[ index ] == direction ) return index;
+
+        throw new IllegalArgumentException( "Direction Not Up, Down, Left, or Right" );
+    }
+
+    // Get the exits from a turn reached from an incoming direction by index.
+    public Vector[] getExits( int turn, int incoming ) {
+        return exits[ turn * DIRECTIONS.length + incoming ];
+    }
+
+    // Get a random exit from a turn reached from an incoming direction.
+    public Vector getRandomExit( int turn, Vector incoming, GameRandom random ) {
+        Vector[] exits = getExits( turn, indexOf( incoming ) );
+
+        return exits[ random.nextInt( exits.length ) ];
+    }
+
+    // Find the exits from a turn reached from an incoming direction, excluding going backwards.
+    private static Vector[] findExits( LawnGrid grid, int turn, Vector incoming ) {
+        // Column and row of the turn for finding the edges of the lawn.
+        int column = grid.getColumn( turn );
+        int row = grid.getRow( turn );
+
+        // Whether each direction in turn is open.
+        boolean[] open = {
+            row != grid.getRows() - 1 && incoming != Vector.down,
+            row != 0 && incoming != Vector.up,
+            column != 0 && incoming != Vector.right,
+            column != grid.getColumns() - 1 && incoming != Vector.left
+        };
+
+        int count = 0;
+
+        for( boolean isOpen : open ) if( isOpen ) count++;
+
+        /*
+        Lawns only a single line across leave dead ends, from which the only exit is back.  Opposite
+        directions sit in pairs among the directions, so flipping the low bit of one gets the other.
+        */
+        if( count == 0 ) {
+            Vector[] back = new Vector[ 1 ];
+
+            back[ 0 ] = DIRECTIONS[ indexOf( incoming ) ^ 1 ];
+
+            return back;
+        }
+
+        Vector[] exits = new Vector[ count ];
+
+        count = 0;
+
+        // Exits keep the same order as the directions.
+        for( int direction = 0; direction < DIRECTIONS.length; direction++ )
+            if( open[ direction ] ) exits[ count++ ] = DIRECTIONS[ direction ];
+
+        return exits;
+    }
+}
@@ -0,0 +1,887 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.simulation;
+
+import com.twilightcitizen.whack_a_pede.geometry.Point;
+import com.twilightcitizen.whack_a_pede.geometry.Vector;
+import com.twilightcitizen.whack_a_pede.models.PowerUp;
+import com.twilightcitizen.whack_a_pede.utilities.TimeUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+WhackAPedeWorld is the headless simulation core of Whack-A-Pede.  It owns every centipede and power
+up on the lawn along with the score, rounds, clock, and achievement progress of a single game, and
+it advances all of them through the game rules with each step.  It depends on nothing from Android,
+so it can be run on a plain JVM for testing and benchmarking, and any number of worlds can coexist
+in the same process.  Results are reported through a WorldListener rather than acted upon here.
+*/
+public class WhackAPedeWorld {
+    /*
+    The Whack-A-Pede Lawn assumes a square cellular construction, 7 cells across the X axis by 11
+    cells across the Y axis.  This accommodates a grid of 3 holes across the X axis by 5 holes across
+    the Y axis with turns set on, around, and  between each.  If the height of the Lawn should fill
+    the height of the whole viewport with a normalized height of 2, then the width should fill
+    2 x ( 7 / 11 ), or approximately 1.27 where the 27 repeats.
+    */
+    public static final float LAWN_CELLS_X_AXIS = 7.0f;
+    public static final float LAWN_CELLS_Y_AXIS = 11.0f;
+    public static final float LAWN_CELLS_RATIO = LAWN_CELLS_X_AXIS / LAWN_CELLS_Y_AXIS;
+    public static final float LAWN_NORMAL_HEIGHT = 2.0f;
+    public static final float LAWN_NORMAL_WIDTH = LAWN_NORMAL_HEIGHT * LAWN_CELLS_RATIO;
+
+    /*
+    Likewise, the square cells should have a height equal to 2 / 11, and a width of 1.27 / 7, both
+    of which should be equivalent, and are within acceptable tolerances for floats.  Other useful
+    measures can be born from these, such as radii for circles.
+    */
+    public static final float CELL_NORMAL_HEIGHT = LAWN_NORMAL_HEIGHT / LAWN_CELLS_Y_AXIS;
+    public static final float CELL_NORMAL_WIDTH = LAWN_NORMAL_WIDTH / LAWN_CELLS_X_AXIS;
+    public static final float CELL_NORMAL_RADIUS = CELL_NORMAL_HEIGHT / 2.0f;
+
+    public static final float CENTIPEDE_NORMAL_RADIUS = CELL_NORMAL_RADIUS * 0.8f;
+    public static final float CENTIPEDE_NORMAL_WIDTH =  CELL_NORMAL_WIDTH * 0.8f;
+    public static final float CENTIPEDE_NORMAL_HEIGHT = CELL_NORMAL_HEIGHT * 0.8f;
+
+    /*
+    Lines along the X and Y axes where the grid of Holes on the Lawn will be placed.
+    */
+
+    private static final float[] HOLES_X = new float[] {
+        0.0f - CELL_NORMAL_WIDTH * 2.0f,
+        0.0f,
+        0.0f + CELL_NORMAL_WIDTH * 2.0f
+    };
+
+    private static final float[] HOLES_Y = new float[] {
+        0.0f - CELL_NORMAL_HEIGHT * 4.0f,
+        0.0f - CELL_NORMAL_HEIGHT * 2.0f,
+        0.0f,
+        0.0f + CELL_NORMAL_HEIGHT * 2.0f,
+        0.0f + CELL_NORMAL_HEIGHT * 4.0f
+    };
+
+    // Holes at points generated along the intersections of the previous X and Y axes.
+    public static final Point[] HOLES = new Point[ HOLES_X.length * HOLES_Y.length ];
+
+    // Place holes at points generated along the intersections of the previous X and Y axes.
+    static {
+        int hole = 0;
+
+        for( float holeX : HOLES_X ) for( float holeY : HOLES_Y )
+            HOLES[ hole++ ] = new Point( holeX, holeY );
+    }
+
+    /*
+    Lines along the X and Y axes where the grid of Turns on the Lawn will be placed.
+    */
+
+    private static final float[] TURNS_X = new float[] {
+        0.0f - CELL_NORMAL_WIDTH * 3.0f,
+        0.0f - CELL_NORMAL_WIDTH * 2.0f,
+        0.0f - CELL_NORMAL_WIDTH * 1.0f,
+        0.0f,
+        0.0f + CELL_NORMAL_WIDTH * 1.0f,
+        0.0f + CELL_NORMAL_WIDTH * 2.0f,
+        0.0f + CELL_NORMAL_WIDTH * 3.0f
+    };
+
+    private static final float[] TURNS_Y = new float[] {
+        0.0f - CELL_NORMAL_HEIGHT * 5.0f,
+        0.0f - CELL_NORMAL_HEIGHT * 4.0f,
+        0.0f - CELL_NORMAL_HEIGHT * 3.0f,
+        0.0f - CELL_NORMAL_HEIGHT * 2.0f,
+        0.0f - CELL_NORMAL_HEIGHT * 1.0f,
+        0.0f,
+        0.0f + CELL_NORMAL_HEIGHT * 1.0f,
+        0.0f + CELL_NORMAL_HEIGHT * 2.0f,
+        0.0f + CELL_NORMAL_HEIGHT * 3.0f,
+        0.0f + CELL_NORMAL_HEIGHT * 4.0f,
+        0.0f + CELL_NORMAL_HEIGHT * 5.0f
+    };
+
+    // Turns at points generated along the intersections of the previous X and Y axes.
+    public static final Point[] TURNS = new Point[ TURNS_X.length * TURNS_Y.length ];
+
+    // Place turns at points generated along the intersections of the previous X and Y axes.
+    static {
+        int turn = 0;
+
+        for( float turnX : TURNS_X ) for( float turnY : TURNS_Y )
+            TURNS[ turn++ ] = new Point( turnX, turnY );
+    }
+
+    // Lattice index over the turns for finding those crossed without testing them all.
+    private static final LawnGrid GRID = new LawnGrid(
+        TURNS_X.length, TURNS_Y.length, CELL_NORMAL_WIDTH, CELL_NORMAL_HEIGHT
+    );
+
+    // Exits open at each turn of the lawn from each direction it can be reached.
+    private static final TurnTable TURN_TABLE = new TurnTable( GRID );
+
+    // Grass patches at points where turns exist but holes do not.
+    public static final Point[] PATCHES = new Point[ TURNS.length - HOLES.length ];
+
+    // Place grass patches at points where turns exist but holes do not.
+    static {
+        int patch = 0;
+
+        patches: for( Point turn : TURNS ) {
+            for( Point hole : HOLES ) if( turn.equals( hole ) ) continue patches;
+
+            PATCHES[ patch++ ] = new Point( turn.x, turn.y );
+        }
+    }
+
+    // Player scoring and timing constants.
+    private static final long ROUND_TIME_MILLIS = 10_000L;
+    private static final int POINTS_PER_CENTIPEDE = 100;
+    private static final long BONUS_MILLIS_PER_CENTIPEDE = ROUND_TIME_MILLIS;
+    private static final int BONUS_POINTS_PER_SECOND = 10;
+    private static final int STARTING_SCORE = 0;
+    private static final int STARTING_ROUNDS = 1;
+    private static final long STARTING_REMAINING_TIME_MILLIS = ROUND_TIME_MILLIS;
+    private static final long STARTING_ELAPSED_TIME_MILLIS = 0L;
+
+    // Centipede speed constants.
+    public static final float CENTIPEDE_START_SPEED = CELL_NORMAL_WIDTH * 3.0f;
+    public static final float CENTIPEDE_MAX_SPEED = CELL_NORMAL_WIDTH * 10.0f;
+
+    // This more or less determines the number of rounds before max speed is reached.
+    private static final float CENTIPEDE_SPEED_INCREASE =
+        ( CENTIPEDE_MAX_SPEED - CENTIPEDE_START_SPEED ) / 1_000.0f;
+
+    // The number of segments in a fresh centipede.
+    public static final int SEGMENTS_PER_CENTIPEDE = 10;
+
+    // Number of seconds to wait between adding power ups.
+    public static final int SECONDS_BETWEEN_POWER_UPS = 60;
+
+    // Edges of the lawn where centipedes can enter it.
+    private enum StartingEdge {
+        top, bottom, left, right;
+
+        // Starting edges cached, since values() copies them with every call.
+        private static final StartingEdge[] EDGES = values();
+
+        // Points along each starting edge, one for each line of turns meeting it, made up front.
+        private static final Point[][] POINTS = new Point[ EDGES.length ][];
+
+        static {
+            for( StartingEdge edge : EDGES ) {
+                // Lines of turns that meet the edge.
+                int lines = edge == top || edge == bottom ? TURNS_X.length : TURNS_Y.length;
+
+                POINTS[ edge.ordinal() ] = new Point[ lines ];
+
+                for( int line = 0; line < lines; line++ )
+                    POINTS[ edge.ordinal() ][ line ] = edge.getPointAlongEdge( line );
+            }
+        }
+
+        // Get a random starting edge using the given random number generator.
+        public static StartingEdge getRandomStartingEdge( GameRandom random ) {
+            return EDGES[ random.nextInt( EDGES.length ) ];
+        }
+
+        // Get a point along the current starting edge using the given random number generator.
+        public Point getRandomPointAlongEdge( GameRandom random ) {
+            Point[] points = POINTS[ ordinal() ];
+
+            return points[ random.nextInt( points.length ) ];
+        }
+
+        // Get the point where a line of turns meets the current starting edge.
+        private Point getPointAlongEdge( int line ) {
+            switch( this ) {
+                case top: return new Point( TURNS_X[ line ], 1.0f );
+                case bottom: return new Point( TURNS_X[ line ], -1.0f );
+                case left: return new Point( -LAWN_CELLS_RATIO, TURNS_Y[ line ] );
+                default: return new Point( LAWN_CELLS_RATIO, TURNS_Y[ line ] );
+            }
+        }
+
+        // Get the direction into the lawn from current edge.
+        public Vector getDirectionIntoEdge() {
+            switch( this ) {
+                case top: return Vector.down;
+                case bottom: return Vector.up;
+                case left: return Vector.right;
+                default: return Vector.left;
+            }
+        }
+    }
+
+    // Seed of the game in progress and the random number generator it seeds for various routines.
+    private long seed;
+    private final GameRandom random = new GameRandom( 0L );
+
+    // Listener notified of the results of each step.
+    private final WorldListener listener;
+
+    // Segments of all centipedes on the lawn at any given time.
+    private final SegmentStore segments = new SegmentStore( SEGMENTS_PER_CENTIPEDE );
+
+    // Power ups on the lawn at any given time.
+    private final List< PowerUp > powerUps = new ArrayList<>();
+
+    // Power ups must also be managed with concurrent list manipulation in mind.
+    private final ArrayList< PowerUp > powerUpsToRemove = new ArrayList<>();
+
+    // Power ups removed from the lawn, kept to be setup again rather than reallocated.
+    private final ArrayList< PowerUp > powerUpPool = new ArrayList<>();
+
+    // Scoring, timing, and speed of the game in progress.
+    private int score;
+    private int rounds;
+    private long remainingTimeMillis;
+    private long elapsedTimeMillis;
+    private float centipedeSpeed;
+
+    // Number of steps taken in the game in progress.
+    private long ticks;
+
+    // Flag for the clock running out.  Game over worlds do not step.
+    private boolean isOver;
+
+    // Achievement unlock flags.
+    private boolean headWhack;
+    private boolean tailsOnly;
+    private boolean doubleElimination;
+    private boolean tripleElimination;
+    private boolean quadrupleElimination;
+    private boolean halfLife;
+
+    // Accumulators for some achievement unlock flags.
+    private int headsTapped;
+    private int tailsTapped;
+
+    // Number of power up opportunities passed.
+    private int powerUpOpportunities;
+
+    // World must have a seed for its first game and a listener for its results.
+    public WhackAPedeWorld( long seed, WorldListener listener ) {
+        this.listener = listener;
+
+        reset( seed );
+    }
+
+    // Expose the centipede segments and power ups on the lawn for drawing.
+    public SegmentStore getSegments() { return segments; }
+    public List< PowerUp > getPowerUps() { return powerUps; }
+
+    // Expose scoring, timing, and speed values.
+    public int getScore() { return score; }
+    public int getRounds() { return rounds; }
+    public long getRemainingTimeMillis() { return remainingTimeMillis; }
+    public long getElapsedTimeMillis() { return elapsedTimeMillis; }
+    public float getCentipedeSpeed() { return centipedeSpeed; }
+    public boolean getIsOver() { return isOver; }
+
+    // Expose the seed of the game in progress and the number of steps taken in it.
+    public long getSeed() { return seed; }
+    public long getTicks() { return ticks; }
+
+    // Expose achievement unlock flags.
+    public boolean getHeadWhack() { return headWhack; }
+    public boolean getTailsOnly() { return tailsOnly; }
+    public boolean getDoubleElimination() { return doubleElimination; }
+    public boolean getTripleElimination() { return tripleElimination; }
+    public boolean getQuadrupleElimination() { return quadrupleElimination; }
+    public boolean getHalfLife() { return halfLife; }
+
+    // Reset all values to where they should be to replay the game in progress from its start.
+    public void reset() { reset( seed ); }
+
+    /*
+    Reset all values to where they should be for a fresh game with the given seed.  Games with the
+    same seed and the same touches at the same steps play out exactly the same.
+    */
+    public void reset( long seed ) {
+        this.seed = seed;
+        random.setSeed( seed );
+
+        segments.clear();
+        powerUpPool.addAll( powerUps );
+        powerUps.clear();
+
+        score = STARTING_SCORE;
+        rounds = STARTING_ROUNDS;
+        remainingTimeMillis = STARTING_REMAINING_TIME_MILLIS;
+        elapsedTimeMillis = STARTING_ELAPSED_TIME_MILLIS;
+        centipedeSpeed = CENTIPEDE_START_SPEED;
+        ticks = 0L;
+        isOver = false;
+
+        headWhack = false;
+        tailsOnly = false;
+        doubleElimination = false;
+        tripleElimination = false;
+        quadrupleElimination = false;
+        halfLife = false;
+        headsTapped = 0;
+        tailsTapped = 0;
+        powerUpOpportunities = 0;
+    }
+
+    /*
+    Put the first centipede on the lawn if the game has not yet taken a step.  Resuming a game
+    already in progress leaves any new centipede to the next round, so every random choice after
+    the start is made within some step, where a replay can reproduce it.
+    */
+    public void start() { if( ticks == 0L ) setupCentipede(); }
+
+    /*
+    Step the world through the provided time slice, processing the provided touches as attacks.
+    Touches are consumed by the step, but the list itself belongs to the caller.
+    */
+    public void step( long elapsedTimeMillis, List< Point > touches ) {
+        // Guard against changing anything once the clock has run out.
+        if( isOver ) return;
+
+        ticks++;
+
+        // Update the time elapsed and time remaining with the provided slice.
+        this.elapsedTimeMillis += elapsedTimeMillis;
+        remainingTimeMillis -= elapsedTimeMillis;
+
+        listener.onTimeChanged( this.elapsedTimeMillis, remainingTimeMillis );
+
+        // Add power ups, check for game over or next round, then attack and animate centipedes an power ups.
+        addPowerUps();
+        checkForGameOver();
+        checkForNextRound();
+        attackPowerUps( touches );
+        attackCentipedes( touches );
+        animatePowerUps( elapsedTimeMillis );
+        animateCentipedes( elapsedTimeMillis );
+    }
+
+    // Add power ups to the lawn based on elapsed time and chance.
+    private void addPowerUps() {
+        int powerUpOpportunities = (int) (
+            elapsedTimeMillis / TimeUtil.secondsToMillis( SECONDS_BETWEEN_POWER_UPS )
+        );
+
+        if( this.powerUpOpportunities == powerUpOpportunities ) return;
+
+        this.powerUpOpportunities = powerUpOpportunities;
+
+        setupPowerUp();
+    }
+
+    /*
+    Process collected touch events as power up attacks.  Remove touched power ups, if any, from the
+    lawn, applying the power ups to the game according to their desired effect.
+    */
+    private void attackPowerUps( List< Point > touches ) {
+        // Guard against processing attacks if there are no touch points or no power ups.
+        if( touches.isEmpty() || powerUps.isEmpty() ) return;
+
+        killTouchedPowerUps( touches );
+        applyKilledPowerUps();
+
+        // Do the actual removes, keeping the removed power ups for reuse.
+        powerUps.removeAll( powerUpsToRemove );
+
+        for( int index = 0; index < powerUpsToRemove.size(); index++ )
+            powerUpPool.add( powerUpsToRemove.get( index ) );
+
+        // Clear power up attack list to avoid needless checks.
+        powerUpsToRemove.clear();
+    }
+
+    // Apply the effect of the killed power ups to the game.
+    private void applyKilledPowerUps() {
+        for( int index = 0; index < powerUpsToRemove.size(); index++ ) {
+            PowerUp powerUp = powerUpsToRemove.get( index );
+
+            switch( powerUp.getKind() ) {
+                case plus1kPoints: score += 1_000; break;
+                case plus10kPoints: score += 10_000; break;
+                case plus100kPoints: score += 100_000; break;
+                case slowDown: centipedeSpeed = CENTIPEDE_START_SPEED;
+            }
+
+            if( powerUp.getKind() == PowerUp.Kind.slowDown )
+                listener.onCentipedeSpeedChanged( centipedeSpeed );
+            else
+                listener.onScoreChanged( score );
+
+            listener.onPowerUp( powerUp.getKind() );
+        }
+    }
+
+    // Check all power ups against touches, killing ones that were touched.
+    private void killTouchedPowerUps( List< Point > touches ) {
+        // Process all touch points as attacks.
+        for( int touch = 0; touch < touches.size(); touch++ ) {
+            // Cache the X and Y of the touch event.
+            float x = touches.get( touch ).x; float y = touches.get( touch ).y;
+
+            // Test attacks against all power ups.
+            for( int index = 0; index < powerUps.size(); index++ ) {
+                // Cache the power up for speedier access.
+                PowerUp powerUp = powerUps.get( index );
+
+                // Touch X falls within X bounds of power up.
+                boolean touchedX =
+                    x >= powerUp.getX() - CENTIPEDE_NORMAL_RADIUS &&
+                    x <= powerUp.getX() + CENTIPEDE_NORMAL_RADIUS;
+
+                // Touch Y falls within Y bounds of power up.
+                boolean touchedY =
+                    y >= powerUp.getY() - CENTIPEDE_NORMAL_RADIUS &&
+                    y <= powerUp.getY() + CENTIPEDE_NORMAL_RADIUS;
+
+                // Add any touched power ups to the killed power ups collection, but only once.
+                if( touchedX && touchedY && !powerUpsToRemove.contains( powerUp ) )
+                    powerUpsToRemove.add( powerUp );
+            }
+        }
+    }
+
+    // Animate power ups over the provided time slice.
+    private void animatePowerUps( long elapsedTimeMillis ) {
+        // Normalize the elapsed time as a fraction of 1 second.
+        float interval = TimeUtil.millisToIntervalOfSeconds( elapsedTimeMillis );
+
+        // Animate each power up.
+        for( int index = 0; index < powerUps.size(); index++ ) {
+            // Cache the power up for speedier access.
+            PowerUp powerUp = powerUps.get( index );
+
+            // Generate a new position for it based on current position, direction, and speed.
+            float nextX = powerUp.getX() + centipedeSpeed * interval * powerUp.getDirection().x;
+            float nextY = powerUp.getY() + centipedeSpeed * interval * powerUp.getDirection().y;
+
+            // Find the turn it traversed, if any.
+            int turn = GRID.findCrossedTurn( powerUp.getX(), powerUp.getY(), nextX, nextY );
+
+            // Change its trajectory through the turn, or just set its new position.
+            if( turn != LawnGrid.NONE )
+                animateThroughTurn( powerUp, turn, nextX, nextY );
+            else
+                powerUp.setPosition( nextX, nextY );
+        }
+    }
+
+    // Change the power up's trajectory through the turn it traversed and set its new position.
+    private void animateThroughTurn( PowerUp powerUp, int turn, float nextX, float nextY ) {
+        // Cache the turn's position for speedier access.
+        float turnX = GRID.getPosition( turn ).x;
+        float turnY = GRID.getPosition( turn ).y;
+        // Get the power up's direction before changing it.
+        Vector previousDirection = powerUp.getDirection();
+
+        powerUp.setNextDirection( TURN_TABLE.getRandomExit( turn, previousDirection, random ) );
+
+        // Use new direction gotten from turn at approach.
+        powerUp.setDirection( powerUp.getNextDirection() );
+
+        // Get the power up's direction after changing it.
+        Vector nextDirection = powerUp.getDirection();
+
+        // The power up's previous direction matches the new one, keep it on course.
+        if( nextDirection == previousDirection ) { powerUp.setPosition( nextX, nextY ); return; }
+
+        // No need to bend the power up's path around the turn if its path ends dead on it.
+        if( Float.compare( turnX, nextX ) == 0 && Float.compare( turnY, nextY ) == 0 ) {
+            powerUp.setPosition( nextX, nextY ); return;
+        }
+
+        // Travel past the turn to be applied in the new direction after it.
+        float travelAfterTurn;
+
+        // Travel after turn is difference between X or Y axes depending on direction.
+        if( Float.compare( turnX, nextX ) == 0 ) {
+            travelAfterTurn = Math.abs( nextY - turnY );
+        } else  {
+            travelAfterTurn = Math.abs( nextX - turnX );
+        }
+
+        // Change the next position based on travel after turn in new direction.
+        if( nextDirection == Vector.up ) {
+            powerUp.setPosition( turnX, nextY + travelAfterTurn );
+        } else if( nextDirection == Vector.down ) {
+            powerUp.setPosition( turnX, nextY - travelAfterTurn );
+        } else if( nextDirection == Vector.left ) {
+            powerUp.setPosition( nextX - travelAfterTurn, turnY );
+        } else {
+            powerUp.setPosition( nextX + travelAfterTurn, turnY );
+        }
+    }
+
+    // Setup a new power up to enter the lawn from a random location at one of its edges.
+    private void setupPowerUp() {
+        // Pick an edge of the lawn at random.
+        StartingEdge startingEdge = StartingEdge.getRandomStartingEdge( random );
+        // Position and direction for the new power up.
+        Point startingPosition = startingEdge.getRandomPointAlongEdge( random );
+        Vector startingDirection = startingEdge.getDirectionIntoEdge();
+        // Generate the kind of power up randomly.
+        PowerUp.Kind kind = PowerUp.Kind.getRandomKind( random );
+        // Reuse a removed power up if there is one, or create a new one, with the random picks.
+        if( powerUpPool.isEmpty() ) {
+            powerUps.add( new PowerUp( startingPosition.x, startingPosition.y, startingDirection, kind ) );
+        } else {
+            PowerUp powerUp = powerUpPool.remove( powerUpPool.size() - 1 );
+
+            powerUp.setup( startingPosition.x, startingPosition.y, startingDirection, kind );
+            powerUps.add( powerUp );
+        }
+    }
+
+    // Setup a new centipede to enter the lawn from a random location at one of its edges.
+    private void setupCentipede() {
+        // Guard against adding a new centipede when one already exists.
+        if( !segments.isEmpty() ) return;
+
+        // Pick an edge of the lawn at random.
+        StartingEdge startingEdge = StartingEdge.getRandomStartingEdge( random );
+        // Position and direction for the new centipede.
+        Point startingPosition = startingEdge.getRandomPointAlongEdge( random );
+        Vector startingDirection = startingEdge.getDirectionIntoEdge();
+        // Randomize its above/below ground position.
+        boolean isAbove = ( random.nextInt( 2 ) + 1 ) % 2 != 0;
+
+        // Add it to the lawn with its tails at the random position and direction picked.
+        segments.addCentipede(
+            startingPosition.x, startingPosition.y, startingDirection, isAbove, SEGMENTS_PER_CENTIPEDE
+        );
+
+        headsTapped = 0;
+        tailsTapped = 0;
+    }
+
+    // Check for game over conditions and flag the world as over as needed.
+    private void checkForGameOver() {
+        // Game is over if timer reaches zero.
+        if( remainingTimeMillis > 0 ) return;
+
+        // Prevent negative clock.
+        remainingTimeMillis = 0L;
+        isOver = true;
+
+        listener.onTimeChanged( elapsedTimeMillis, remainingTimeMillis );
+        listener.onGameOver();
+    }
+
+    // Check for new round conditions, modifying score and time and adding centipedes as needed.
+    private void checkForNextRound() {
+        // Guard against starting new round when centipedes still exist.
+        if( !segments.isEmpty() ) return;
+
+        // Add points for time remaining.
+        score += TimeUtil.millisToSeconds( remainingTimeMillis ) * BONUS_POINTS_PER_SECOND;
+
+        // Increment rounds.
+        rounds++;
+
+        // Reset the clock.
+        remainingTimeMillis = ROUND_TIME_MILLIS;
+
+        // Set the next round's centipede starting speed.
+        centipedeSpeed = Math.min( centipedeSpeed + CENTIPEDE_SPEED_INCREASE, CENTIPEDE_MAX_SPEED );
+
+        listener.onScoreChanged( score );
+        listener.onRoundsChanged( rounds );
+        listener.onTimeChanged( elapsedTimeMillis, remainingTimeMillis );
+        listener.onCentipedeSpeedChanged( centipedeSpeed );
+        listener.onNewRound();
+
+        // Setup a new centipede.
+        applyRoundAchievements();
+        setupCentipede();
+    }
+
+    // Unlock any achievements for the game tracked within in the round.
+    private void applyRoundAchievements() {
+        headWhack |= headsTapped == SEGMENTS_PER_CENTIPEDE;
+        tailsOnly |= tailsTapped == SEGMENTS_PER_CENTIPEDE - 1;
+    }
+
+    /*
+    Process collected touch events as centipede attacks.  Remove touched segments of the centipedes,
+    if any, from the lawn, splitting or scattering attached centipedes as needed, and speeding them
+    all up.  Score points for the player for all successfully attacked segments.
+    */
+    private void attackCentipedes( List< Point > touches ) {
+        // Guard against processing attacks if there are no touch points.
+        if( touches.isEmpty() ) return;
+
+        // Number of segments eliminated by the touches.
+        int eliminationCount = killTouchedSegments( touches );
+
+        // Do the actual removes.
+        segments.removeKilled();
+
+        // Add points and time for each segment killed, and speed up the rest.
+        score += eliminationCount * POINTS_PER_CENTIPEDE;
+        remainingTimeMillis += eliminationCount * BONUS_MILLIS_PER_CENTIPEDE;
+        centipedeSpeed += CENTIPEDE_SPEED_INCREASE * eliminationCount;
+
+        // Update the scoreboard.
+        listener.onScoreChanged( score );
+        listener.onTimeChanged( elapsedTimeMillis, remainingTimeMillis );
+        listener.onCentipedeSpeedChanged( centipedeSpeed );
+
+        // Report hits or misses.
+        if( eliminationCount == 0 ) listener.onMiss(); else listener.onHit( eliminationCount );
+
+        // Process multiple elimination achievements.
+        if( eliminationCount >= 5 ) {
+            doubleElimination = tripleElimination = quadrupleElimination = halfLife = true;
+        } if( eliminationCount == 4 ) {
+            doubleElimination = tripleElimination = quadrupleElimination = true;
+        } if( eliminationCount == 3 ) {
+            doubleElimination = tripleElimination = true;
+        } if( eliminationCount == 2 ) {
+            doubleElimination = true;
+        }
+    }
+
+    /*
+    Check all segments against touches, killing ones that were touched and returning the number
+    killed.  Killed heads scatter their tails, killed middles split their centipedes, and killed
+    tails just go away.  Package private so that hit testing can be benchmarked on its own.
+    */
+    int killTouchedSegments( List< Point > touches ) {
+        // Number of segments killed.
+        int killed = 0;
+
+        // Process all touch points as attacks.
+        for( int touch = 0; touch < touches.size(); touch++ ) {
+            // Cache the X and Y of the touch event.
+            float x = touches.get( touch ).x; float y = touches.get( touch ).y;
+
+            // Test attacks against all segments.
+            for( int segment = 0; segment < segments.getCount(); segment++ ) {
+                // Guard against killing a segment already killed by another touch.
+                if( segments.getIsKilled( segment ) ) continue;
+
+                // Cache the segment position.
+                float segmentX = segments.getX( segment );
+                float segmentY = segments.getY( segment );
+
+                // Touch X falls within X bounds of segment.
+                boolean touchedX =
+                    x >= segmentX - CENTIPEDE_NORMAL_RADIUS &&
+                    x <= segmentX + CENTIPEDE_NORMAL_RADIUS;
+
+                // Touch Y falls within Y bounds of segment.
+                boolean touchedY =
+                    y >= segmentY - CENTIPEDE_NORMAL_RADIUS &&
+                    y <= segmentY + CENTIPEDE_NORMAL_RADIUS;
+
+                // Touch falls in bounds of segment and segment is above ground.
+                boolean touched = touchedX && touchedY && segments.getIsAbove( segment );
+
+                // Guard against untouched segments.
+                if( !touched ) continue;
+
+                // Track heads and tails tapped for achievements.
+                if( segments.getIsHead( segment ) ) headsTapped++;
+                else if( segments.getIsTail( segment ) ) tailsTapped++;
+
+                segments.kill( segment );
+                killed++;
+            }
+        }
+
+        return killed;
+    }
+
+    // Animate centipedes over the provided time slice.
+    private void animateCentipedes( long elapsedTimeMillis ) {
+        // Normalize the elapsed time as a fraction of 1 second.
+        float interval = TimeUtil.millisToIntervalOfSeconds( elapsedTimeMillis );
+
+        // Animate each segment, heads before their tails.
+        for( int segment = 0; segment < segments.getCount(); segment++ ) {
+            // Cache direction for speedier access.
+            Vector direction = segments.getDirection( segment );
+
+            // Generate a new position for it based on current position, direction, and speed.
+            float nextX = segments.getX( segment ) + centipedeSpeed * interval * direction.x;
+            float nextY = segments.getY( segment ) + centipedeSpeed * interval * direction.y;
+
+            // Animate through holes to change above/below-ground layer.
+            animateThroughHoles( segment, nextX, nextY );
+            /*
+             Get new directions from turns at approach, change trajectory through them, and
+             rotate smoothing around them.
+            */
+            approachTurns( segment, nextX, nextY );
+            animateThroughTurns( segment, nextX, nextY );
+            rotateAroundTurns( segment, interval );
+        }
+    }
+
+    // Animate the segment through any hole it encountered on its heading.
+    private void animateThroughHoles( int segment, float nextX, float nextY ) {
+        // Find the turn the segment passed over/under, if any.
+        int turn = GRID.findCrossedTurn(
+            segments.getX( segment ), segments.getY( segment ), nextX, nextY
+        );
+
+        // Toggle the above/below-ground layer if that turn is a hole.
+        if( turn != LawnGrid.NONE && GRID.isHole( turn ) ) segments.toggleAbove( segment );
+    }
+
+    // Smoothly rotate the segment as it navigates turns.
+    private void rotateAroundTurns( int segment, float interval ) {
+        // Get its rotation percentage and the factor to add or subtract from it for the time slice.
+        float rotationPercentage = segments.getRotationPercentage( segment );
+        float rotationFactor = 1.0f / CELL_NORMAL_WIDTH * interval;
+
+        // Increase or decrease the rotation percentage by the factor based on rotation trajectory.
+        if( rotationPercentage > 0.0f && rotationPercentage <= 1.0f )
+            segments.setRotationPercentage( segment, rotationPercentage - rotationFactor );
+        else if( rotationPercentage < 0.0f && rotationPercentage >= -1.0f )
+            segments.setRotationPercentage( segment, rotationPercentage + rotationFactor );
+
+        // Rotate it by it target rotation less the percentage 90 degrees for the time slice.
+        segments.setRotation( segment, segments.getTargetRotation( segment ) - 90.0f * rotationPercentage );
+    }
+
+    // Get a new direction from a turn as the segment approaches it so it can begin rotation.
+    private void approachTurns( int segment, float nextX, float nextY ) {
+        // Cache previous position for speedier access.
+        float previousX = segments.getX( segment );
+        float previousY = segments.getY( segment );
+        // Cache direction for speedier access.
+        Vector direction = segments.getDirection( segment );
+        // Point of approach is ahead of segment center along its direction.
+        float approachX = CELL_NORMAL_RADIUS * direction.x;
+        float approachY = CELL_NORMAL_RADIUS * direction.y;
+
+        // Find the turn the segment approached with its leading edge, if any.
+        int turn = GRID.findCrossedTurn(
+            previousX + approachX, previousY + approachY, nextX + approachX, nextY + approachY
+        );
+
+        // Disregard the approach if no turn was reached.
+        if( turn == LawnGrid.NONE ) return;
+
+        // Heads get their own direction from the turn, while tails follow their heads.
+        if( segments.getIsHead( segment ) )
+            segments.setNextDirection( segment, TURN_TABLE.getRandomExit( turn, direction, random ) );
+        else
+            segments.setNextDirection( segment, segments.getNextDirection( segments.getHead( segment ) ) );
+
+        // Get the segment's next direction after changing it.
+        Vector nextDirection = segments.getNextDirection( segment );
+
+        // Default not to rotate in case heading remains the same.
+        segments.setRotationPercentage( segment, 0.0f );
+
+        // The segment's current direction matches the new one, no need to rotate.
+        if( nextDirection == direction ) return;
+
+        // Otherwise, set it up to start rotating for the turn.
+        if( nextDirection == Vector.down ) {
+            if( direction == Vector.left )
+                segments.setRotationPercentage( segment, 1.0f );
+            else
+                segments.setRotationPercentage( segment, -1.0f );
+        } else if( nextDirection == Vector.up ) {
+            if( direction == Vector.left )
+                segments.setRotationPercentage( segment, -1.0f );
+            else
+                segments.setRotationPercentage( segment, 1.0f );
+        } else if( nextDirection == Vector.left ) {
+            if( direction == Vector.down )
+                segments.setRotationPercentage( segment, -1.0f );
+            else
+                segments.setRotationPercentage( segment, 1.0f );
+        } else {
+            if( direction == Vector.down )
+                segments.setRotationPercentage( segment, 1.0f );
+            else
+                segments.setRotationPercentage( segment, -1.0f );
+        }
+    }
+
+    // Change the segment's trajectory through any turn it encountered on its heading.
+    private void animateThroughTurns( int segment, float nextX, float nextY ) {
+        // Cache previous position for speedier access.
+        float previousX = segments.getX( segment );
+        float previousY = segments.getY( segment );
+
+        // Find the turn the segment traversed, if any.
+        int turn = GRID.findCrossedTurn( previousX, previousY, nextX, nextY );
+
+        // Keep the segment on course if it did not traverse a turn.
+        if( turn == LawnGrid.NONE ) { segments.setPosition( segment, nextX, nextY ); return; }
+
+        // Cache the turn's position for speedier access.
+        Point turnPosition = GRID.getPosition( turn );
+        float turnX = turnPosition.x;
+        float turnY = turnPosition.y;
+        // Get the segment's direction before changing it.
+        Vector previousDirection = segments.getDirection( segment );
+
+        // Use new direction gotten from turn at approach.
+        segments.setDirection( segment, segments.getNextDirection( segment ) );
+
+        // Get the segment's direction after changing it.
+        Vector nextDirection = segments.getDirection( segment );
+
+        // The segment's previous direction matches the new one, keep it on course.
+        if( nextDirection == previousDirection ) { segments.setPosition( segment, nextX, nextY ); return; }
+
+        // No need to bend the segment's path around the turn if its path ends dead on it.
+        if( Float.compare( turnX, nextX ) == 0 && Float.compare( turnY, nextY ) == 0 ) {
+            segments.setPosition( segment, nextX, nextY ); return;
+        }
+
+        // Handle the head case.
+        if( segments.getIsHead( segment ) ) {
+            // Travel past the turn to be applied in the new direction after it.
+            float travelAfterTurn;
+
+            // Travel after turn is difference between X or Y axes depending on direction.
+            if( Float.compare( turnX, nextX ) == 0 ) {
+                travelAfterTurn = Math.abs( nextY - turnY );
+            } else  {
+                travelAfterTurn = Math.abs( nextX - turnX );
+            }
+
+            // Change the next position based on travel after turn in new direction.
+            if( nextDirection == Vector.up ) {
+                segments.setPosition( segment, turnX, nextY + travelAfterTurn );
+            } else if( nextDirection == Vector.down ) {
+                segments.setPosition( segment, turnX, nextY - travelAfterTurn );
+            } else if( nextDirection == Vector.left ) {
+                segments.setPosition( segment, nextX - travelAfterTurn, turnY );
+            } else {
+                segments.setPosition( segment, nextX + travelAfterTurn, turnY );
+            }
+
+            return;
+        }
+
+        // Handle the tail case, based on the head's position.
+        int head = segments.getHead( segment );
+        float headX = segments.getX( head );
+        float headY = segments.getY( head );
+
+        // Change the position based on the head's distance already past the turn.
+        if( nextDirection == Vector.up ) {
+            segments.setPosition( segment, turnX, headY - CENTIPEDE_NORMAL_HEIGHT );
+        } else if( nextDirection == Vector.down ) {
+            segments.setPosition( segment, turnX, headY + CENTIPEDE_NORMAL_HEIGHT );
+        } else if( nextDirection == Vector.left ) {
+            segments.setPosition( segment, headX + CENTIPEDE_NORMAL_WIDTH, turnY );
+        } else {
+            segments.setPosition( segment, headX - CENTIPEDE_NORMAL_WIDTH, turnY );
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.simulation;
+
+import com.twilightcitizen.whack_a_pede.models.PowerUp;
+
+/*
+WorldListener receives the results of stepping a WhackAPedeWorld.  The world itself knows nothing
+of LiveData, sound, or logging, so anything that should happen outside of it in response to scoring,
+timing, or discrete game events is reported through here.  All callbacks are made on whichever
+thread steps the world, in the order the events occur within a step.
+*/
+public interface WorldListener {
+    // Score, rounds, or centipede speed changed during a step.
+    void onScoreChanged( int score );
+    void onRoundsChanged( int rounds );
+    void onCentipedeSpeedChanged( float centipedeSpeed );
+
+    // Elapsed and remaining time changed during a step.
+    void onTimeChanged( long elapsedTimeMillis, long remainingTimeMillis );
+
+    // Touches during a step killed some centipede segments or missed them all.
+    void onHit( int segmentsKilled );
+    void onMiss();
+
+    // Touches during a step killed a power up of the given kind.
+    void onPowerUp( PowerUp.Kind kind );
+
+    // The lawn was cleared and a new round started, or the clock ran out.
+    void onNewRound();
+    void onGameOver();
+}
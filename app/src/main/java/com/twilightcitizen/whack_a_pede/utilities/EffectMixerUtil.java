@@ -0,0 +1,252 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.utilities;
+
+import android.util.Log;
+
+/*
+EffectMixerUtil provides static utility methods for deciding which sound effects play, and how
+loud, when more are asked for than there are voices to play them.  Effects asked for are held until
+the end of the step of the world that asked for them, and those asked for more than once are then
+played once, louder for each time, so five segments killed in one step make one louder hit rather
+than five hits crowding one another out.  Effects then take voices in order of their priority, each
+playing again on its own voice if still playing, or on a free voice, or stealing a voice from one
+playing as its rule for stealing allows, or not playing at all.  Whatever actually makes the sound
+is given as an output, which can be changed from any thread, but everything else must be called on
+the thread that loops the game.
+*/
+public class EffectMixerUtil {
+    // Sound effects the game plays, each with the priority and rule for stealing it starts with.
+    public enum Effect {
+        miss( 0, Stealing.never ),
+        hit( 1, Stealing.lower ),
+        powerUp( 2, Stealing.lower ),
+        newRound( 3, Stealing.lowerOrEqual ),
+        gameOver( 4, Stealing.lowerOrEqual );
+
+        private final int defaultPriority;
+        private final Stealing defaultStealing;
+
+        Effect( int defaultPriority, Stealing defaultStealing ) {
+            this.defaultPriority = defaultPriority;
+            this.defaultStealing = defaultStealing;
+        }
+    }
+
+    /*
+    Rules for stealing a voice when none are free, from the playing effect of lowest priority, and
+    of those, the one started first.  Effects may steal never, only from effects of lower priority,
+    or also from effects of equal priority.
+    */
+    public enum Stealing { never, lower, lowerOrEqual }
+
+    // Whatever actually plays the sound effects, as a SoundPool or AudioTrack.
+    public interface Output {
+        // Play an effect at a volume, returning a handle for stopping it, or 0 if it did not play.
+        int play( Effect effect, int priority, float volume );
+
+        // Stop an effect by the handle it played with.
+        void stop( int handle );
+
+        // Nanoseconds an effect plays for, for telling when its voice is free again.
+        long getDurationNanos( Effect effect );
+    }
+
+    // Tag for filtering any debug message logged.
+    private static final String TAG = "EffectMixerUtil";
+
+    // Effects, fetched once to avoid copying them at every step.
+    private static final Effect[] EFFECTS = Effect.values();
+
+    // Volume gained each time the times an effect is asked for in one step doubles, up to a point.
+    private static final float GAIN_PER_DOUBLING = 0.25f;
+    private static final int MAX_DOUBLINGS = 3;
+
+    /*
+    Share of the volume an effect asked for once plays at, leaving headroom for the most it can
+    gain, so effects asked for many times still play louder than those asked for once, even at
+    full volume, without ever going beyond it.
+    */
+    private static final float BASE_GAIN = 1.0f / ( 1.0f + GAIN_PER_DOUBLING * MAX_DOUBLINGS );
+
+    // Output changed to from another thread, but not yet by the thread that loops the game.
+    private static volatile Output pendingOutput;
+
+    // Output playing effects, and voices for playing them on.
+    private static Output output;
+
+    // Effect on each voice, the handle it played with, and when it started and will end.
+    private static Effect[] voiceEffects = new Effect[ 0 ];
+    private static int[] voiceHandles = new int[ 0 ];
+    private static long[] voiceStartNanos = new long[ 0 ];
+    private static long[] voiceEndNanos = new long[ 0 ];
+
+    // Priority and rule for stealing of each effect, and the times each is asked for this step.
+    private static final int[] priorities = new int[ EFFECTS.length ];
+    private static final Stealing[] stealings = new Stealing[ EFFECTS.length ];
+    private static final int[] requestCounts = new int[ EFFECTS.length ];
+
+    // Every effect starts with its own priority and rule for stealing.
+    static {
+        for( Effect effect : EFFECTS ) {
+            priorities[ effect.ordinal() ] = effect.defaultPriority;
+            stealings[ effect.ordinal() ] = effect.defaultStealing;
+        }
+    }
+
+    /*
+    Set the count of voices effects can play on at once, forgetting any playing.  This must be
+    called before any effects are asked for.
+    */
+    public static void setVoiceCount( int voiceCount ) {
+        voiceEffects = new Effect[ voiceCount ];
+        voiceHandles = new int[ voiceCount ];
+        voiceStartNanos = new long[ voiceCount ];
+        voiceEndNanos = new long[ voiceCount ];
+    }
+
+    /*
+    Set the output to play effects with from the next step on, from any thread, as when a faster
+    output becomes ready.  Effects still playing on the output before are left to finish.
+    */
+    public static void setOutput( Output output ) { pendingOutput = output; }
+
+    // Set the priority and rule for stealing of an effect.
+    public static void setRule( Effect effect, int priority, Stealing stealing ) {
+        priorities[ effect.ordinal() ] = priority;
+        stealings[ effect.ordinal() ] = stealing;
+    }
+
+    // Ask for an effect to play some times over at the end of this step.
+    public static void request( Effect effect, int count ) {
+        requestCounts[ effect.ordinal() ] += count;
+    }
+
+    /*
+    Play the effects asked for this step at a volume, from the highest priority to the lowest, as
+    many as there are voices for, each once.
+    */
+    public static void flush( float volume ) {
+        // Change to any output set since the last step, forgetting voices played on the one before.
+        Output pending = pendingOutput;
+
+        if( pending != null && pending != output ) {
+            output = pending;
+
+            for( int voice = 0; voice < voiceEffects.length; voice++ ) voiceEffects[ voice ] = null;
+        }
+
+        long nowNanos = System.nanoTime();
+        Effect effect;
+
+        while( ( effect = takeHighestPriorityRequest() ) != null ) {
+            int count = requestCounts[ effect.ordinal() ];
+
+            requestCounts[ effect.ordinal() ] = 0;
+
+            // Guard against effects asked for with no output to play them.
+            if( output == null ) continue;
+
+            play( effect, count, volume, nowNanos );
+        }
+    }
+
+    /*
+    Effect of highest priority asked for this step and not yet played, or null if there is none,
+    taking the one declared first of any with equal priority.
+    */
+    private static Effect takeHighestPriorityRequest() {
+        Effect highest = null;
+
+        for( Effect effect : EFFECTS ) {
+            if( requestCounts[ effect.ordinal() ] <= 0 ) continue;
+
+            int priority = priorities[ effect.ordinal() ];
+
+            if( highest == null || priority > priorities[ highest.ordinal() ] ) highest = effect;
+        }
+
+        return highest;
+    }
+
+    // Play an effect asked for some times over on whatever voice it can get, if any.
+    private static void play( Effect effect, int count, float volume, long nowNanos ) {
+        int voice = findVoice( effect, nowNanos );
+
+        if( voice < 0 ) {
+            if( LoggerUtil.DEBUGGING ) Log.v( TAG, "Effect dropped: " + effect );
+
+            return;
+        }
+
+        // Stop whatever is still playing on the voice, whether the same effect or one stolen from.
+        if( voiceEffects[ voice ] != null && nowNanos < voiceEndNanos[ voice ] )
+            output.stop( voiceHandles[ voice ] );
+
+        // Gain volume for every doubling of the times asked for, into the headroom left for it.
+        float doublings = Math.min(
+            MAX_DOUBLINGS, (float) ( Math.log( count ) / Math.log( 2.0 ) )
+        );
+
+        float gain = BASE_GAIN * ( 1.0f + GAIN_PER_DOUBLING * doublings );
+        int handle = output.play( effect, priorities[ effect.ordinal() ], volume * gain );
+
+        voiceEffects[ voice ] = handle == 0 ? null : effect;
+        voiceHandles[ voice ] = handle;
+        voiceStartNanos[ voice ] = nowNanos;
+        voiceEndNanos[ voice ] = nowNanos + output.getDurationNanos( effect );
+    }
+
+    /*
+    Voice to play an effect on, being the one it is still playing on, a free one, or one it may
+    steal, in that order, or -1 if there is none.
+    */
+    private static int findVoice( Effect effect, long nowNanos ) {
+        int free = -1;
+        int stolen = -1;
+
+        for( int voice = 0; voice < voiceEffects.length; voice++ ) {
+            Effect playing = voiceEffects[ voice ];
+            boolean isPlaying = playing != null && nowNanos < voiceEndNanos[ voice ];
+
+            // Play an effect again on the voice it is still playing on.
+            if( isPlaying && playing == effect ) return voice;
+
+            if( !isPlaying ) { if( free < 0 ) free = voice; continue; }
+
+            if( !maySteal( effect, playing ) ) continue;
+
+            // Steal from the effect of lowest priority, and of those, the one started first.
+            if( stolen < 0 || isStolenBefore( voice, stolen ) ) stolen = voice;
+        }
+
+        return free >= 0 ? free : stolen;
+    }
+
+    // Whether an effect may steal a voice from one playing, by its rule for stealing.
+    private static boolean maySteal( Effect effect, Effect playing ) {
+        int priority = priorities[ effect.ordinal() ];
+        int playingPriority = priorities[ playing.ordinal() ];
+
+        switch( stealings[ effect.ordinal() ] ) {
+            case lower: return playingPriority < priority;
+            case lowerOrEqual: return playingPriority <= priority;
+            default: return false;
+        }
+    }
+
+    // Whether one voice should be stolen from before another.
+    private static boolean isStolenBefore( int voice, int other ) {
+        int priority = priorities[ voiceEffects[ voice ].ordinal() ];
+        int otherPriority = priorities[ voiceEffects[ other ].ordinal() ];
+
+        if( priority != otherPriority ) return priority < otherPriority;
+
+        return voiceStartNanos[ voice ] < voiceStartNanos[ other ];
+    }
+}
@@ -0,0 +1,320 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.utilities;
+
+import android.opengl.EGL14;
+import android.util.Log;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static android.opengl.GLES20.*;
+
+/*
+GLResourceUtil provides static utility methods for sharing textures, programs, and buffers on the
+graphics hardware by name, counting references to each and deleting it once none are left.  Every
+one is registered with the data it was created from, which is kept so it can be created again
+without reading, decoding, or building that data again.  That happens whenever the OpenGL context
+is lost, as on some devices when the SurfaceView pauses, or when a new context is created that does
+not share them with the one before.  Data for resources no longer referenced is kept too, but only
+up to a budget, beyond which that used least recently is forgotten.  Resources belong to the OpenGL
+context, or those sharing them, so these must be called on the thread with it, as in
+onSurfaceCreated.
+*/
+public class GLResourceUtil {
+    // Kinds of resources on the graphics hardware, each deleted its own way.
+    public enum Kind { texture, program, buffer }
+
+    // Data a resource is created from on the graphics hardware, and can be created from again.
+    public interface Source {
+        // Create the resource in the current OpenGL context, returning its handle, or 0 on failure.
+        int create();
+
+        // Bytes the resource takes on the graphics hardware, as near as can be told, and here.
+        int getByteCount( int handle );
+        int getCachedByteCount();
+    }
+
+    // Resource registered by name, with its data, handle, if created, and references to it.
+    private static class Entry {
+        private final Kind kind;
+        private final Source source;
+        private int handle;
+        private int byteCount;
+        private int references;
+
+        private Entry( Kind kind, Source source ) {
+            this.kind = kind;
+            this.source = source;
+        }
+    }
+
+    // Tag for filtering any debug message logged.
+    private static final String TAG = "GLResourceUtil";
+
+    // Bytes of data kept for resources no longer referenced before the least recently used go.
+    private static final int MAX_UNREFERENCED_CACHED_BYTES = 8 * 1024 * 1024;
+
+    // Resources registered by name, in order of use from least to most recent.
+    private static final Map< String, Entry > entries = new LinkedHashMap<>( 16, 0.75f, true );
+
+    /*
+    Native handle of the OpenGL context resources were last created or found in, and a buffer
+    created along with them that nothing else ever deletes, marking whether a context has them.
+    */
+    private static long context;
+    private static int sentinel;
+
+    /*
+    Check if the resources created before are there in a new OpenGL context, as where it shares
+    them with the context before, before creating any in it.  The same context has them, and any
+    other has them only if it has the sentinel buffer, which is never deleted apart from them, so
+    no one resource deleted or kept by mistake decides for the rest.  If they are not, every
+    resource is marked to be created again from its data when next acquired, and references to
+    them dropped, since nothing could still be holding on to them.  Returns whether the resources
+    were lost, or there were none to begin with.
+    */
+    public static boolean onContextCreated() {
+        long current = EGL14.eglGetCurrentContext().getNativeHandle();
+        boolean isLost = current != context && ( sentinel == 0 || !glIsBuffer( sentinel ) );
+
+        context = current;
+
+        if( LoggerUtil.DEBUGGING ) Log.d(
+            TAG, ( isLost ? "Context lost, " : "Context shared, " ) + entries.size() + " registered"
+        );
+
+        if( !isLost ) {
+            checkResident();
+
+            return false;
+        }
+
+        forgetResources();
+        sentinel = createSentinel();
+
+        return true;
+    }
+
+    /*
+    Forget every resource on the graphics hardware, and the sentinel, once every context sharing
+    them is destroyed, as when the activity drawing with them is.  Data is kept within the budget
+    for creating them again, as for the next activity.
+    */
+    public static void onContextsDestroyed() {
+        context = 0L;
+        sentinel = 0;
+        forgetResources();
+    }
+
+    /*
+    Acquire a reference to a resource registered by name, registering it with some data if it is
+    not, and creating it from its data if it is not on the graphics hardware already.  Data given
+    for a name already registered is ignored in favor of the data registered.  Returns its handle,
+    or 0 if it could not be created.
+    */
+    public static int acquire( String name, Kind kind, Source source ) {
+        Entry entry = entries.get( name );
+
+        if( entry == null ) {
+            entry = new Entry( kind, source );
+            entries.put( name, entry );
+        }
+
+        if( entry.handle == 0 ) {
+            entry.handle = entry.source.create();
+
+            // Guard against resources that could not be created.
+            if( entry.handle == 0 ) return 0;
+
+            entry.byteCount = entry.source.getByteCount( entry.handle );
+        }
+
+        entry.references++;
+
+        return entry.handle;
+    }
+
+    // Data registered for a resource by name, if any, to check for or acquire it by.
+    public static Source getSource( String name ) {
+        Entry entry = entries.get( name );
+
+        return entry == null ? null : entry.source;
+    }
+
+    /*
+    Release a reference to a resource by name, deleting it from the graphics hardware once there
+    are none left, but keeping its data for creating it again, within the budget.
+    */
+    public static void release( String name ) {
+        Entry entry = entries.get( name );
+
+        // Guard against releasing resources not referenced.
+        if( entry == null || entry.references == 0 ) return;
+
+        if( --entry.references > 0 ) return;
+
+        delete( entry );
+        trim();
+    }
+
+    // Count and bytes of resources of a kind on the graphics hardware, for checking residency.
+    public static int getResidentCount( Kind kind ) {
+        int count = 0;
+
+        for( Entry entry : entries.values() ) if( entry.kind == kind && entry.handle != 0 ) count++;
+
+        return count;
+    }
+
+    public static long getResidentByteCount( Kind kind ) {
+        long byteCount = 0L;
+
+        for( Entry entry : entries.values() )
+            if( entry.kind == kind && entry.handle != 0 ) byteCount += entry.byteCount;
+
+        return byteCount;
+    }
+
+    // Bytes of data kept for creating resources again, whether on the graphics hardware or not.
+    public static long getCachedByteCount() {
+        long byteCount = 0L;
+
+        for( Entry entry : entries.values() ) byteCount += entry.source.getCachedByteCount();
+
+        return byteCount;
+    }
+
+    /*
+    Check that every reference acquired was released, as once whatever acquired them is done,
+    logging any resource still referenced when debugging.  Returns whether all were released.
+    */
+    public static boolean checkReleased() {
+        boolean isReleased = true;
+
+        for( Map.Entry< String, Entry > named : entries.entrySet() ) {
+            int references = named.getValue().references;
+
+            if( references == 0 ) continue;
+
+            isReleased = false;
+
+            if( LoggerUtil.DEBUGGING )
+                Log.w( TAG, "Not released: " + named.getKey() + ", " + references + " references" );
+        }
+
+        return isReleased;
+    }
+
+    // Log the count and bytes of resources of every kind on the graphics hardware when debugging.
+    public static void logResidency() {
+        if( !LoggerUtil.DEBUGGING ) return;
+
+        for( Kind kind : Kind.values() ) Log.d(
+            TAG, kind + ": " + getResidentCount( kind ) + " resident, " +
+            getResidentByteCount( kind ) + " bytes"
+        );
+
+        Log.d(
+            TAG, "cached: " + entries.size() + " registered, " + getCachedByteCount() + " bytes"
+        );
+    }
+
+    // Delete a resource from the graphics hardware, if it is there, the right way for its kind.
+    private static void delete( Entry entry ) {
+        if( entry.handle == 0 ) return;
+
+        switch( entry.kind ) {
+            case texture: GLStateUtil.deleteTexture( entry.handle ); break;
+            case program: GLStateUtil.deleteProgram( entry.handle ); break;
+            case buffer: glDeleteBuffers( 1, new int[] { entry.handle }, 0 ); break;
+        }
+
+        entry.handle = 0;
+        entry.byteCount = 0;
+    }
+
+    // Mark every resource to be created again when next acquired, dropping every reference to it.
+    private static void forgetResources() {
+        for( Entry entry : entries.values() ) {
+            entry.handle = 0;
+            entry.byteCount = 0;
+            entry.references = 0;
+        }
+
+        trim();
+    }
+
+    // Forget the data of the least recently used resources not referenced while over the budget.
+    private static void trim() {
+        long byteCount = 0L;
+
+        for( Entry entry : entries.values() )
+            if( entry.references == 0 ) byteCount += entry.source.getCachedByteCount();
+
+        Iterator< Entry > iterator = entries.values().iterator();
+
+        while( byteCount > MAX_UNREFERENCED_CACHED_BYTES && iterator.hasNext() ) {
+            Entry entry = iterator.next();
+
+            if( entry.references > 0 ) continue;
+
+            byteCount -= entry.source.getCachedByteCount();
+            delete( entry );
+            iterator.remove();
+        }
+    }
+
+    /*
+    Create a buffer for marking the contexts sharing resources.  Names are only reserved by
+    glGenBuffers, so it is bound once to make the buffer itself.  Returns 0 on failure, and then
+    every new context is taken to have lost its resources.
+    */
+    private static int createSentinel() {
+        final int[] buffers = new int[ 1 ];
+
+        glGenBuffers( 1, buffers, 0 );
+
+        if( buffers[ 0 ] == 0 ) return 0;
+
+        glBindBuffer( GL_ARRAY_BUFFER, buffers[ 0 ] );
+        glBindBuffer( GL_ARRAY_BUFFER, 0 );
+
+        return buffers[ 0 ];
+    }
+
+    /*
+    Check that every resource created is still there in a context found to share them, logging
+    any that are not when debugging.  These are created again when next acquired, though anything
+    holding on to them holds on to what is gone.
+    */
+    private static void checkResident() {
+        for( Map.Entry< String, Entry > named : entries.entrySet() ) {
+            Entry entry = named.getValue();
+
+            if( entry.handle == 0 || isResident( entry ) ) continue;
+
+            if( LoggerUtil.DEBUGGING )
+                Log.w( TAG, "Missing from shared context: " + named.getKey() );
+
+            entry.handle = 0;
+            entry.byteCount = 0;
+        }
+    }
+
+    // Check that a resource created is still there in the current context.
+    private static boolean isResident( Entry entry ) {
+        switch( entry.kind ) {
+            case texture: return glIsTexture( entry.handle );
+            case program: return glIsProgram( entry.handle );
+            case buffer: return glIsBuffer( entry.handle );
+            default: return false;
+        }
+    }
+}
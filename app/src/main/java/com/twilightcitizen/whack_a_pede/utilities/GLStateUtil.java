@@ -0,0 +1,185 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.utilities;
+
+import static android.opengl.GLES20.*;
+
+/*
+GLStateUtil provides static utility methods that change OpenGL state only when it would actually
+change, remembering the program in use, the active texture unit, the texture bound to each unit, the
+vertex attribute arrays enabled, and whether blending is on.  OpenGL does not skip calls that set
+state to what it already is, and each one still costs a trip through the driver, so skipping them
+here saves that trip.  Counts of calls issued to OpenGL and calls skipped are kept for every frame,
+for checking how well this works.  State belongs to the OpenGL context, so everything remembered
+must be forgotten whenever a new context is created, as in onSurfaceCreated, and anything that
+changes this state must do so through here for what is remembered to stay true.
+*/
+public class GLStateUtil {
+    // Marker for state that is not known, because it was forgotten or never set.
+    private static final int UNKNOWN = -1;
+
+    // Texture units and vertex attributes remembered, which cover all the application uses.
+    private static final int MAX_TEXTURE_UNITS = 8;
+    private static final int MAX_VERTEX_ATTRIBUTES = 16;
+
+    // Program in use, active texture unit, and texture bound to the 2D target of each unit.
+    private static int program = UNKNOWN;
+    private static int activeTextureUnit = UNKNOWN;
+    private static final int[] boundTextures = new int[ MAX_TEXTURE_UNITS ];
+
+    // Vertex attribute arrays enabled, and whether each is known, and whether blending is on.
+    private static final boolean[] enabledAttributes = new boolean[ MAX_VERTEX_ATTRIBUTES ];
+    private static final boolean[] knownAttributes = new boolean[ MAX_VERTEX_ATTRIBUTES ];
+    private static int blending = UNKNOWN;
+
+    // Calls issued and skipped so far this frame, and in the last complete frame.
+    private static int issuedCalls;
+    private static int elidedCalls;
+    private static int issuedCallsLastFrame;
+    private static int elidedCallsLastFrame;
+
+    // Nothing is known before the first OpenGL context is created.
+    static { invalidate(); }
+
+    // Forget everything remembered, as when a new OpenGL context is created.
+    public static void invalidate() {
+        program = UNKNOWN;
+        activeTextureUnit = UNKNOWN;
+        blending = UNKNOWN;
+
+        for( int unit = 0; unit < MAX_TEXTURE_UNITS; unit++ ) boundTextures[ unit ] = UNKNOWN;
+
+        for( int location = 0; location < MAX_VERTEX_ATTRIBUTES; location++ )
+            knownAttributes[ location ] = false;
+    }
+
+    // Start counting calls for a new frame, keeping the counts for the frame before.
+    public static void startFrame() {
+        issuedCallsLastFrame = issuedCalls;
+        elidedCallsLastFrame = elidedCalls;
+        issuedCalls = 0;
+        elidedCalls = 0;
+    }
+
+    // Expose the counts of calls issued and skipped in the last complete frame for read access.
+    public static int getIssuedCallsLastFrame() { return issuedCallsLastFrame; }
+    public static int getElidedCallsLastFrame() { return elidedCallsLastFrame; }
+
+    // Use a program unless it is already in use.
+    public static void useProgram( int program ) {
+        if( GLStateUtil.program == program ) { elidedCalls++; return; }
+
+        glUseProgram( program );
+        GLStateUtil.program = program;
+        issuedCalls++;
+    }
+
+    /*
+    Delete a program and forget it was in use, since a new program might reuse its handle later
+    and would otherwise never be used in its place.
+    */
+    public static void deleteProgram( int program ) {
+        glDeleteProgram( program );
+        issuedCalls++;
+
+        if( GLStateUtil.program == program ) GLStateUtil.program = UNKNOWN;
+    }
+
+    // Make a texture unit, as GL_TEXTURE0 and on, active unless it already is.
+    public static void activeTexture( int textureUnit ) {
+        if( activeTextureUnit == textureUnit ) { elidedCalls++; return; }
+
+        glActiveTexture( textureUnit );
+        activeTextureUnit = textureUnit;
+        issuedCalls++;
+    }
+
+    // Bind a texture to the 2D target of the active texture unit unless it is already bound there.
+    public static void bindTexture2D( int texture ) {
+        int unit = activeTextureUnit == UNKNOWN ? UNKNOWN : activeTextureUnit - GL_TEXTURE0;
+        boolean isRemembered = unit >= 0 && unit < MAX_TEXTURE_UNITS;
+
+        if( isRemembered && boundTextures[ unit ] == texture ) { elidedCalls++; return; }
+
+        glBindTexture( GL_TEXTURE_2D, texture );
+        issuedCalls++;
+
+        // Forget every unit's texture when the unit is not known, since any of them might be it.
+        if( isRemembered ) { boundTextures[ unit ] = texture; return; }
+
+        for( int other = 0; other < MAX_TEXTURE_UNITS; other++ ) boundTextures[ other ] = UNKNOWN;
+    }
+
+    /*
+    Delete a texture and forget it was bound anywhere, since OpenGL binds 0 in its place and a new
+    texture might reuse its handle later.
+    */
+    public static void deleteTexture( int texture ) {
+        glDeleteTextures( 1, new int[] { texture }, 0 );
+        issuedCalls++;
+
+        for( int unit = 0; unit < MAX_TEXTURE_UNITS; unit++ )
+            if( boundTextures[ unit ] == texture ) boundTextures[ unit ] = 0;
+    }
+
+    // Enable a vertex attribute array unless it is already enabled or the location is missing.
+    public static void enableVertexAttribArray( int location ) {
+        // Guard against attributes a program does not have, which OpenGL reports at -1.
+        if( location < 0 ) return;
+
+        boolean isRemembered = location < MAX_VERTEX_ATTRIBUTES;
+
+        if( isRemembered && knownAttributes[ location ] && enabledAttributes[ location ] ) {
+            elidedCalls++;
+
+            return;
+        }
+
+        glEnableVertexAttribArray( location );
+        issuedCalls++;
+
+        if( ! isRemembered ) return;
+
+        enabledAttributes[ location ] = true;
+        knownAttributes[ location ] = true;
+    }
+
+    // Disable a vertex attribute array unless it is already disabled or the location is missing.
+    public static void disableVertexAttribArray( int location ) {
+        // Guard against attributes a program does not have, which OpenGL reports at -1.
+        if( location < 0 ) return;
+
+        boolean isRemembered = location < MAX_VERTEX_ATTRIBUTES;
+
+        if( isRemembered && knownAttributes[ location ] && ! enabledAttributes[ location ] ) {
+            elidedCalls++;
+
+            return;
+        }
+
+        glDisableVertexAttribArray( location );
+        issuedCalls++;
+
+        if( ! isRemembered ) return;
+
+        enabledAttributes[ location ] = false;
+        knownAttributes[ location ] = true;
+    }
+
+    // Turn blending on or off unless it already is.
+    public static void setBlending( boolean isBlending ) {
+        int blending = isBlending ? 1 : 0;
+
+        if( GLStateUtil.blending == blending ) { elidedCalls++; return; }
+
+        if( isBlending ) glEnable( GL_BLEND ); else glDisable( GL_BLEND );
+
+        GLStateUtil.blending = blending;
+        issuedCalls++;
+    }
+}
@@ -0,0 +1,202 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.utilities;
+
+import android.opengl.GLSurfaceView;
+import android.util.Log;
+
+import javax.microedition.khronos.egl.EGL10;
+import javax.microedition.khronos.egl.EGLConfig;
+import javax.microedition.khronos.egl.EGLContext;
+import javax.microedition.khronos.egl.EGLDisplay;
+import javax.microedition.khronos.egl.EGLSurface;
+
+import static android.opengl.GLES20.*;
+
+/*
+GLVersionUtil provides a context factory that asks for the newest OpenGL ES version the application
+can use, falling back to older ones where the device does not go that far, and a probe for which
+version the current context actually turned out to be.  Drawing code can then take advantage of
+newer features where they are available without leaving older devices behind.
+*/
+public class GLVersionUtil {
+    // Tag for filtering any debug message logged.
+    private static final String TAG = "GLVersionUtil";
+
+    // Attribute for the client version of a context, missing from EGL10.
+    private static final int EGL_CONTEXT_CLIENT_VERSION = 0x3098;
+
+    // Newest and oldest OpenGL ES versions the application can draw with.
+    private static final int NEWEST_VERSION = 3;
+    private static final int OLDEST_VERSION = 2;
+
+    /*
+    ContextFactory creates OpenGL ES 3.0 contexts for a GLSurfaceView wherever the device allows,
+    and OpenGL ES 2.0 contexts otherwise.  Newer versions draw everything older ones do, so shader
+    programs written for OpenGL ES 2.0 work in either.  Every context shares textures, programs,
+    and buffers with one more the factory keeps until released, so these outlive the contexts of
+    the GLSurfaceView, which are destroyed whenever it is detached from the window.  Android counts
+    references to a display, so the factory holds one of its own to keep it, and the context, from
+    being terminated along with the GLSurfaceView's.  Contexts are created unshared where sharing
+    fails, as when the kept context is lost along with the graphics hardware's state.
+    */
+    public static class ContextFactory implements GLSurfaceView.EGLContextFactory {
+        // Context kept for sharing objects with, and the EGL, display, config, and version for it.
+        private EGL10 sharedEgl;
+        private EGLDisplay sharedDisplay;
+        private EGLConfig sharedConfig;
+        private EGLContext sharedContext;
+        private int sharedVersion;
+
+        // Create a context of the newest version the device allows.
+        @Override public EGLContext createContext(
+            EGL10 egl, EGLDisplay display, EGLConfig config
+        ) {
+            for( int version = NEWEST_VERSION; version > OLDEST_VERSION; version-- ) {
+                EGLContext context = createSharedContext( egl, display, config, version );
+
+                if( context != null && context != EGL10.EGL_NO_CONTEXT ) return context;
+
+                // Log falling back to an older version when debugging.
+                if( LoggerUtil.DEBUGGING )
+                    Log.v( TAG, "Could not create OpenGL ES " + version + ".0 context." );
+            }
+
+            return createSharedContext( egl, display, config, OLDEST_VERSION );
+        }
+
+        // Destroy a context created by the factory, leaving the objects it shared.
+        @Override public void destroyContext(
+            EGL10 egl, EGLDisplay display, EGLContext context
+        ) {
+            egl.eglDestroyContext( display, context );
+        }
+
+        /*
+        Run something with the context kept for sharing current on this thread, as for deleting
+        objects once no context of the GLSurfaceView is left to delete them in.  The context is
+        made current on a pixel of pbuffer, or on no surface at all where the configuration has no
+        pbuffers, and only while it runs.  Returns whether it ran, which it cannot if there is no
+        context kept or it cannot be made current, as when it is current on another thread.
+        */
+        public boolean runInSharedContext( Runnable runnable ) {
+            if( sharedContext == null ) return false;
+
+            final int[] attributes = { EGL10.EGL_WIDTH, 1, EGL10.EGL_HEIGHT, 1, EGL10.EGL_NONE };
+
+            EGLSurface surface =
+                sharedEgl.eglCreatePbufferSurface( sharedDisplay, sharedConfig, attributes );
+
+            if( surface == null ) surface = EGL10.EGL_NO_SURFACE;
+
+            try {
+                if( !sharedEgl.eglMakeCurrent( sharedDisplay, surface, surface, sharedContext ) ) {
+                    if( LoggerUtil.DEBUGGING )
+                        Log.w( TAG, "Could not make shared context current." );
+
+                    return false;
+                }
+
+                runnable.run();
+
+                return true;
+            } finally {
+                sharedEgl.eglMakeCurrent(
+                    sharedDisplay, EGL10.EGL_NO_SURFACE, EGL10.EGL_NO_SURFACE,
+                    EGL10.EGL_NO_CONTEXT
+                );
+
+                if( surface != EGL10.EGL_NO_SURFACE )
+                    sharedEgl.eglDestroySurface( sharedDisplay, surface );
+            }
+        }
+
+        /*
+        Destroy the context kept for sharing, and with it every object no other context shares,
+        and release the display held for it, as when the activity drawing with them is destroyed.
+        */
+        public void release() {
+            if( sharedContext == null ) return;
+
+            sharedEgl.eglDestroyContext( sharedDisplay, sharedContext );
+            sharedEgl.eglTerminate( sharedDisplay );
+
+            sharedEgl = null;
+            sharedDisplay = null;
+            sharedConfig = null;
+            sharedContext = null;
+        }
+
+        /*
+        Create a context of some version sharing objects with the one kept, keeping the first one
+        created for that, or sharing nothing where sharing fails.
+        */
+        private EGLContext createSharedContext(
+            EGL10 egl, EGLDisplay display, EGLConfig config, int version
+        ) {
+            final int[] attributes = { EGL_CONTEXT_CLIENT_VERSION, version, EGL10.EGL_NONE };
+
+            // Forget a kept context for another display or version, which cannot be shared.
+            if(
+                sharedContext != null &&
+                ( !display.equals( sharedDisplay ) || version != sharedVersion )
+            )
+                release();
+
+            if( sharedContext == null ) {
+                EGLContext context =
+                    egl.eglCreateContext( display, config, EGL10.EGL_NO_CONTEXT, attributes );
+
+                // Guard against the device not allowing the version at all.
+                if( context == null || context == EGL10.EGL_NO_CONTEXT ) return context;
+
+                egl.eglInitialize( display, new int[ 2 ] );
+
+                sharedEgl = egl;
+                sharedDisplay = display;
+                sharedConfig = config;
+                sharedContext = context;
+                sharedVersion = version;
+            }
+
+            EGLContext context = egl.eglCreateContext( display, config, sharedContext, attributes );
+
+            if( context != null && context != EGL10.EGL_NO_CONTEXT ) return context;
+
+            // Share nothing, and start keeping a context again next time, where sharing fails.
+            if( LoggerUtil.DEBUGGING ) Log.w( TAG, "Could not share OpenGL ES context." );
+
+            release();
+
+            return egl.eglCreateContext( display, config, EGL10.EGL_NO_CONTEXT, attributes );
+        }
+    }
+
+    /*
+    Get the major OpenGL ES version of the current context, as in onSurfaceCreated.  Versions are
+    reported as "OpenGL ES N.M" followed by whatever the vendor likes, so anything else is assumed
+    to be the oldest version the application can use.
+    */
+    public static int getMajorVersion() {
+        String version = glGetString( GL_VERSION );
+        String prefix = "OpenGL ES ";
+
+        // Guard against versions not reported as expected.
+        if(
+            version == null || ! version.startsWith( prefix ) ||
+            version.length() == prefix.length() ||
+            ! Character.isDigit( version.charAt( prefix.length() ) )
+        )
+            return OLDEST_VERSION;
+
+        return Character.digit( version.charAt( prefix.length() ), 10 );
+    }
+
+    // Check if the current context can draw with OpenGL ES 3.0 features.
+    public static boolean isES3() { return getMajorVersion() >= 3; }
+}
@@ -0,0 +1,223 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.utilities;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+import static android.opengl.GLES30.*;
+
+/*
+ProgramBinaryUtil provides static utility methods for keeping the binaries of linked shader programs
+in app-private storage and loading programs from them later, rather than compiling and linking their
+sources again every time the application starts.  Binaries only work for the graphics driver that
+made them, so each is filed under a hash of its sources along with the vendor, renderer, and version
+the driver reports, and any that fail to load anyway are deleted, leaving the caller to compile and
+link the program as it would without them.  They are kept in the code cache, which Android clears
+whenever the application or the system is updated.  OpenGL ES 3.0 can get and load binaries, but
+Android offers no way to call the OpenGL ES 2.0 extension for it, so programs are always compiled
+under OpenGL ES 2.0.  These must be called on the thread with the OpenGL context.
+*/
+public class ProgramBinaryUtil {
+    // Tag for filtering any debug message logged.
+    private static final String TAG = "ProgramBinaryUtil";
+
+    // Directory in the code cache the binaries are kept in, and the extension of each.
+    private static final String DIRECTORY_NAME = "programs";
+    private static final String EXTENSION = ".bin";
+
+    // Directory in app-private storage where binaries are kept for some context.
+    public static File getDirectory( Context context ) {
+        return new File( context.getCodeCacheDir(), DIRECTORY_NAME );
+    }
+
+    /*
+    File in some directory for the binary of a program built from some sources by the driver of the
+    current context, or null if the context cannot load binaries at all.
+    */
+    public static File getBinaryFile( File directory, String vertexSource, String fragmentSource ) {
+        // Guard against contexts without binaries, or that have no formats to get them in.
+        if( !GLVersionUtil.isES3() ) return null;
+
+        final int[] formatCount = new int[ 1 ];
+
+        glGetIntegerv( GL_NUM_PROGRAM_BINARY_FORMATS, formatCount, 0 );
+
+        if( formatCount[ 0 ] == 0 ) return null;
+
+        // Sources and driver strings are hashed apart from one another, any missing as "null".
+        final String[] parts = {
+            vertexSource, fragmentSource,
+            glGetString( GL_VENDOR ), glGetString( GL_RENDERER ), glGetString( GL_VERSION )
+        };
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance( "SHA-256" );
+
+            for( String part : parts ) {
+                digest.update( String.valueOf( part ).getBytes( StandardCharsets.UTF_8 ) );
+                digest.update( (byte) 0 );
+            }
+
+            StringBuilder name = new StringBuilder();
+
+            for( byte value : digest.digest() )
+                name.append( String.format( Locale.US, "%02x", value ) );
+
+            return new File( directory, name + EXTENSION );
+        } catch( NoSuchAlgorithmException e ) {
+            // Do without binaries on the rare device without the hash.
+            if( LoggerUtil.DEBUGGING ) Log.w( TAG, "Could not hash program sources." );
+
+            return null;
+        }
+    }
+
+    // Ask for a program's binary to be kept where it can be gotten, before it is linked.
+    public static void setRetrievable( int program ) {
+        if( GLVersionUtil.isES3() )
+            glProgramParameteri( program, GL_PROGRAM_BINARY_RETRIEVABLE_HINT, GL_TRUE );
+    }
+
+    /*
+    Load a program from the binary in a file, returning it, or 0 if there is no binary or it could
+    not be loaded, as when the driver has changed, deleting it then.
+    */
+    public static int loadProgram( File file ) {
+        // Guard against contexts without binaries, and binaries never kept.
+        if( file == null || !file.isFile() ) return 0;
+
+        final int format;
+        final ByteBuffer binary;
+
+        try( DataInputStream input = new DataInputStream( new FileInputStream( file ) ) ) {
+            format = input.readInt();
+
+            final int length = input.readInt();
+
+            // Guard against binaries claiming more bytes than the file holds.
+            if( length <= 0 || length > file.length() ) throw new IOException( "Binary Truncated" );
+
+            byte[] bytes = new byte[ length ];
+
+            input.readFully( bytes );
+
+            binary = ByteBuffer
+                .allocateDirect( bytes.length )
+                .order( ByteOrder.nativeOrder() )
+                .put( bytes );
+
+            binary.position( 0 );
+        } catch( IOException e ) {
+            if( LoggerUtil.DEBUGGING ) Log.w( TAG, "Could not read program binary." );
+
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+
+            return 0;
+        }
+
+        final int program = glCreateProgram();
+
+        // Guard against OpenGL failing to create the program.
+        if( program == 0 ) return 0;
+
+        glProgramBinary( program, format, binary, binary.capacity() );
+
+        // Hold the status of loading the binary, which is reported as if it was linked.
+        final int[] linkStatus = new int[ 1 ];
+
+        glGetProgramiv( program, GL_LINK_STATUS, linkStatus, 0 );
+
+        if( LoggerUtil.DEBUGGING ) Log.v(
+            TAG, "Program binary " + ( linkStatus[ 0 ] == 0 ? "rejected: " : "loaded: " ) +
+            file.getName()
+        );
+
+        // Delete the program and the binary where the driver would not load it.
+        if( linkStatus[ 0 ] == 0 ) {
+            GLStateUtil.deleteProgram( program );
+
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+
+            return 0;
+        }
+
+        return program;
+    }
+
+    /*
+    Keep the binary of a linked program in a file, for loading it from later.  The binary is
+    written to a temporary file and renamed, so no partly written binary is ever loaded.
+    */
+    public static void saveProgram( File file, int program ) {
+        // Guard against contexts without binaries, and programs that did not link.
+        if( file == null || program == 0 ) return;
+
+        final int[] length = new int[ 1 ];
+        final int[] format = new int[ 1 ];
+
+        glGetProgramiv( program, GL_PROGRAM_BINARY_LENGTH, length, 0 );
+
+        // Guard against drivers that would not make a binary of the program.
+        if( length[ 0 ] == 0 ) return;
+
+        ByteBuffer binary =
+            ByteBuffer.allocateDirect( length[ 0 ] ).order( ByteOrder.nativeOrder() );
+
+        glGetProgramBinary( program, length[ 0 ], length, 0, format, 0, binary );
+
+        byte[] bytes = new byte[ length[ 0 ] ];
+
+        binary.position( 0 );
+        binary.get( bytes );
+
+        File directory = file.getParentFile();
+        File temporary = new File( directory, file.getName() + ".tmp" );
+
+        //noinspection ResultOfMethodCallIgnored
+        directory.mkdirs();
+
+        try( DataOutputStream output = new DataOutputStream( new FileOutputStream( temporary ) ) ) {
+            output.writeInt( format[ 0 ] );
+            output.writeInt( bytes.length );
+            output.write( bytes );
+        } catch( IOException e ) {
+            if( LoggerUtil.DEBUGGING ) Log.w( TAG, "Could not write program binary." );
+
+            //noinspection ResultOfMethodCallIgnored
+            temporary.delete();
+
+            return;
+        }
+
+        // Replace any binary kept before with the one just written.
+        if( !temporary.renameTo( file ) ) {
+            //noinspection ResultOfMethodCallIgnored
+            temporary.delete();
+
+            return;
+        }
+
+        if( LoggerUtil.DEBUGGING ) Log.v( TAG, "Program binary saved: " + file.getName() );
+    }
+}
@@ -9,19 +9,39 @@ package com.twilightcitizen.whack_a_pede.utilities;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.content.res.AssetFileDescriptor;
 import android.media.AudioAttributes;
+import android.media.AudioFormat;
+import android.media.AudioTrack;
+import android.media.MediaCodec;
+import android.media.MediaExtractor;
+import android.media.MediaFormat;
 import android.media.MediaPlayer;
 import android.media.SoundPool;
+import android.os.Build;
+import android.util.Log;
 
 
 import androidx.preference.PreferenceManager;
 
 import com.twilightcitizen.whack_a_pede.R;
+import com.twilightcitizen.whack_a_pede.utilities.EffectMixerUtil.Effect;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /*
 Sound Utility sets up background music and sound effects with configured track and volume settings.
+Sound effects are played through EffectMixerUtil, which decides which play, and how loud, once the
+world finishes each step.  They play from a SoundPool, or where configured, from AudioTrack static
+buffers of PCM decoded ahead of time, which start sooner than SoundPool streams can.  Decoding takes
+a moment, so the SoundPool plays effects until the AudioTrack buffers are ready.
 */
 public class SoundUtil {
+    // Tag for filtering any debug message logged.
+    private static final String TAG = "SoundUtil";
+
     // Sound pool for sound effects.
     private static SoundPool effectsPool;
 
@@ -39,8 +59,11 @@ public class SoundUtil {
     private static float volumeEffects;
     private static float volumeMusic;
 
-    // Cap on number of simultaneous streams/sounds.
-    private static final int MAX_STREAMS = 2;
+    // Nanoseconds an effect is taken to play for when its length cannot be told.
+    private static final long DEFAULT_DURATION_NANOS = 1_000_000_000L;
+
+    // Microseconds to wait on the decoder for a buffer before checking again.
+    private static final long DECODER_TIMEOUT_MICROS = 10_000L;
 
     // Initialization flag.
     private static boolean isInitialized = false;
@@ -77,10 +100,15 @@ public class SoundUtil {
 
         attrBuilder.setUsage( AudioAttributes.USAGE_GAME );
 
+        // Give the mixer as many voices as configured, and the sound pool as many streams.
+        int voiceCount = context.getResources().getInteger( R.integer.effect_voices );
+
+        EffectMixerUtil.setVoiceCount( voiceCount );
+
         // Initialize Sound Pool to play sound effects.
         SoundPool.Builder builder = new SoundPool.Builder();
 
-        builder.setMaxStreams( MAX_STREAMS );
+        builder.setMaxStreams( voiceCount );
         builder.setAudioAttributes( attrBuilder.build() );
 
         effectsPool = builder.build();
@@ -91,6 +119,283 @@ public class SoundUtil {
         soundIdPowerUp = effectsPool.load( context, R.raw.power_up, 1 );
         soundIdNewRound = effectsPool.load( context, R.raw.new_round, 1 );
         soundIdGameOver = effectsPool.load( context, R.raw.game_over, 1 );
+
+        // Play sound effects from the sound pool, at least until any AudioTrack buffers are ready.
+        EffectMixerUtil.setOutput( new SoundPoolOutput( context ) );
+
+        if( context.getResources().getBoolean( R.bool.play_effects_with_audio_track ) )
+            new Thread( () -> setupAudioTracks( context ), "AudioTrackDecoder" ).start();
+    }
+
+    /*
+    Decode every sound effect to PCM in an AudioTrack static buffer, and play sound effects from
+    those once they are all ready, or keep playing them from the sound pool if any fail.
+    */
+    private static void setupAudioTracks( Context context ) {
+        AudioTrack[] tracks = new AudioTrack[ Effect.values().length ];
+        long[] durationsNanos = new long[ tracks.length ];
+
+        try {
+            for( Effect effect : Effect.values() ) {
+                tracks[ effect.ordinal() ] = createAudioTrack( context, getResourceId( effect ) );
+                durationsNanos[ effect.ordinal() ] = getDurationNanos( tracks[ effect.ordinal() ] );
+            }
+        } catch( IOException | RuntimeException e ) {
+            if( LoggerUtil.DEBUGGING ) Log.w( TAG, "Could not decode sound effects." );
+
+            for( AudioTrack track : tracks ) if( track != null ) track.release();
+
+            return;
+        }
+
+        EffectMixerUtil.setOutput( new AudioTrackOutput( tracks, durationsNanos ) );
+
+        if( LoggerUtil.DEBUGGING ) Log.d( TAG, "Sound effects playing from AudioTrack buffers." );
+    }
+
+    // Create an AudioTrack in static mode holding the PCM decoded from a sound effect.
+    private static AudioTrack createAudioTrack( Context context, int resourceId )
+        throws IOException {
+
+        MediaExtractor extractor = new MediaExtractor();
+        MediaCodec decoder = null;
+
+        try {
+            setDataSource( context, resourceId, extractor );
+
+            MediaFormat format = extractor.getTrackFormat( 0 );
+
+            extractor.selectTrack( 0 );
+
+            decoder = MediaCodec.createDecoderByType( format.getString( MediaFormat.KEY_MIME ) );
+            decoder.configure( format, null, null, 0 );
+            decoder.start();
+
+            // Decode the whole effect, which is 16-bit PCM unless asked for otherwise.
+            ByteArrayOutputStream pcm = new ByteArrayOutputStream();
+            MediaCodec.BufferInfo info = new MediaCodec.BufferInfo();
+            int sampleRate = format.getInteger( MediaFormat.KEY_SAMPLE_RATE );
+            int channelCount = format.getInteger( MediaFormat.KEY_CHANNEL_COUNT );
+            boolean isInputDone = false;
+            boolean isOutputDone = false;
+
+            while( !isOutputDone ) {
+                // Feed the decoder samples until there are none left.
+                int inputIndex =
+                    isInputDone ? -1 : decoder.dequeueInputBuffer( DECODER_TIMEOUT_MICROS );
+
+                if( inputIndex >= 0 ) {
+                    ByteBuffer input = decoder.getInputBuffer( inputIndex );
+                    int size = input == null ? -1 : extractor.readSampleData( input, 0 );
+
+                    if( size < 0 ) {
+                        decoder.queueInputBuffer(
+                            inputIndex, 0, 0, 0L, MediaCodec.BUFFER_FLAG_END_OF_STREAM
+                        );
+
+                        isInputDone = true;
+                    } else {
+                        decoder.queueInputBuffer(
+                            inputIndex, 0, size, extractor.getSampleTime(), 0
+                        );
+
+                        extractor.advance();
+                    }
+                }
+
+                // Collect whatever PCM the decoder has ready, and any change to its format.
+                int outputIndex = decoder.dequeueOutputBuffer( info, DECODER_TIMEOUT_MICROS );
+
+                if( outputIndex == MediaCodec.INFO_OUTPUT_FORMAT_CHANGED ) {
+                    MediaFormat outputFormat = decoder.getOutputFormat();
+
+                    sampleRate = outputFormat.getInteger( MediaFormat.KEY_SAMPLE_RATE );
+                    channelCount = outputFormat.getInteger( MediaFormat.KEY_CHANNEL_COUNT );
+                } else if( outputIndex >= 0 ) {
+                    ByteBuffer output = decoder.getOutputBuffer( outputIndex );
+                    byte[] bytes = new byte[ info.size ];
+
+                    if( output != null ) {
+                        output.position( info.offset );
+                        output.get( bytes );
+                        pcm.write( bytes, 0, bytes.length );
+                    }
+
+                    decoder.releaseOutputBuffer( outputIndex, false );
+
+                    isOutputDone = ( info.flags & MediaCodec.BUFFER_FLAG_END_OF_STREAM ) != 0;
+                }
+            }
+
+            return createAudioTrack( pcm.toByteArray(), sampleRate, channelCount );
+        } finally {
+            if( decoder != null ) {
+                decoder.stop();
+                decoder.release();
+            }
+
+            extractor.release();
+        }
+    }
+
+    // Create an AudioTrack in static mode for game audio, with as little latency as it allows.
+    private static AudioTrack createAudioTrack( byte[] pcm, int sampleRate, int channelCount ) {
+        // Guard against effects with nothing decoded, which static buffers cannot hold.
+        if( pcm.length == 0 ) throw new RuntimeException( "Sound Effect Empty" );
+
+        AudioTrack.Builder builder = new AudioTrack.Builder()
+            .setAudioAttributes(
+                new AudioAttributes.Builder().setUsage( AudioAttributes.USAGE_GAME ).build()
+            )
+            .setAudioFormat(
+                new AudioFormat.Builder()
+                    .setEncoding( AudioFormat.ENCODING_PCM_16BIT )
+                    .setSampleRate( sampleRate )
+                    .setChannelMask(
+                        channelCount == 1 ?
+                        AudioFormat.CHANNEL_OUT_MONO : AudioFormat.CHANNEL_OUT_STEREO
+                    )
+                    .build()
+            )
+            .setTransferMode( AudioTrack.MODE_STATIC )
+            .setBufferSizeInBytes( pcm.length );
+
+        if( Build.VERSION.SDK_INT >= Build.VERSION_CODES.O )
+            builder.setPerformanceMode( AudioTrack.PERFORMANCE_MODE_LOW_LATENCY );
+
+        AudioTrack track = builder.build();
+
+        if( track.write( pcm, 0, pcm.length ) < 0 ) {
+            track.release();
+
+            throw new RuntimeException( "Sound Effect Not Written" );
+        }
+
+        return track;
+    }
+
+    // Nanoseconds the PCM in an AudioTrack static buffer plays for.
+    private static long getDurationNanos( AudioTrack track ) {
+        return track.getBufferSizeInFrames() * 1_000_000_000L / track.getSampleRate();
+    }
+
+    /*
+    Nanoseconds a sound effect plays for, read from its container without decoding it, or a
+    default where it cannot be told.
+    */
+    private static long getDurationNanos( Context context, int resourceId ) {
+        MediaExtractor extractor = new MediaExtractor();
+
+        try {
+            setDataSource( context, resourceId, extractor );
+
+            MediaFormat format = extractor.getTrackFormat( 0 );
+
+            if( format.containsKey( MediaFormat.KEY_DURATION ) )
+                return format.getLong( MediaFormat.KEY_DURATION ) * 1_000L;
+        } catch( IOException | RuntimeException e ) {
+            if( LoggerUtil.DEBUGGING ) Log.w( TAG, "Could not read sound effect duration." );
+        } finally {
+            extractor.release();
+        }
+
+        return DEFAULT_DURATION_NANOS;
+    }
+
+    // Extract samples from a sound effect in the raw resources.
+    private static void setDataSource( Context context, int resourceId, MediaExtractor extractor )
+        throws IOException {
+
+        try( AssetFileDescriptor descriptor =
+            context.getResources().openRawResourceFd( resourceId ) ) {
+
+            extractor.setDataSource(
+                descriptor.getFileDescriptor(), descriptor.getStartOffset(), descriptor.getLength()
+            );
+        }
+    }
+
+    // Raw resource a sound effect is loaded from.
+    private static int getResourceId( Effect effect ) {
+        switch( effect ) {
+            case hit: return R.raw.hit;
+            case miss: return R.raw.miss;
+            case powerUp: return R.raw.power_up;
+            case newRound: return R.raw.new_round;
+            case gameOver: return R.raw.game_over;
+            default: throw new RuntimeException( "Unknown Sound Effect" );
+        }
+    }
+
+    // Sound pool ID a sound effect was loaded with.
+    private static int getSoundId( Effect effect ) {
+        switch( effect ) {
+            case hit: return soundIdHit;
+            case miss: return soundIdMiss;
+            case powerUp: return soundIdPowerUp;
+            case newRound: return soundIdNewRound;
+            case gameOver: return soundIdGameOver;
+            default: throw new RuntimeException( "Unknown Sound Effect" );
+        }
+    }
+
+    // Output playing sound effects as streams of the sound pool.
+    private static class SoundPoolOutput implements EffectMixerUtil.Output {
+        private final long[] durationsNanos = new long[ Effect.values().length ];
+
+        private SoundPoolOutput( Context context ) {
+            for( Effect effect : Effect.values() )
+                durationsNanos[ effect.ordinal() ] =
+                    getDurationNanos( context, getResourceId( effect ) );
+        }
+
+        @Override public int play( Effect effect, int priority, float volume ) {
+            return effectsPool.play( getSoundId( effect ), volume, volume, priority, 0, 1f );
+        }
+
+        @Override public void stop( int handle ) { effectsPool.stop( handle ); }
+
+        @Override public long getDurationNanos( Effect effect ) {
+            return durationsNanos[ effect.ordinal() ];
+        }
+    }
+
+    /*
+    Output playing sound effects from AudioTrack static buffers, one for each effect, started over
+    from the beginning whenever it plays.  Handles are one more than the ordinal of the effect.
+    */
+    private static class AudioTrackOutput implements EffectMixerUtil.Output {
+        private final AudioTrack[] tracks;
+        private final long[] durationsNanos;
+
+        private AudioTrackOutput( AudioTrack[] tracks, long[] durationsNanos ) {
+            this.tracks = tracks;
+            this.durationsNanos = durationsNanos;
+        }
+
+        @Override public int play( Effect effect, int priority, float volume ) {
+            AudioTrack track = tracks[ effect.ordinal() ];
+
+            // Rewind the buffer, which it must be stopped for, if it has played before.
+            if( track.getPlayState() != AudioTrack.PLAYSTATE_STOPPED ) track.stop();
+
+            if( track.reloadStaticData() != AudioTrack.SUCCESS ) return 0;
+
+            track.setVolume( volume );
+            track.play();
+
+            return effect.ordinal() + 1;
+        }
+
+        @Override public void stop( int handle ) {
+            AudioTrack track = tracks[ handle - 1 ];
+
+            if( track.getPlayState() != AudioTrack.PLAYSTATE_STOPPED ) track.stop();
+        }
+
+        @Override public long getDurationNanos( Effect effect ) {
+            return durationsNanos[ effect.ordinal() ];
+        }
     }
 
     // Setup all the sound effects in a sound pool.
@@ -114,16 +419,30 @@ public class SoundUtil {
 
     // The following will fail gracefully, doing nothing, failing initialization.
 
-    // Play various sound effects.
-    private static void playEffect( int soundId ) {
-        effectsPool.play( soundId, volumeEffects, volumeEffects, 1, 0, 1f );
+    /*
+    Ask for various sound effects, which play together once playEffects is called, as at the end
+    of each step of the world.
+    */
+    public static void playHit( int segmentsKilled ) {
+        if( isInitialized ) EffectMixerUtil.request( Effect.hit, segmentsKilled );
+    }
+
+    public static void playMiss() { if( isInitialized ) EffectMixerUtil.request( Effect.miss, 1 ); }
+
+    public static void playPowerUp() {
+        if( isInitialized ) EffectMixerUtil.request( Effect.powerUp, 1 );
+    }
+
+    public static void playNewRound() {
+        if( isInitialized ) EffectMixerUtil.request( Effect.newRound, 1 );
+    }
+
+    public static void playGameOver() {
+        if( isInitialized ) EffectMixerUtil.request( Effect.gameOver, 1 );
     }
 
-    public static void playHit() { if( isInitialized ) playEffect( soundIdHit ); }
-    public static void playMiss() { if( isInitialized ) playEffect( soundIdMiss ); }
-    public static void playPowerUp() { if( isInitialized ) playEffect( soundIdPowerUp ); }
-    public static void playNewRound() { if( isInitialized ) playEffect( soundIdNewRound ); }
-    public static void playGameOver() { if( isInitialized ) playEffect( soundIdGameOver ); }
+    // Play the sound effects asked for since the last time.
+    public static void playEffects() { if( isInitialized ) EffectMixerUtil.flush( volumeEffects ); }
 
     // Control background music playback.
     public static void playMusic() { if( isInitialized ) musicPlayer.start(); }
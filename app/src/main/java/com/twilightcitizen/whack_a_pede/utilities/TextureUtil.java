@@ -3,8 +3,14 @@ package com.twilightcitizen.whack_a_pede.utilities;
 import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
+import android.opengl.GLES30;
 import android.util.Log;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import static android.opengl.GLES20.*;
 import static android.opengl.GLUtils.*;
@@ -12,67 +18,337 @@ import static android.opengl.GLUtils.*;
 /*
 TextureUtil provides a utility method for loading a texture into OpenGl from DPI-independent bitmap
 resources with appropriate scaling, min- and magnification, and mipmapping. This borrows from OpenGL
-ES 2.0 for Android by Kevin Brothaler.
+ES 2.0 for Android by Kevin Brothaler.  On OpenGL ES 3.0 devices, a bitmap resource compressed to
+ETC2 at build time is loaded from its KTX asset instead, mipmaps and all, where there is one.  ETC2
+textures take a quarter of the memory and need no decoding or mipmapping when loaded.  Loading is
+also split into decoding or reading, which can be done on any thread, and uploading, which must be
+done on the thread with the OpenGL context, for loading textures in the background.
 */
 public class TextureUtil {
     // Tag for filtering any debug message logged.
     private static final String TAG = "TextureUtil";
 
+    // Folder of the assets holding bitmap resources compressed at build time, and their extension.
+    private static final String COMPRESSED_FOLDER = "textures/";
+    private static final String COMPRESSED_EXTENSION = ".ktx";
+
+    // Bytes every KTX file starts with, and the value its endianness is checked against.
+    private static final byte[] KTX_IDENTIFIER = {
+        (byte) 0xAB, 'K', 'T', 'X', ' ', '1', '1', (byte) 0xBB, '\r', '\n', 0x1A, '\n'
+    };
+
+    private static final int KTX_ENDIANNESS = 0x04030201;
+
+    // Size of the KTX header, and where the fields needed to upload the texture are in it.
+    private static final int KTX_HEADER_SIZE = 64;
+    private static final int KTX_ENDIANNESS_OFFSET = 12;
+    private static final int KTX_INTERNAL_FORMAT_OFFSET = 28;
+    private static final int KTX_WIDTH_OFFSET = 36;
+    private static final int KTX_HEIGHT_OFFSET = 40;
+    private static final int KTX_LEVELS_OFFSET = 56;
+    private static final int KTX_KEY_VALUE_BYTES_OFFSET = 60;
+
     // Load a texture into OpenGL from a DPI-independent bitmap resource.
     public static int LoadTexture( Context context, int resourceId ) {
-        // Hold the status of generating a new texture on the graphics hardware.
-        final int[] textures = new int[ 1 ];
+        // Load the texture compressed, if the device can sample it and there is one.
+        if( GLVersionUtil.isES3() ) {
+            ByteBuffer ktx = readCompressedTexture( context, resourceId );
+            int texture = ktx == null ? 0 : uploadCompressedTexture( ktx, 0, 0 );
 
-        // Generating a new texture on the graphics hardware.
-        glGenTextures( 1, textures, 0 );
+            if( texture != 0 ) return texture;
+        }
 
-        // Log texture generation failure when debugging.
-        if( textures[ 0 ] == 0 ) {
-            if( LoggerUtil.DEBUGGING ) Log.w( TAG, "Could not generate new texture." );
+        // Decode the bitmap resource
+        final Bitmap bitmap = decodeTexture( context, resourceId, newDecodeOptions() );
 
-            return 0;
-        }
+        // Guard against bitmaps that could not be decoded.
+        if( bitmap == null ) return 0;
 
-        // Configure bitmap creation options to avoid scaling.
+        int texture = uploadTexture( bitmap );
+
+        // Free up the bitmap as it is no longer needed.
+        bitmap.recycle();
+
+        return texture;
+    }
+
+    // Configure bitmap creation options to avoid scaling and premultiplying.
+    public static BitmapFactory.Options newDecodeOptions() {
         final BitmapFactory.Options options = new BitmapFactory.Options();
 
         // Scaling can make bitmap dimensions not a power of 2 which can cause issues.
         options.inScaled = false;
         options.inPremultiplied = false;
 
-        // Decode the bitmap resource
+        return options;
+    }
+
+    /*
+    Find the largest power of 2 a texture can be sampled down by, in each dimension, while still
+    having at least as many pixels as it is drawn over on the screen.  Sampling by powers of 2 keeps
+    dimensions that are powers of 2 as they are.  Sizes drawn not yet known keep the texture whole.
+    */
+    public static int getSampleSize( int width, int height, int drawnWidth, int drawnHeight ) {
+        int sampleSize = 1;
+
+        // Guard against sizes drawn not yet known.
+        if( drawnWidth <= 0 || drawnHeight <= 0 ) return sampleSize;
+
+        while(
+            width / ( sampleSize * 2 ) >= drawnWidth && height / ( sampleSize * 2 ) >= drawnHeight
+        )
+            sampleSize *= 2;
+
+        return sampleSize;
+    }
+
+    // Decode a DPI-independent bitmap resource with some options, on any thread.
+    public static Bitmap decodeTexture(
+        Context context, int resourceId, BitmapFactory.Options options
+    ) {
         final Bitmap bitmap = BitmapFactory.decodeResource(
             context.getResources(), resourceId, options
         );
 
         // Log bitmap decoding issues when debugging.
-        if( bitmap == null ) {
-            if( LoggerUtil.DEBUGGING )
-                Log.w( TAG, "Resource ID " + resourceId + " could not be decoded." );
+        if( bitmap == null && LoggerUtil.DEBUGGING )
+            Log.w( TAG, "Resource ID " + resourceId + " could not be decoded." );
 
-            // Also delete the texture from the graphics hardware since it will have no bitmap.
-            glDeleteTextures( 1, textures, 0 );
+        return bitmap;
+    }
+
+    /*
+    Upload a decoded bitmap to a new texture on the graphics hardware and mipmap it, on the thread
+    with the OpenGL context.  The bitmap is left for the caller to free or reuse.
+    */
+    public static int uploadTexture( Bitmap bitmap ) {
+        // Hold the status of generating a new texture on the graphics hardware.
+        final int[] textures = new int[ 1 ];
+
+        // Generating a new texture on the graphics hardware.
+        glGenTextures( 1, textures, 0 );
+
+        // Log texture generation failure when debugging.
+        if( textures[ 0 ] == 0 ) {
+            if( LoggerUtil.DEBUGGING ) Log.w( TAG, "Could not generate new texture." );
 
             return 0;
         }
 
         // Configure the texture as a 2D.
-        glBindTexture( GL_TEXTURE_2D, textures[ 0 ] );
+        GLStateUtil.bindTexture2D( textures[ 0 ] );
         // Configure the texture with quality min- and magnification sampling for mipmaps.
         glTexParameteri( GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR_MIPMAP_LINEAR );
         glTexParameteri( GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR );
         // Bind the decoded bitmap to the texture.
         texImage2D( GL_TEXTURE_2D, 0, bitmap, 0 );
 
-        // Free up the bitmap as it is no longer needed.
-        bitmap.recycle();
-
         // Generate the mipmap for the texture.
         glGenerateMipmap( GL_TEXTURE_2D );
 
         // Make sure any other texture commands do not affect this texture.
-        glBindTexture( GL_TEXTURE_2D, 0 );
+        GLStateUtil.bindTexture2D( 0 );
+
+        return textures[ 0 ];
+    }
+
+    /*
+    Create a texture of a single transparent pixel, on the thread with the OpenGL context, to draw
+    with in place of textures still loading.
+    */
+    public static int createPlaceholderTexture() {
+        final int[] textures = new int[ 1 ];
+
+        glGenTextures( 1, textures, 0 );
+
+        // Log texture generation failure when debugging.
+        if( textures[ 0 ] == 0 ) {
+            if( LoggerUtil.DEBUGGING ) Log.w( TAG, "Could not generate new texture." );
+
+            return 0;
+        }
+
+        ByteBuffer pixel = ByteBuffer.allocateDirect( 4 );
+
+        GLStateUtil.bindTexture2D( textures[ 0 ] );
+        glTexParameteri( GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR );
+        glTexParameteri( GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR );
+        glTexImage2D( GL_TEXTURE_2D, 0, GL_RGBA, 1, 1, 0, GL_RGBA, GL_UNSIGNED_BYTE, pixel );
+        GLStateUtil.bindTexture2D( 0 );
+
+        return textures[ 0 ];
+    }
+
+    /*
+    Read the KTX asset a DPI-independent bitmap resource was compressed to at build time, by the
+    same name, on any thread.  Only ETC2 and EAC formats are accepted, which every OpenGL ES 3.0
+    device can sample, with every level present.  Returns null where there is no such asset or it
+    cannot be used, so the bitmap resource can be loaded instead.
+    */
+    public static ByteBuffer readCompressedTexture( Context context, int resourceId ) {
+        final ByteBuffer ktx;
+
+        // Read the whole asset, if there is one for the bitmap resource.
+        try {
+            ktx = readAsset(
+                context, COMPRESSED_FOLDER +
+                context.getResources().getResourceEntryName( resourceId ) + COMPRESSED_EXTENSION
+            );
+        } catch( IOException e ) {
+            return null;
+        }
+
+        // Guard against assets that are not KTX files.
+        if( !isKtx( ktx ) ) {
+            if( LoggerUtil.DEBUGGING )
+                Log.w( TAG, "Resource ID " + resourceId + " KTX not valid." );
+
+            return null;
+        }
+
+        final int internalFormat = ktx.getInt( KTX_INTERNAL_FORMAT_OFFSET );
+
+        // Guard against formats not every OpenGL ES 3.0 device can sample.
+        if(
+            internalFormat < GLES30.GL_COMPRESSED_R11_EAC ||
+            internalFormat > GLES30.GL_COMPRESSED_SRGB8_ALPHA8_ETC2_EAC
+        ) {
+            if( LoggerUtil.DEBUGGING )
+                Log.w( TAG, "Resource ID " + resourceId + " KTX format not ETC2." );
+
+            return null;
+        }
+
+        // Each level follows its size in bytes and is padded to a multiple of 4.
+        int offset = KTX_HEADER_SIZE + ktx.getInt( KTX_KEY_VALUE_BYTES_OFFSET );
+
+        for( int level = 0; level < getLevels( ktx ); level++ ) {
+            int imageSize = offset + 4 <= ktx.capacity() ? ktx.getInt( offset ) : -1;
+
+            // Guard against levels cut short, as the texture would not be complete.
+            if( imageSize < 0 || offset + 4 + imageSize > ktx.capacity() ) {
+                if( LoggerUtil.DEBUGGING )
+                    Log.w( TAG, "Resource ID " + resourceId + " KTX level " + level + " missing." );
+
+                return null;
+            }
+
+            offset += 4 + ( ( imageSize + 3 ) & ~3 );
+        }
+
+        return ktx;
+    }
+
+    /*
+    Upload a KTX texture read by readCompressedTexture, on the thread with the OpenGL context,
+    uploading every mipmap level in it as it is.  Levels with more pixels than needed for the size
+    drawn, as by getSampleSize, are skipped rather than uploaded, unless they are all there is.
+    */
+    public static int uploadCompressedTexture( ByteBuffer ktx, int drawnWidth, int drawnHeight ) {
+        final int internalFormat = ktx.getInt( KTX_INTERNAL_FORMAT_OFFSET );
+        final int width = ktx.getInt( KTX_WIDTH_OFFSET );
+        final int height = ktx.getInt( KTX_HEIGHT_OFFSET );
+        final int levels = getLevels( ktx );
+
+        final int skippedLevels = Math.min(
+            levels - 1,
+            Integer.numberOfTrailingZeros( getSampleSize( width, height, drawnWidth, drawnHeight ) )
+        );
+
+        // Hold the status of generating a new texture on the graphics hardware.
+        final int[] textures = new int[ 1 ];
+
+        glGenTextures( 1, textures, 0 );
+
+        // Log texture generation failure when debugging.
+        if( textures[ 0 ] == 0 ) {
+            if( LoggerUtil.DEBUGGING ) Log.w( TAG, "Could not generate new texture." );
+
+            return 0;
+        }
+
+        /*
+        Configure the texture with quality min- and magnification sampling for mipmaps, if there
+        are any, and sample only as many levels as there are, since compressed textures cannot
+        have the rest generated.
+        */
+        GLStateUtil.bindTexture2D( textures[ 0 ] );
+
+        glTexParameteri(
+            GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER,
+            levels - skippedLevels > 1 ? GL_LINEAR_MIPMAP_LINEAR : GL_LINEAR
+        );
+
+        glTexParameteri( GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR );
+        glTexParameteri( GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAX_LEVEL, levels - skippedLevels - 1 );
+
+        // Upload each level, which follows its size in bytes and is padded to a multiple of 4.
+        int offset = KTX_HEADER_SIZE + ktx.getInt( KTX_KEY_VALUE_BYTES_OFFSET );
+
+        for( int level = 0; level < levels; level++ ) {
+            int imageSize = ktx.getInt( offset );
+
+            offset += 4;
+
+            if( level >= skippedLevels ) {
+                ktx.position( offset );
+
+                glCompressedTexImage2D(
+                    GL_TEXTURE_2D, level - skippedLevels, internalFormat,
+                    Math.max( 1, width >> level ), Math.max( 1, height >> level ), 0,
+                    imageSize, ktx
+                );
+            }
+
+            offset += ( imageSize + 3 ) & ~3;
+        }
+
+        // Make sure any other texture commands do not affect this texture.
+        GLStateUtil.bindTexture2D( 0 );
 
         return textures[ 0 ];
     }
+
+    // Number of mipmap levels in a KTX texture, where 0 is written for a single level.
+    private static int getLevels( ByteBuffer ktx ) {
+        return Math.max( 1, ktx.getInt( KTX_LEVELS_OFFSET ) );
+    }
+
+    /*
+    Check that a buffer holds a KTX header, and set its byte order to the one the file was written
+    in, so that the fields of the header and the sizes of the levels read correctly.
+    */
+    private static boolean isKtx( ByteBuffer ktx ) {
+        if( ktx.capacity() < KTX_HEADER_SIZE ) return false;
+
+        for( int index = 0; index < KTX_IDENTIFIER.length; index++ )
+            if( ktx.get( index ) != KTX_IDENTIFIER[ index ] ) return false;
+
+        ktx.order( ByteOrder.LITTLE_ENDIAN );
+
+        if( ktx.getInt( KTX_ENDIANNESS_OFFSET ) == KTX_ENDIANNESS ) return true;
+
+        ktx.order( ByteOrder.BIG_ENDIAN );
+
+        return ktx.getInt( KTX_ENDIANNESS_OFFSET ) == KTX_ENDIANNESS;
+    }
+
+    // Read an asset whole into a direct buffer that OpenGL can upload from.
+    private static ByteBuffer readAsset( Context context, String name ) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try( InputStream inputStream = context.getAssets().open( name ) ) {
+            byte[] chunk = new byte[ 16 * 1024 ];
+            int read;
+
+            while( ( read = inputStream.read( chunk ) ) != -1 ) bytes.write( chunk, 0, read );
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect( bytes.size() );
+
+        buffer.put( bytes.toByteArray() );
+        buffer.rewind();
+
+        return buffer;
+    }
 }
@@ -15,6 +15,8 @@ import androidx.preference.PreferenceManager;
 
 import com.twilightcitizen.whack_a_pede.R;
 
+import java.util.Objects;
+
 /*
 Theme Utility provides textures associated with themes configured in settings.
 */
@@ -48,6 +50,31 @@ public class ThemeUtil {
         public int getCentipedeBodyBelow() { return centipedeBodyBelow; }
         public int getLawnTop() { return lawnTop; }
         public int getLawnBottom() { return lawnBottom; }
+
+        // Provide equality testing for themes, as for telling if the configured theme changed.
+        @Override public boolean equals( Object o ) {
+            // Theme always equals itself.
+            if( this == o ) return true;
+
+            // Theme never equals non-theme.
+            if( o == null || getClass() != o.getClass() ) return false;
+
+            Theme theme = (Theme) o;
+
+            // Equal themes share every texture.
+            return centipedeHeadAbove == theme.centipedeHeadAbove &&
+                centipedeHeadBelow == theme.centipedeHeadBelow &&
+                centipedeBodyAbove == theme.centipedeBodyAbove &&
+                centipedeBodyBelow == theme.centipedeBodyBelow &&
+                lawnTop == theme.lawnTop && lawnBottom == theme.lawnBottom;
+        }
+
+        @Override public int hashCode() {
+            return Objects.hash(
+                centipedeHeadAbove, centipedeHeadBelow, centipedeBodyAbove, centipedeBodyBelow,
+                lawnTop, lawnBottom
+            );
+        }
     }
 
     // Get the current theme from default shared preferences as configured in settings.
@@ -13,25 +13,33 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
 import com.twilightcitizen.whack_a_pede.geometry.Point;
-import com.twilightcitizen.whack_a_pede.geometry.Vector;
-import com.twilightcitizen.whack_a_pede.models.Centipede;
 import com.twilightcitizen.whack_a_pede.models.PowerUp;
+import com.twilightcitizen.whack_a_pede.simulation.GameSnapshot;
+import com.twilightcitizen.whack_a_pede.simulation.RenderSnapshotBuffer;
+import com.twilightcitizen.whack_a_pede.simulation.Replay;
+import com.twilightcitizen.whack_a_pede.simulation.SimulationClock;
+import com.twilightcitizen.whack_a_pede.simulation.SimulationThread;
+import com.twilightcitizen.whack_a_pede.simulation.WhackAPedeWorld;
+import com.twilightcitizen.whack_a_pede.simulation.WorldListener;
 import com.twilightcitizen.whack_a_pede.utilities.LoggerUtil;
 import com.twilightcitizen.whack_a_pede.utilities.SoundUtil;
-import com.twilightcitizen.whack_a_pede.utilities.TimeUtil;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
+import static com.twilightcitizen.whack_a_pede.simulation.WhackAPedeWorld.SEGMENTS_PER_CENTIPEDE;
+
 /*
 Game ViewModel abstracts the necessary details of an ongoing game of Whack-A-Pede within a module
-that can survive lifecycle events of the activity to which it belongs.
+that can survive lifecycle events of the activity to which it belongs.  The game rules themselves
+run headless within a WhackAPedeWorld, and Game ViewModel adapts its results to mutable live data
+and sound for the rest of the application.
 */
-public class GameViewModel extends ViewModel {
-    // Random number generator used in various routines.
-    private static final Random random = new Random();
-
+public class GameViewModel extends ViewModel implements WorldListener, SimulationThread.Loop {
     // Tag for filtering any debug message logged.
     private static final String TAG = "GameViewModel";
 
@@ -41,174 +49,58 @@ public class GameViewModel extends ViewModel {
     // States for the game sync to leaderboard.
     public enum Sync { notSynced, syncing, synced, errorSyncing, nothingToSync }
 
-    /*
-    The Whack-A-Pede Lawn assumes a square cellular construction, 7 cells across the X axis by 11
-    cells across the Y axis.  This accommodates a grid of 3 holes across the X axis by 5 holes across
-    the Y axis with turns set on, around, and  between each.  If the height of the Lawn should fill
-    the height of the whole viewport with a normalized height of 2, then the width should fill
-    2 x ( 7 / 11 ), or approximately 1.27 where the 27 repeats.
-    */
-    public static final float LAWN_CELLS_X_AXIS = 7.0f;
-    public static final float LAWN_CELLS_Y_AXIS = 11.0f;
-    public static final float LAWN_CELLS_RATIO = LAWN_CELLS_X_AXIS / LAWN_CELLS_Y_AXIS;
-    public static final float LAWN_NORMAL_HEIGHT = 2.0f;
-    public static final float LAWN_NORMAL_WIDTH = LAWN_NORMAL_HEIGHT * LAWN_CELLS_RATIO;
+    // Source of a fresh seed for every game.
+    private final Random seeds = new Random();
 
-    /*
-    Likewise, the square cells should have a height equal to 2 / 11, and a width of 1.27 / 7, both
-    of which should be equivalent, and are within acceptable tolerances for floats.  Other useful
-    measures can be born from these, such as radii for circles.
-    */
-    public static final float CELL_NORMAL_HEIGHT = LAWN_NORMAL_HEIGHT / LAWN_CELLS_Y_AXIS;
-    public static final float CELL_NORMAL_WIDTH = LAWN_NORMAL_WIDTH / LAWN_CELLS_X_AXIS;
-    public static final float CELL_NORMAL_RADIUS = CELL_NORMAL_HEIGHT / 2.0f;
+    // Simulation of the game in progress.
+    private final WhackAPedeWorld world = new WhackAPedeWorld( seeds.nextLong(), this );
 
-    public static final float CENTIPEDE_NORMAL_RADIUS = CELL_NORMAL_RADIUS * 0.8f;
-    public static final float CENTIPEDE_NORMAL_WIDTH =  CELL_NORMAL_WIDTH * 0.8f;
-    public static final float CENTIPEDE_NORMAL_HEIGHT = CELL_NORMAL_HEIGHT * 0.8f;
+    // Scoring and timing of every new game, which are the same whatever the seed.
+    private final GameSnapshot newGameSnapshot = new GameSnapshot( world );
 
-    /*
-    Lines along the X and Y axes where the grid of Holes on the Lawn will be placed.
-    */
+    // Replay of the game in progress, recording its seed and every touch made during it.
+    private final Replay replay = new Replay();
 
-    private static final float[] HOLES_X = new float[] {
-        0.0f - CELL_NORMAL_WIDTH * 2.0f,
-        0.0f,
-        0.0f + CELL_NORMAL_WIDTH * 2.0f
-    };
-
-    private static final float[] HOLES_Y = new float[] {
-        0.0f - CELL_NORMAL_HEIGHT * 4.0f,
-        0.0f - CELL_NORMAL_HEIGHT * 2.0f,
-        0.0f,
-        0.0f + CELL_NORMAL_HEIGHT * 2.0f,
-        0.0f + CELL_NORMAL_HEIGHT * 4.0f
-    };
-
-    // Holes at points generated along the intersections of the previous X and Y axes.
-    public static final Point[] HOLES = new Point[ HOLES_X.length * HOLES_Y.length ];
-
-    // Place holes at points generated along the intersections of the previous X and Y axes.
-    static {
-        int hole = 0;
-
-        for( float holeX : HOLES_X ) for( float holeY : HOLES_Y )
-            HOLES[ hole++ ] = new Point( holeX, holeY );
-    }
+    // Clock that spends real frame time in fixed steps of the simulation.
+    private final SimulationClock clock = new SimulationClock();
 
     /*
-    Lines along the X and Y axes where the grid of Turns on the Lawn will be placed.
+    Snapshots of the centipedes and power ups on the lawn published at the end of every loop for
+    drawing, so that drawing never reads the world while it is being stepped.
     */
+    private final RenderSnapshotBuffer renderSnapshots =
+        new RenderSnapshotBuffer( SEGMENTS_PER_CENTIPEDE, 1 );
 
-    private static final float[] TURNS_X = new float[] {
-        0.0f - CELL_NORMAL_WIDTH * 3.0f,
-        0.0f - CELL_NORMAL_WIDTH * 2.0f,
-        0.0f - CELL_NORMAL_WIDTH * 1.0f,
-        0.0f,
-        0.0f + CELL_NORMAL_WIDTH * 1.0f,
-        0.0f + CELL_NORMAL_WIDTH * 2.0f,
-        0.0f + CELL_NORMAL_WIDTH * 3.0f
-    };
-
-    private static final float[] TURNS_Y = new float[] {
-        0.0f - CELL_NORMAL_HEIGHT * 5.0f,
-        0.0f - CELL_NORMAL_HEIGHT * 4.0f,
-        0.0f - CELL_NORMAL_HEIGHT * 3.0f,
-        0.0f - CELL_NORMAL_HEIGHT * 2.0f,
-        0.0f - CELL_NORMAL_HEIGHT * 1.0f,
-        0.0f,
-        0.0f + CELL_NORMAL_HEIGHT * 1.0f,
-        0.0f + CELL_NORMAL_HEIGHT * 2.0f,
-        0.0f + CELL_NORMAL_HEIGHT * 3.0f,
-        0.0f + CELL_NORMAL_HEIGHT * 4.0f,
-        0.0f + CELL_NORMAL_HEIGHT * 5.0f
-    };
-
-    // Turns at points generated along the intersections of the previous X and Y axes.
-    public static final Point[] TURNS = new Point[ TURNS_X.length * TURNS_Y.length ];
-
-    // Place turns at points generated along the intersections of the previous X and Y axes.
-    static {
-        int turn = 0;
-
-        for( float turnX : TURNS_X ) for( float turnY : TURNS_Y )
-            TURNS[ turn++ ] = new Point( turnX, turnY );
-    }
+    // Expose the snapshots for drawing the centipedes and power ups on the lawn.
+    public RenderSnapshotBuffer getRenderSnapshots() { return renderSnapshots; }
 
-    // Grass patches at points where turns exist but holes do not.
-    public static final Point[] PATCHES = new Point[ TURNS.length - HOLES.length ];
+    // Thread looping the game on its own, if any, rather than the thread drawing it.
+    private volatile SimulationThread simulationThread;
 
-    // Place grass patches at points where turns exist but holes do not.
-    static {
-        int patch = 0;
+    // Flag for the game looping on a thread of its own, so drawing should not loop it too.
+    public boolean getIsLoopingOnOwnThread() { return simulationThread != null; }
 
-        patches: for( Point turn : TURNS ) {
-            for( Point hole : HOLES ) if( turn.equals( hole ) ) continue patches;
+    // Start looping the game on a thread of its own, if not already.
+    public synchronized void startSimulationThread() {
+        if( simulationThread != null ) return;
 
-            PATCHES[ patch++ ] = new Point( turn.x, turn.y );
-        }
+        simulationThread = new SimulationThread( this );
+        simulationThread.start();
     }
 
-    // Player scoring and timing constants.
-    private static final long ROUND_TIME_MILLIS = 10_000L;
-    private static final int POINTS_PER_CENTIPEDE = 100;
-    private static final long BONUS_MILLIS_PER_CENTIPEDE = ROUND_TIME_MILLIS;
-    private static final int BONUS_POINTS_PER_SECOND = 10;
-    private static final int STARTING_SCORE = 0;
-    private static final int STARTING_ROUNDS = 1;
-    private static final long STARTING_REMAINING_TIME_MILLIS = ROUND_TIME_MILLIS;
-    private static final long STARTING_ELAPSED_TIME_MILLIS = 0L;
-
-    // Centipede speed constants.
-    public static final float CENTIPEDE_START_SPEED = CELL_NORMAL_WIDTH * 3.0f;
-    public static final float CENTIPEDE_MAX_SPEED = CELL_NORMAL_WIDTH * 10.0f;
-
-    // This more or less determines the number of rounds before max speed is reached.
-    private static final float CENTIPEDE_SPEED_INCREASE =
-        ( CENTIPEDE_MAX_SPEED - CENTIPEDE_START_SPEED ) / 1_000.0f;
-
-    // Edges of the lawn where centipedes can enter it.
-    private enum StartingEdge {
-        top, bottom, left, right;
-
-        // Get a random starting edge using the given random number generator.
-        public static StartingEdge getRandomStartingEdge() {
-            return StartingEdge.values()[ random.nextInt( StartingEdge.values().length ) ];
-        }
+    // Stop looping the game on a thread of its own, leaving it to be looped by drawing again.
+    public synchronized void stopSimulationThread() {
+        if( simulationThread == null ) return;
 
-        // Get a point along the current starting edge using the given random number generator.
-        public Point getRandomPointAlongEdge() {
-            switch( this ) {
-                case top:
-                    return new Point( TURNS_X[ random.nextInt( TURNS_X.length ) ], 1.0f );
-                case bottom:
-                    return new Point( TURNS_X[ random.nextInt( TURNS_X.length ) ], -1.0f );
-                case left:
-                    return new Point( -LAWN_CELLS_RATIO, TURNS_Y[ random.nextInt( TURNS_Y.length ) ] );
-                default:
-                    return new Point( LAWN_CELLS_RATIO, TURNS_Y[ random.nextInt( TURNS_Y.length ) ] );
-            }
-        }
-
-        // Get the direction into the lawn from current edge.
-        public Vector getDirectionIntoEdge() {
-            switch( this ) {
-                case top: return Vector.down;
-                case bottom: return Vector.up;
-                case left: return Vector.right;
-                default: return Vector.left;
-            }
-        }
+        simulationThread.quit();
+        simulationThread = null;
     }
 
-    // Centipedes on the lawn at any given time.
-    public static final List< Centipede > CENTIPEDES = new ArrayList<>();
-
-    // Power ups on the lawn at any given time.
-    public static final List< PowerUp > POWER_UPS = new ArrayList<>();
-
-    // The number of segments in a fresh centipede.
-    public static final int segmentsPerCentipede = 10;
+    // Stop any thread looping the game when the view model is done.
+    @Override protected void onCleared() {
+        stopSimulationThread();
+        super.onCleared();
+    }
 
     // Null coalesce mutable live data as a value.
     public static <T> T getNullCoalescedValue( MutableLiveData< T > mutableLiveData, T fallback ) {
@@ -217,53 +109,95 @@ public class GameViewModel extends ViewModel {
         return value == null ? fallback : value;
     }
 
-    // Current speed of centipedes on the lawn.
-    private final MutableLiveData< Float > centipedeSpeed =
-        new MutableLiveData<>( CENTIPEDE_START_SPEED );
-
-    // Expose the mutable live data for speed.
-    public MutableLiveData< Float > getCentipedeSpeed() { return centipedeSpeed; }
-    public void refreshCentipedeSpeed() { centipedeSpeed.postValue( centipedeSpeed.getValue() ); }
-
-    // Touch events received from the surface to which the game is drawn.
+    /*
+    Touch events received from the surface to which the game is drawn, waiting to be taken by the
+    thread looping the game, and those taken but not yet applied to a step.  The surface and the
+    loop may run on different threads, so touch events only change hands while holding the former.
+    */
+    private final ArrayList< Point > receivedTouchPoints = new ArrayList<>();
     private final ArrayList< Point > touchPoints = new ArrayList<>();
 
     // Expose setter to add touch events.
     public void addTouchPoint( Point touchPoint ) {
-        if( state.getValue() == State.running ) touchPoints.add( touchPoint );
-    }
+        if( state.getValue() != State.running ) return;
 
-    // Attacked centipedes must be managed carefully to avoid concurrent list manipulation.
-    final ArrayList< Centipede > centipedesKilled = new ArrayList<>();
-    final ArrayList< Centipede > centipedesToRemove = new ArrayList<>();
-    final ArrayList< Centipede > centipedesToAdd = new ArrayList<>();
+        if( LoggerUtil.DEBUGGING ) Log.wtf( TAG, "TOUCH - " + touchPoint.x + ", " + touchPoint.y );
 
-    // Power ups must also be managed with concurrent list manipulation in mind.
-    final ArrayList< PowerUp > powerUpsToRemove = new ArrayList<>();
+        synchronized( receivedTouchPoints ) { receivedTouchPoints.add( touchPoint ); }
+    }
 
-    // Number of seconds to wait between adding power ups.
-    public static final int SECONDS_BETWEEN_POWER_UPS = 60;
+    // Take the touch events received since the last loop for the next step.
+    private void takeTouchPoints() {
+        synchronized( receivedTouchPoints ) {
+            for( int index = 0; index < receivedTouchPoints.size(); index++ )
+                touchPoints.add( receivedTouchPoints.get( index ) );
+
+            receivedTouchPoints.clear();
+        }
+    }
 
     /*
-    Mutable live data for scoring and timing information allows external observers to update
-    as needed whenever these values change.
+    Changes to the world asked for on the main thread, waiting to be run by the thread looping the
+    game at the start of its next loop, and those taken but not yet run.  The world is only ever
+    changed by the thread looping it, never while it is being stepped or drawn from, so changes
+    only change hands while holding the former, as touch events do.
     */
-    private final MutableLiveData< Integer > score = new MutableLiveData<>( STARTING_SCORE );
-    private final MutableLiveData< Integer > rounds = new MutableLiveData<>( STARTING_ROUNDS );
+    private final ArrayList< Runnable > receivedCommands = new ArrayList<>();
+    private final ArrayList< Runnable > commands = new ArrayList<>();
+
+    // Ask for a change to the world to be run by the thread looping the game.
+    private void queueCommand( Runnable command ) {
+        synchronized( receivedCommands ) { receivedCommands.add( command ); }
+    }
+
+    // Run the changes to the world asked for since the last loop, in the order asked for.
+    private void runCommands() {
+        synchronized( receivedCommands ) {
+            for( int index = 0; index < receivedCommands.size(); index++ )
+                commands.add( receivedCommands.get( index ) );
+
+            receivedCommands.clear();
+        }
+
+        for( int index = 0; index < commands.size(); index++ ) commands.get( index ).run();
 
-    private final MutableLiveData< Long > remainingTimeMillis =
-        new MutableLiveData<>( STARTING_REMAINING_TIME_MILLIS );
+        commands.clear();
+    }
 
-    private final MutableLiveData< Long > elapsedTimeMillis =
-        new MutableLiveData<>( STARTING_ELAPSED_TIME_MILLIS );
+    /*
+    Mutable live data for scoring and timing information allows external observers to update as
+    needed whenever these values change.  They are published together as a single snapshot of the
+    world, no more often than the interval between snapshots, rather than posted one by one as the
+    world changes them within each step.
+    */
+    private final MutableLiveData< GameSnapshot > snapshot =
+        new MutableLiveData<>( new GameSnapshot( world ) );
 
     private final MutableLiveData< Sync > leaderboardSync = new MutableLiveData<>( Sync.notSynced );
 
-    // Expose the mutable live data for score, rounds, time remaining, and elapsed time.
-    public MutableLiveData< Integer > getScore() { return score; }
-    public MutableLiveData< Integer > getRounds() { return rounds; }
-    public MutableLiveData< Long > getRemainingTimeMillis() { return remainingTimeMillis; }
-    public MutableLiveData< Long > getElapsedTimeMillis() { return elapsedTimeMillis; }
+    // Shortest time between published snapshots, for about twelve a second at most.
+    private static final long SNAPSHOT_INTERVAL_NANOS = 83_333_333L;
+
+    // Frame time at which the last snapshot was published.
+    private long publishedSnapshotNanos;
+
+    // Flag for scoring or timing shown to the player changing since the last snapshot.
+    private boolean isSnapshotStale;
+
+    /*
+    Whole seconds of elapsed and remaining time last seen.  The scoreboard only shows whole seconds,
+    so time only makes the snapshot stale when those change.
+    */
+    private long snapshotElapsedSeconds = world.getElapsedTimeMillis() / 1_000L;
+    private long snapshotRemainingSeconds = world.getRemainingTimeMillis() / 1_000L;
+
+    // Expose the mutable live data for scoring and timing, and leaderboard sync.
+    public MutableLiveData< GameSnapshot > getSnapshot() { return snapshot; }
+
+    // Get the latest snapshot published, falling back to that of a new game if none was.
+    public GameSnapshot getLatestSnapshot() {
+        return getNullCoalescedValue( snapshot, newGameSnapshot );
+    }
     public MutableLiveData< Sync > getLeaderboardSync() { return leaderboardSync; }
     public void setSyncedToLeaderboard( Sync sync ) { leaderboardSync.setValue( sync ); }
 
@@ -276,28 +210,13 @@ public class GameViewModel extends ViewModel {
     // Expose the mutable live data game state.
     public MutableLiveData< State > getState() { return state; }
 
-    // Achievement unlock flags.
-    private boolean headWhack = false;
-    private boolean tailsOnly = false;
-    private boolean doubleElimination = false;
-    private boolean tripleElimination = false;
-    private boolean quadrupleElimination = false;
-    private boolean halfLife = false;
-
-    // Accumulators for some achievement unlock flags.
-    private int headsTapped = 0;
-    private int tailsTapped = 0;
-
     // Expose achievement unlock flags.
-    public boolean getHeadWhack() { return headWhack; }
-    public boolean getTailsOnly() { return tailsOnly; }
-    public boolean getDoubleElimination() { return doubleElimination; }
-    public boolean getTripleElimination() { return tripleElimination; }
-    public boolean getQuadrupleElimination() { return quadrupleElimination; }
-    public boolean getHalfLife() { return halfLife; }
-
-    // Number of power up opportunities passed.
-    private int powerUpOpportunities = 0;
+    public boolean getHeadWhack() { return world.getHeadWhack(); }
+    public boolean getTailsOnly() { return world.getTailsOnly(); }
+    public boolean getDoubleElimination() { return world.getDoubleElimination(); }
+    public boolean getTripleElimination() { return world.getTripleElimination(); }
+    public boolean getQuadrupleElimination() { return world.getQuadrupleElimination(); }
+    public boolean getHalfLife() { return world.getHalfLife(); }
 
     /*
     The following methods allow external game observers to change the game's state as needed.  Calls
@@ -325,7 +244,7 @@ public class GameViewModel extends ViewModel {
         if( !( state.getValue() == State.paused || state.getValue() == State.newGame ) )
             throw new IllegalStateException( "Game Played while Not Paused or New" );
 
-        setupCentipede();
+        queueCommand( this::startWorld );
         SoundUtil.playMusic();
         state.setValue( State.running );
     }
@@ -342,687 +261,155 @@ public class GameViewModel extends ViewModel {
         setupNewGame();
     }
 
-    // Reset all values to where they should be for a fresh game.
+    /*
+    Reset all values to where they should be for a fresh game.  The world itself is reset by the
+    thread looping the game, but a new game always starts with the same scoring and timing, so that
+    is shown right away.
+    */
     private void setupNewGame() {
-        CENTIPEDES.clear();
-        POWER_UPS.clear();
+        final long seed = seeds.nextLong();
+
+        synchronized( receivedTouchPoints ) { receivedTouchPoints.clear(); }
+        queueCommand( () -> resetWorld( seed ) );
         state.setValue( State.newGame );
-        centipedeSpeed.setValue( CENTIPEDE_START_SPEED );
-        score.setValue( STARTING_SCORE );
-        rounds.setValue( STARTING_ROUNDS );
-        remainingTimeMillis.setValue( STARTING_REMAINING_TIME_MILLIS );
-        elapsedTimeMillis.setValue( STARTING_ELAPSED_TIME_MILLIS );
+        snapshot.setValue( newGameSnapshot );
         leaderboardSync.setValue( Sync.notSynced );
-
-        headWhack = false;
-        tailsOnly = false;
-        doubleElimination = false;
-        tripleElimination = false;
-        quadrupleElimination = false;
-        halfLife = false;
-        headsTapped = 0;
-        tailsTapped = 0;
-        powerUpOpportunities = 0;
     }
 
-    // Loop the game through the provided time slice.
-    public void loop( long elapsedTimeMillis  ) {
-        // Guard against changing anything if the game state is not running.
-        if( state.getValue() != State.running ) return;
+    // Start the world, recording a replay of games not yet under way, on the thread looping it.
+    private void startWorld() {
+        if( world.getTicks() == 0L ) replay.start( world.getSeed() );
 
-        // Obtain elapsed time and time remaining values.
-        Long timeElapsedValue =  getNullCoalescedValue( this.elapsedTimeMillis, 0L );
-        Long timeRemainingValue = getNullCoalescedValue( remainingTimeMillis, 0L );
-
-        // Update the time elapsed and time remaining with the provided slice.
-        this.elapsedTimeMillis.postValue( timeElapsedValue + elapsedTimeMillis );
-        remainingTimeMillis.postValue( timeRemainingValue - elapsedTimeMillis );
-
-        // Add power ups, check for game over or next round, then attack and animate centipedes an power ups.
-        addPowerUps();
-        checkForGameOver();
-        checkForNextRound();
-        attackPowerUps();
-        attackCentipedes();
-        animatePowerUps( elapsedTimeMillis );
-        animateCentipedes( elapsedTimeMillis );
+        world.start();
     }
 
-    // Add power ups to the lawn based on elapsed time and chance.
-    private void addPowerUps() {
-        Long timeElapsedValue = getNullCoalescedValue( this.elapsedTimeMillis, 0L );
-
-        int powerUpOpportunities = (int) (
-            timeElapsedValue / TimeUtil.secondsToMillis( SECONDS_BETWEEN_POWER_UPS )
-        );
-
-        if( this.powerUpOpportunities == powerUpOpportunities ) return;
-
-        this.powerUpOpportunities = powerUpOpportunities;
-
-        setupPowerUp();
+    // Reset the world for a fresh game with a seed, on the thread looping it.
+    private void resetWorld( long seed ) {
+        world.reset( seed );
+        touchPoints.clear();
+        isSnapshotStale = false;
+        snapshotElapsedSeconds = world.getElapsedTimeMillis() / 1_000L;
+        snapshotRemainingSeconds = world.getRemainingTimeMillis() / 1_000L;
     }
 
     /*
-    Process collected touch events as power up attacks.  Remove touched power ups, if any, from the
-    lawn, applying the power ups to the game according to their desired effect.
+    Loop the game up to the provided frame time, stepping the world in as many fixed time slices as
+    the clock allows.  Changes asked for since the last loop are run first, and touches collected
+    since the last step are all applied to the first one.  Whether or not the world steps, a render
+    snapshot of it is published for drawing.
     */
-    private void attackPowerUps() {
-        // Guard against processing attacks if there are no touch points or no power ups.
-        if( touchPoints.isEmpty() || POWER_UPS.isEmpty() ) return;
-
-        killTouchedPowerUps();
-        applyKilledPowerUps();
+    @Override public void loop( long frameTimeNanos ) {
+        runCommands();
 
-        // Do the actual removes.
-        POWER_UPS.removeAll( powerUpsToRemove );
+        boolean isRunning = state.getValue() == State.running;
 
-        /*
-        Play an appropriate sound for a power up hit.  Ignore misses to prevent playing a double-miss
-        sound, one for power ups and one for centipede segments.
-        */
-        if( !powerUpsToRemove.isEmpty() ) SoundUtil.playPowerUp();
+        // Step the world only if the game state is running.
+        if( isRunning ) step( frameTimeNanos ); else clock.reset();
 
-        // Clear power up attack list to avoid needless checks.
-        powerUpsToRemove.clear();
+        renderSnapshots.publish( world, clock.getAlpha(), frameTimeNanos, isRunning );
     }
 
-    // Apply the effect of the killed power ups to the game.
-    private void applyKilledPowerUps() {
-        int scoreValue = getNullCoalescedValue( score, 0 );
+    // Step the world as many times as the clock allows up to the provided frame time.
+    private void step( long frameTimeNanos ) {
+        takeTouchPoints();
 
-        for( PowerUp powerUp : powerUpsToRemove ) {
-            switch( powerUp.getKind() ) {
-                case plus1kPoints: score.postValue( scoreValue + 1_000 ); Log.wtf( "POWER UP", "1K" ); break;
-                case plus10kPoints: score.postValue( scoreValue + 10_000 ); Log.wtf( "POWER UP", "10K" ); break;
-                case plus100kPoints: score.postValue( scoreValue + 100_000 ); Log.wtf( "POWER UP", "100K" ); break;
-                case slowDown: centipedeSpeed.postValue( CENTIPEDE_START_SPEED ); Log.wtf( "POWER UP", "SLOW DOWN" );
-            }
-        }
-    }
-
-    // Check all power ups against touches, killing ones that were touched.
-    private void killTouchedPowerUps() {
-        // Process all touch points as attacks.
-        for( Point touchPoint : touchPoints ) {
-            // Cache the X and Y of the touch event.
-            float x = touchPoint.x; float y = touchPoint.y;
-
-            if( LoggerUtil.DEBUGGING ) Log.wtf( TAG, "TOUCH - " + x + ", " + y );
-
-            // Test attacks against all centipedes.
-            for( PowerUp powerUp : POWER_UPS ) {
-                // Cache the centipede position.
-                Point position = powerUp.getPosition();
-
-                if( LoggerUtil.DEBUGGING )
-                    Log.wtf( TAG, "POWER UP - " + position.x + ", " + position.y );
-
-                // Touch X falls within X bounds of centipede.
-                boolean touchedX =
-                    x >= position.x - CENTIPEDE_NORMAL_RADIUS &&
-                    x <= position.x + CENTIPEDE_NORMAL_RADIUS;
-
-                // Touch Y falls within Y bounds of centipede.
-                boolean touchedY =
-                    y >= position.y - CENTIPEDE_NORMAL_RADIUS &&
-                    y <= position.y + CENTIPEDE_NORMAL_RADIUS;
-
-                // Touch falls in bounds of centipede and centipede is above ground.
-                boolean touched = touchedX && touchedY;
+        int steps = clock.advance( frameTimeNanos );
 
-                // Add any touched segments to the killed segments collection.
-                if( touched ) {
-                    if( LoggerUtil.DEBUGGING ) Log.wtf( TAG, "TOUCH ON POWER UP" );
+        for( int step = 0; step < steps; step++ ) {
+            replay.record( world.getTicks(), touchPoints );
+            world.step( SimulationClock.STEP_MILLIS, touchPoints );
+            touchPoints.clear();
 
-                    powerUpsToRemove.add( powerUp );
-                }
-            }
-        }
-    }
-
-    // Animate power ups over the provided time slice.
-    private void animatePowerUps( long elapsedTimeMillis ) {
-        // Normalize the elapsed time as a fraction of 1 second.
-        float interval = TimeUtil.millisToIntervalOfSeconds( elapsedTimeMillis );
-
-        // Obtain centipede speed value.
-        Float powerUpSpeedValue = getNullCoalescedValue( centipedeSpeed, CENTIPEDE_START_SPEED );
-
-        // Animate each power up.
-        for( PowerUp powerUp : POWER_UPS ) {
-            // Generate a new position for it based on current position, direction, and speed.
-            Point nextPosition = new Point(
-                powerUp.getPosition().x + powerUpSpeedValue * interval * powerUp.getDirection().x,
-                powerUp.getPosition().y + powerUpSpeedValue * interval * powerUp.getDirection().y
-            );
+            // Play the sound effects of the step together, so the mixer can coalesce them.
+            SoundUtil.playEffects();
 
             /*
-             Get new directions from turns at approach, change trajectory through them, and
-             rotate smoothing around them.
+            Finish the game once the step that ended it is done, since the world reports the game
+            over before scoring the rest of that step, and step no further.
             */
-            // Cache previous position for speedier access.
-            Point previousPosition = powerUp.getPosition();
-            // Get the power up's direction before changing it.
-            Vector previousDirection = powerUp.getDirection();
-
-            // Check each turn to see if it was traversed.
-            for( Point turn : TURNS ) {
-                // Disregard turns that the centipede did not traverse.
-                if( !turn.intersectsPathOf( previousPosition, nextPosition ) ) continue;
-
-                powerUp.setNextDirection( getNewDirectionForTurn( turn, previousDirection ) );
-
-                // Use new direction gotten from turn at approach.
-                powerUp.setDirection( powerUp.getNextDirection() );
-
-                // Get the centipede's direction after changing it.
-                Vector nextDirection = powerUp.getDirection();
-
-                // The centipede's previous direction matches the new one, keep it on course.
-                if( nextDirection == previousDirection ) break;
-
-                // No need to bend the centipede's path around the turn if its path ends dead on it.
-                if( turn.equals( nextPosition ) ) break;
-
-                // Travel past the turn to be applied in the new direction after it.
-                float travelAfterTurn;
-
-                // Travel after turn is difference between X or Y axes depending on direction.
-                if( turn.wasPassedVertically( previousPosition, nextPosition ) ) {
-                    travelAfterTurn = Math.abs( nextPosition.y - turn.y );
-                } else  {
-                    travelAfterTurn = Math.abs( nextPosition.x - turn.x );
-                }
-
-                // Change the next position based on travel after turn in new direction.
-                if( nextDirection.equals( Vector.up ) ) {
-                    nextPosition = new Point( turn.x, nextPosition.y + travelAfterTurn );
-                } else if( nextDirection.equals( Vector.down ) ) {
-                    nextPosition = new Point( turn.x, nextPosition.y - travelAfterTurn );
-                } else if( nextDirection.equals( Vector.left ) ) {
-                    nextPosition = new Point( nextPosition.x - travelAfterTurn, turn.y );
-                } else {
-                    nextPosition = new Point( nextPosition.x + travelAfterTurn, turn.y );
-                }
+            if( world.getIsOver() ) {
+                finishGame();
 
                 break;
             }
-
-            // Set the centipede's new position.
-            powerUp.setPosition( nextPosition );
         }
-    }
-
-    // Setup a new power up to enter the lawn from a random location at one of its edges.
-    private void setupPowerUp() {
-        // Pick an edge of the lawn at random.
-        StartingEdge startingEdge = StartingEdge.getRandomStartingEdge();
-        // Position and direction for the new centipede.
-        Point startingPosition = startingEdge.getRandomPointAlongEdge();
-        Vector startingDirection = startingEdge.getDirectionIntoEdge();
-        // Generate the kind of power up randomly.
-        PowerUp.Kind kind = PowerUp.Kind.getRandomKind( random );
-        // Create a new power up with the random position and direction picked.
-        PowerUp powerUp = new PowerUp( startingPosition, startingDirection, kind );
-
-        POWER_UPS.add( powerUp );
-    }
 
-    // Setup a new centipede to enter the lawn from a random location at one of its edges.
-    private void setupCentipede() {
-        // Guard against adding a new centipede when one already exists.
-        if( !CENTIPEDES.isEmpty() ) return;
-
-        // Pick an edge of the lawn at random.
-        StartingEdge startingEdge = StartingEdge.getRandomStartingEdge();
-        // Position and direction for the new centipede.
-        Point startingPosition = startingEdge.getRandomPointAlongEdge();
-        Vector startingDirection = startingEdge.getDirectionIntoEdge();
-        // Create a new centipede with the random position and opposing direction picked.
-        Centipede centipede = new Centipede( startingPosition, startingDirection );
-
-        // Randomize its above/below ground position.
-        if( ( random.nextInt( 2 ) + 1 ) % 2 == 0 ) centipede.toggleAbove();
-
-        // Give it tails and add it to the lawn.
-        centipede.addTails( segmentsPerCentipede - 1 );
-        CENTIPEDES.add( centipede );
-
-        headsTapped = 0;
-        tailsTapped = 0;
-    }
-
-    // Check for game over conditions and switch state as needed.
-    private void checkForGameOver() {
-        // Obtain time remaining value.
-        Long timeRemainingValue = getNullCoalescedValue( remainingTimeMillis, 0L );
-
-        // Game is over if timer reaches zero.
-        if( timeRemainingValue <= 0 ) {
-            // Prevent negative clock.
-            remainingTimeMillis.postValue( 0L );
-            // Flag Game Over and pause it.
-            state.postValue( State.gameOver );
-
-            // Play an appropriate sound.
-            SoundUtil.playGameOver();
-            SoundUtil.stopMusic();
+        // Publish a snapshot of any changes once enough time has passed since the last one.
+        if( isSnapshotStale && frameTimeNanos - publishedSnapshotNanos >= SNAPSHOT_INTERVAL_NANOS ) {
+            publishedSnapshotNanos = frameTimeNanos;
+            publishSnapshot();
         }
     }
 
-    // Check for new round conditions, modifying score and time and adding centipedes as needed.
-    private void checkForNextRound() {
-        // Guard against starting new round when centipedes still exist.
-        if( !CENTIPEDES.isEmpty() ) return;
-
-        // Obtain score, rounds, time remaining, and centipede speed values.
-        Integer scoreValue = getNullCoalescedValue( score, 0 );
-        Integer roundsValue = getNullCoalescedValue( rounds, 1 );
-        Long timeRemainingValue = getNullCoalescedValue( remainingTimeMillis, 0L );
-        Float centipedeSpeedValue = getNullCoalescedValue( centipedeSpeed, CENTIPEDE_START_SPEED );
-
-        // Add points for time remaining.
-        score.postValue(
-            scoreValue + TimeUtil.millisToSeconds( timeRemainingValue ) * BONUS_POINTS_PER_SECOND
-        );
-
-        // Increment rounds.
-        rounds.postValue( roundsValue + 1 );
-
-        // Reset the clock.
-        remainingTimeMillis.postValue( ROUND_TIME_MILLIS );
-
-        // Set the next round's centipede starting speed.
-        float newSpeed = centipedeSpeedValue + CENTIPEDE_SPEED_INCREASE;
-        newSpeed = Math.min( newSpeed, CENTIPEDE_MAX_SPEED );
-
-        centipedeSpeed.postValue( newSpeed );
-
-        // Setup a new centipede and play an appropriate sound.
-        SoundUtil.playNewRound();
-        applyRoundAchievements();
-        setupCentipede();
-    }
-
-    // Unlock any achievements for the game tracked within in the round.
-    private void applyRoundAchievements() {
-        headWhack |= headsTapped == segmentsPerCentipede;
-        tailsOnly |= tailsTapped == segmentsPerCentipede - 1;
-    }
-
     /*
-    Process collected touch events as centipede attacks.  Remove touched segments of the centipedes,
-    if any, from the lawn, splitting or scattering attached centipedes as needed, and speeding them
-    all up.  Score points for the player for all successfully attacked segments.
+    Finish the replay with the results it should play back to, and publish the exact final scoring
+    and timing for the game over screen and leaderboard before flagging the game over, so the
+    snapshot is there by the time the game over is.
     */
-    private void attackCentipedes() {
-        // Guard against processing attacks if there are no touch points.
-        if( touchPoints.isEmpty() ) return;
-
-        killTouchedCentipedes();
-        reorganizeCentipedes();
-
-        // Do the actual adds and removes.
-        CENTIPEDES.removeAll( centipedesToRemove );
-        CENTIPEDES.addAll( centipedesToAdd );
-
-        // Update the scoreboard.
-        postScoreAndTimeBonuses();
-
-        // Obtain centipede speed value.
-        Float centipedeSpeedValue = getNullCoalescedValue( centipedeSpeed, CENTIPEDE_START_SPEED );
-
-        // Figure out the new speed for all segments.
-        centipedeSpeed.postValue( centipedeSpeedValue + CENTIPEDE_SPEED_INCREASE * centipedesKilled.size() );
-
-        // Play an appropriate sound.
-        if( centipedesKilled.isEmpty() ) SoundUtil.playMiss(); else SoundUtil.playHit();
-
-        // Clear touch points so they cannot keep killing centipedes.
-        touchPoints.clear();
-
-        // Process multiple elimination achievements.
-        int eliminationCount = centipedesKilled.size();
-
-        if( eliminationCount >= 5 ) {
-            doubleElimination = tripleElimination = quadrupleElimination = halfLife = true;
-        } if( eliminationCount == 4 ) {
-            doubleElimination = tripleElimination = quadrupleElimination = true;
-        } if( eliminationCount == 3 ) {
-            doubleElimination = tripleElimination = true;
-        } if( eliminationCount == 2 ) {
-            doubleElimination = true;
-        }
-
-        // Clear centipede attack lists to avoid needless checks.
-        centipedesKilled.clear();
-        centipedesToRemove.clear();
-        centipedesToAdd.clear();
-    }
-
-    // Update the score and time remaining with points and/or time bonuses.
-    private void postScoreAndTimeBonuses() {
-        // Obtain score and time remaining values.
-        Integer scoreValue = getNullCoalescedValue( score, 0 );
-        Long timeRemainingValue = getNullCoalescedValue( remainingTimeMillis, 0L );
-
-        // Add points for each segment killed to the player's score.
-        score.postValue( scoreValue + centipedesKilled.size() * POINTS_PER_CENTIPEDE );
-
-        remainingTimeMillis.postValue(
-            timeRemainingValue + centipedesKilled.size() * BONUS_MILLIS_PER_CENTIPEDE
-        );
+    private void finishGame() {
+        replay.finish( world.getTicks(), world.getScore() );
+        publishSnapshot();
+        state.postValue( State.gameOver );
     }
 
-    // Marked killed centipedes for removal and split or scatter remaining ones as needed.
-    private void reorganizeCentipedes() {
-        // Remove killed centipedes, splitting or scattering others as needed.
-        for( Centipede centipede : centipedesKilled ) {
-            // Killed heads are removed and all their tails are scattered as independent heads.
-            if( centipede.getIsHead() ) {
-                headsTapped++;
-                Centipede tail = centipede.getTail();
-
-                centipede.removeTail();
-                centipedesToRemove.add( centipede );
-
-                while( tail != null ) {
-                    centipedesToAdd.add( tail );
-                    tail.removeHead();
-
-                    Centipede newTail = tail.getTail();
-
-                    tail.removeTail();
-
-                    tail = newTail;
-                }
-
-                // Killed tails just go away.
-            } else if ( centipede.getIsTail() ) {
-                tailsTapped++;
-
-                centipede.getHead().removeTail();
-                centipede.removeHead();
-                // Killed middles split the centipede into two independent ones.
-            } else {
-                centipedesToAdd.add( centipede.getTail() );
-                centipede.getHead().removeTail();
-                centipede.removeHead();
-                centipede.getTail().removeHead();
-                centipede.removeTail();
-            }
-        }
+    // Publish a snapshot of the world as it is at the end of the latest step.
+    private void publishSnapshot() {
+        isSnapshotStale = false;
+        snapshot.postValue( new GameSnapshot( world ) );
     }
 
-    // Check all centipedes against touches, killing ones that were touched.
-    private void killTouchedCentipedes() {
-        // Process all touch points as attacks.
-        for( Point touchPoint : touchPoints ) {
-            // Cache the X and Y of the touch event.
-            float x = touchPoint.x; float y = touchPoint.y;
-
-            if( LoggerUtil.DEBUGGING ) Log.wtf( TAG, "TOUCH - " + x + ", " + y );
-
-            // Test attacks against all centipedes.
-            for( Centipede centipede : CENTIPEDES ) while( centipede != null ) {
-                // Cache the centipede position.
-                Point position = centipede.getPosition();
-
-                if( LoggerUtil.DEBUGGING )
-                    Log.wtf( TAG, "CENTIPEDE - " + position.x + ", " + position.y );
-
-                // Touch X falls within X bounds of centipede.
-                boolean touchedX =
-                    x >= position.x - CENTIPEDE_NORMAL_RADIUS &&
-                    x <= position.x + CENTIPEDE_NORMAL_RADIUS;
-
-                // Touch Y falls within Y bounds of centipede.
-                boolean touchedY =
-                    y >= position.y - CENTIPEDE_NORMAL_RADIUS &&
-                    y <= position.y + CENTIPEDE_NORMAL_RADIUS;
-
-                // Touch falls in bounds of centipede and centipede is above ground.
-                boolean touched = touchedX && touchedY && centipede.getIsAbove();
-
-                // Add any touched segments to the killed segments collection.
-                if( touched ) {
-                    if( LoggerUtil.DEBUGGING ) Log.wtf( TAG, "TOUCH ON CENTIPEDE" );
-
-                    centipedesKilled.add( centipede );
-                }
-
-                centipede = centipede.getTail();
-            }
-        }
-    }
-
-    // Animate centipedes over the provided time slice.
-    private void animateCentipedes( long elapsedTimeMillis ) {
-        // Normalize the elapsed time as a fraction of 1 second.
-        float interval = TimeUtil.millisToIntervalOfSeconds( elapsedTimeMillis );
-
-        // Obtain centipede speed value.
-        Float centipedeSpeedValue = getNullCoalescedValue( centipedeSpeed, CENTIPEDE_START_SPEED );
-
-        // Animate each centipede, including its tails and their tails.
-        for( Centipede centipede : CENTIPEDES ) while( centipede != null ) {
-            // Generate a new position for it based on current position, direction, and speed.
-            Point nextPosition = new Point(
-                centipede.getPosition().x + centipedeSpeedValue * interval * centipede.getDirection().x,
-                centipede.getPosition().y + centipedeSpeedValue * interval * centipede.getDirection().y
-            );
-
-            // Animate through holes to change above/below-ground layer.
-            animateThroughHoles( centipede, nextPosition );
-            /*
-             Get new directions from turns at approach, change trajectory through them, and
-             rotate smoothing around them.
-            */
-            approachTurns( centipede, nextPosition );
-            animateThroughTurns( centipede, nextPosition );
-            rotateAroundTurns( centipede, interval );
-
-            centipede = centipede.getTail();
+    /*
+    Save the replay of the game just over to a file, so it can be played back exactly.  Failing to
+    save a replay should never get in the way of the game, so any failure is only logged.
+    */
+    public void saveReplay( File file ) {
+        // Guard against saving a replay of a game not yet over.
+        if( !replay.getIsFinished() ) return;
+
+        try( OutputStream outputStream = new FileOutputStream( file ) ) {
+            replay.writeTo( outputStream );
+        } catch( IOException e ) {
+            if( LoggerUtil.DEBUGGING ) Log.wtf( TAG, "REPLAY NOT SAVED - " + e.getMessage() );
         }
     }
 
-    // Animate the centipede through any hole it encountered on its heading.
-    private void animateThroughHoles( Centipede centipede, Point nextPosition ) {
-        // Check each hole to see if the centipede passed over/under it.
-        for( Point hole : HOLES ) {
-            // Ignore holes that the centipede did not pass over/under.
-            if( !hole.intersectsPathOf( centipede.getPosition(), nextPosition ) ) continue;
+    /*
+    The following methods adapt the results of stepping the world to mutable live data and sound.
+    They are called on the thread that loops the game, so scoring and timing only mark the snapshot
+    stale for the loop to publish later, and anything else is posted rather than set.
+    */
 
-            centipede.toggleAbove(); break;
+    @Override public void onScoreChanged( int score ) { isSnapshotStale = true; }
+    @Override public void onRoundsChanged( int rounds ) { isSnapshotStale = true; }
+    @Override public void onCentipedeSpeedChanged( float centipedeSpeed ) { isSnapshotStale = true; }
+
+    @Override public void onTimeChanged( long elapsedTimeMillis, long remainingTimeMillis ) {
+        // Mark the snapshot stale only when whole seconds of elapsed or remaining time change.
+        if(
+            elapsedTimeMillis / 1_000L != snapshotElapsedSeconds ||
+            remainingTimeMillis / 1_000L != snapshotRemainingSeconds
+        ) {
+            snapshotElapsedSeconds = elapsedTimeMillis / 1_000L;
+            snapshotRemainingSeconds = remainingTimeMillis / 1_000L;
+            isSnapshotStale = true;
         }
     }
 
-    // Get a new direction from the encountered turn, excluding going backwards.
-    private Vector getNewDirectionForTurn( Point turn, Vector currentDirection ) {
-        // ist for new directions.
-        List< Vector > newDirections = new ArrayList<>();
-
-        /*
-        Add up if the current direction is not down and it would not lead off the lawn based on
-        the current position of the turn.
-        */
-        if( turn.y != 0.0f + CELL_NORMAL_HEIGHT * 5.0f )
-            if( !currentDirection.equals( Vector.down ) )
-                newDirections.add( Vector.up );
-
-        // Remaining directions added similarly to the above.
-
-        if( turn.y != 0.0f - CELL_NORMAL_HEIGHT * 5.0f )
-            if( !currentDirection.equals( Vector.up ) )
-                newDirections.add( Vector.down );
-
-        if( turn.x != 0.0f - CELL_NORMAL_WIDTH * 3.0f )
-            if( !currentDirection.equals( Vector.right ) )
-                newDirections.add( Vector.left );
-
-        if( turn.x != 0.0f + CELL_NORMAL_WIDTH * 3.0f )
-            if( !currentDirection.equals( Vector.left ) )
-                newDirections.add( Vector.right );
-
-        // Return a random direction from the ones added to the list.
-        return newDirections.get( random.nextInt( newDirections.size() ) );
-    }
-
-    // Smoothly rotate the centipede as it navigates turns.
-    private void rotateAroundTurns( Centipede centipede, float interval ) {
-        // Get its rotation percentage and the factor to add or subtract from it for the time slice.
-        float rotationPercentage = centipede.getRotationPercentage();
-        float rotationFactor = 1.0f / CELL_NORMAL_WIDTH * interval;
+    @Override public void onHit( int segmentsKilled ) { SoundUtil.playHit( segmentsKilled ); }
+    @Override public void onMiss() { SoundUtil.playMiss(); }
 
-        // Increase or decrease the rotation percentage by the factor based on rotation trajectory.
-        if( rotationPercentage > 0.0f && rotationPercentage <= 1.0f )
-            centipede.setRotationPercentage( rotationPercentage - rotationFactor );
-        else if( rotationPercentage < 0.0f && rotationPercentage >= -1.0f )
-            centipede.setRotationPercentage( rotationPercentage + rotationFactor );
+    @Override public void onPowerUp( PowerUp.Kind kind ) {
+        if( LoggerUtil.DEBUGGING ) Log.wtf( TAG, "POWER UP - " + kind );
 
-        // Rotate it by it target rotation less the percentage 90 degrees for the time slice.
-        centipede.setRotation( centipede.getTargetRotation() - 90.0f * rotationPercentage );
-    }
-
-    // Get a new direction from a turn as the centipede approaches it so it can begin rotation.
-    private void approachTurns( Centipede centipede, Point nextPosition ) {
-        // Cache previous position for speedier access.
-        Point previousPosition = centipede.getPosition();
-        // Cache direction for speedier access.
-        Vector direction = centipede.getDirection();
-        // Point of approach is ahead of centipede center.
-        Point previousApproach;
-        Point nextApproach;
-
-        // Find the approach or leading edge based on the centipede's current direction.
-        if( direction == Vector.down ) {
-            previousApproach = new Point( previousPosition.x, previousPosition.y - CELL_NORMAL_RADIUS );
-            nextApproach = new Point( nextPosition.x, nextPosition.y - CELL_NORMAL_RADIUS );
-        } else if( direction == Vector.up ) {
-            previousApproach = new Point( previousPosition.x, previousPosition.y + CELL_NORMAL_RADIUS );
-            nextApproach = new Point( nextPosition.x, nextPosition.y + CELL_NORMAL_RADIUS );
-        } else if( direction == Vector.left ) {
-            previousApproach = new Point( previousPosition.x - CELL_NORMAL_RADIUS, previousPosition.y );
-            nextApproach = new Point( nextPosition.x - CELL_NORMAL_RADIUS, nextPosition.y );
-        } else {
-            previousApproach = new Point( previousPosition.x + CELL_NORMAL_RADIUS, previousPosition.y );
-            nextApproach = new Point( nextPosition.x + CELL_NORMAL_RADIUS, nextPosition.y );
-        }
-
-        // Check each turn to see if it was traversed.
-        for( Point turn : TURNS ) {
-            // Disregard turns that the centipede did not approach.
-            if( !turn.intersectsPathOf( previousApproach, nextApproach ) ) continue;
-
-            // Heads get their own direction from the turn, while tails follow their heads.
-            if( centipede.getIsHead() )
-                centipede.setNextDirection( getNewDirectionForTurn( turn, direction ) );
-            else
-                centipede.setNextDirection( centipede.getHead().getNextDirection() );
-
-            // Get the centipede's next direction after changing it.
-            Vector nextDirection = centipede.getNextDirection();
-
-            // Default not to rotate in case heading remains the same.
-            centipede.setRotationPercentage( 0.0f );
-
-            // The centipede's current direction matches the new one, no need to rotate.
-            if( nextDirection == direction ) break;
-
-            // Otherwise, set it up to start rotating for the turn.
-            if( nextDirection == Vector.down ) {
-                if( direction == Vector.left )
-                    centipede.setRotationPercentage( 1.0f );
-                else
-                    centipede.setRotationPercentage( -1.0f );
-            } else if( nextDirection == Vector.up ) {
-                if( direction == Vector.left )
-                    centipede.setRotationPercentage( -1.0f );
-                else
-                    centipede.setRotationPercentage( 1.0f );
-            } else if( nextDirection == Vector.left ) {
-                if( direction == Vector.down )
-                    centipede.setRotationPercentage( -1.0f );
-                else
-                    centipede.setRotationPercentage( 1.0f );
-            } else {
-                if( direction == Vector.down )
-                    centipede.setRotationPercentage( 1.0f );
-                else
-                    centipede.setRotationPercentage( -1.0f );
-            }
-        }
+        SoundUtil.playPowerUp();
     }
 
-    // Change the centipede's trajectory through any turn it encountered on its heading.
-    private void animateThroughTurns( Centipede centipede, Point nextPosition ) {
-        // Cache previous position for speedier access.
-        Point previousPosition = centipede.getPosition();
-        // Get the centipede's direction before changing it.
-        Vector previousDirection = centipede.getDirection();
-
-        // Check each turn to see if it was traversed.
-        for( Point turn : TURNS ) {
-            // Disregard turns that the centipede did not traverse.
-            if( !turn.intersectsPathOf( previousPosition, nextPosition ) ) continue;
-
-            // Use new direction gotten from turn at approach.
-            centipede.setDirection( centipede.getNextDirection() );
-
-            // Get the centipede's direction after changing it.
-            Vector nextDirection = centipede.getDirection();
-
-            // The centipede's previous direction matches the new one, keep it on course.
-            if( nextDirection == previousDirection ) break;
-
-            // No need to bend the centipede's path around the turn if its path ends dead on it.
-            if( turn.equals( nextPosition ) ) break;
-
-            // Handle the head case.
-            if( centipede.getIsHead() ) {
-                // Travel past the turn to be applied in the new direction after it.
-                float travelAfterTurn;
-
-                // Travel after turn is difference between X or Y axes depending on direction.
-                if( turn.wasPassedVertically( previousPosition, nextPosition ) ) {
-                    travelAfterTurn = Math.abs( nextPosition.y - turn.y );
-                } else  {
-                    travelAfterTurn = Math.abs( nextPosition.x - turn.x );
-                }
-
-                // Change the next position based on travel after turn in new direction.
-                if( nextDirection.equals( Vector.up ) ) {
-                    nextPosition = new Point( turn.x, nextPosition.y + travelAfterTurn );
-                } else if( nextDirection.equals( Vector.down ) ) {
-                    nextPosition = new Point( turn.x, nextPosition.y - travelAfterTurn );
-                } else if( nextDirection.equals( Vector.left ) ) {
-                    nextPosition = new Point( nextPosition.x - travelAfterTurn, turn.y );
-                } else {
-                    nextPosition = new Point( nextPosition.x + travelAfterTurn, turn.y );
-                }
-
-                break;
-            }
-
-            // Handle the tail case, based on the head's position.
-            Point headPosition = centipede.getHead().getPosition();
-
-            // Change the position based on the head's distance already past the turn.
-            if( nextDirection.equals( Vector.up ) ) {
-                nextPosition = new Point( turn.x, headPosition.y - CENTIPEDE_NORMAL_HEIGHT );
-            } else if( nextDirection.equals( Vector.down ) ) {
-                nextPosition = new Point( turn.x, headPosition.y + CENTIPEDE_NORMAL_HEIGHT );
-            } else if( nextDirection.equals( Vector.left ) ) {
-                nextPosition = new Point( headPosition.x + CENTIPEDE_NORMAL_WIDTH, turn.y );
-            } else {
-                nextPosition = new Point( headPosition.x - CENTIPEDE_NORMAL_WIDTH, turn.y );
-            }
-
-            break;
-        }
+    @Override public void onNewRound() { SoundUtil.playNewRound(); }
 
-        // Set the centipede's new position.
-        centipede.setPosition( nextPosition );
+    // The game is finished once the step that ended it is done, so only sound is played here.
+    @Override public void onGameOver() {
+        // Play an appropriate sound.
+        SoundUtil.playGameOver();
+        SoundUtil.stopMusic();
     }
 }
@@ -0,0 +1,27 @@
+#version 300 es
+
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+// OpenGL ES 3.0 shaders must declare their version before anything else, even comments.
+
+// Use medium precision in floating point calculations, as for every other fragment shader.
+precision mediump float;
+
+// Texture to apply uniformly for texture coordinates.
+uniform sampler2D u_TextureUnit;
+
+// Coordinates into texture to apply to the various fragments.
+in vec2 v_TextureCoordinates;
+
+// Color of the fragment.
+out vec4 o_FragColor;
+
+void main() {
+    // Use the color of the texture at the specified coordinates to color the fragment.
+    o_FragColor = texture( u_TextureUnit, v_TextureCoordinates );
+}
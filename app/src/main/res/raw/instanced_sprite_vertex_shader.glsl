@@ -0,0 +1,41 @@
+#version 300 es
+
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+// OpenGL ES 3.0 shaders must declare their version before anything else, even comments.
+
+// Matrix to multiply against every position uniformly.
+uniform mat4 u_Matrix;
+
+// Position of a vertex as a corner of a unit square around the origin, shared by every sprite.
+in vec2 a_Position;
+// Coordinates into the unit square for a particular vertex.
+in vec2 a_TextureCoordinates;
+// Center of the sprite in the scene, its counterclockwise rotation in radians, and its size.
+in vec2 a_Center;
+in float a_Rotation;
+in vec2 a_Size;
+// Region of the texture atlas for the sprite, as the left, top, right, and bottom coordinates.
+in vec4 a_Region;
+// Coordinates into a texture for resulting fragment.
+out vec2 v_TextureCoordinates;
+
+void main() {
+    // Map the coordinates into the unit square onto the region of the atlas.
+    v_TextureCoordinates = mix( a_Region.xy, a_Region.zw, a_TextureCoordinates );
+
+    // Stretch the corner to the size of the sprite and rotate it around the center.
+    vec2 corner = a_Position * a_Size;
+    float cosine = cos( a_Rotation );
+    float sine = sin( a_Rotation );
+
+    corner = vec2( corner.x * cosine - corner.y * sine, corner.x * sine + corner.y * cosine );
+
+    // Move the corner to the center and multiply the uniform matrix against it.
+    gl_Position = u_Matrix * vec4( a_Center + corner, 0.0, 1.0 );
+}
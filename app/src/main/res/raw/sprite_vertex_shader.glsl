@@ -0,0 +1,36 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+// Matrix to multiply against every position uniformly.
+uniform mat4 u_Matrix;
+
+// Position of a vertex as a corner of its sprite, relative to the sprite's center.
+attribute vec2 a_Position;
+// Coordinates into a texture for a particular vertex.
+attribute vec2 a_TextureCoordinates;
+// Center of the sprite in the scene, and its counterclockwise rotation in radians.
+attribute vec2 a_Center;
+attribute float a_Rotation;
+// Coordinates into a texture for resulting fragment.
+varying vec2 v_TextureCoordinates;
+
+void main() {
+    // Pass the texture coordinates as is.
+    v_TextureCoordinates = a_TextureCoordinates;
+
+    // Rotate the corner around the center.
+    float cosine = cos( a_Rotation );
+    float sine = sin( a_Rotation );
+
+    vec2 corner = vec2(
+        a_Position.x * cosine - a_Position.y * sine,
+        a_Position.x * sine + a_Position.y * cosine
+    );
+
+    // Move the corner to the center and multiply the uniform matrix against it.
+    gl_Position = u_Matrix * vec4( a_Center + corner, 0.0, 1.0 );
+}
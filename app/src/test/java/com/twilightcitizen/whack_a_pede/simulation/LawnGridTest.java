@@ -0,0 +1,122 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.simulation;
+
+import com.twilightcitizen.whack_a_pede.geometry.Point;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/*
+Equivalence test for the lawn lattice.  Paths along columns and rows no longer than one cell, from
+and to random places on and between the lines, must resolve to the same turn the lattice finds as
+testing every turn of the lawn in order with Point.intersectsPathOf, the way it was done before.
+*/
+public class LawnGridTest {
+    // Paths tested along each axis.
+    private static final int PATHS = 200_000;
+
+    // Spacing between the lines of the lawn the world plays on.
+    private static final float WIDTH = WhackAPedeWorld.CELL_NORMAL_WIDTH;
+    private static final float HEIGHT = WhackAPedeWorld.CELL_NORMAL_HEIGHT;
+
+    // Lattice over the lawn the world plays on.
+    private static final LawnGrid GRID = new LawnGrid( 7, 11, WIDTH, HEIGHT );
+
+    // Find the first turn crossed by testing every turn in order, or NONE.
+    private static int findCrossedTurnByTesting( Point previous, Point next ) {
+        for( int turn = 0; turn < WhackAPedeWorld.TURNS.length; turn++ )
+            if( WhackAPedeWorld.TURNS[ turn ].intersectsPathOf( previous, next ) ) return turn;
+
+        return LawnGrid.NONE;
+    }
+
+    // Positions of the column and row lines, exactly as the lattice places its turns.
+    private static final float[] LINES_X = new float[ GRID.getColumns() ];
+    private static final float[] LINES_Y = new float[ GRID.getRows() ];
+
+    static {
+        for( int column = 0; column < LINES_X.length; column++ )
+            LINES_X[ column ] = GRID.getPosition( GRID.getTurn( column, 0 ) ).x;
+
+        for( int row = 0; row < LINES_Y.length; row++ )
+            LINES_Y[ row ] = GRID.getPosition( GRID.getTurn( 0, row ) ).y;
+    }
+
+    /*
+    Position along an axis at random, on a line half the time and anywhere in the span of the lines
+    the rest of the time.
+    */
+    private static float randomPosition( Random random, float[] lines ) {
+        if( random.nextBoolean() ) return lines[ random.nextInt( lines.length ) ];
+
+        return lines[ 0 ] + random.nextFloat() * ( lines[ lines.length - 1 ] - lines[ 0 ] );
+    }
+
+    /*
+    Step along an axis at random, no longer than one cell, landing exactly on the next line over
+    now and then when starting on one.
+    */
+    private static float randomStep( Random random, float from, float[] lines, float spacing ) {
+        boolean isForward = random.nextBoolean();
+
+        for( int line = 0; line < lines.length && random.nextInt( 4 ) == 0; line++ ) {
+            if( Float.compare( lines[ line ], from ) != 0 ) continue;
+
+            int next = isForward ? line + 1 : line - 1;
+
+            if( next >= 0 && next < lines.length ) return lines[ next ];
+        }
+
+        float step = random.nextFloat() * spacing;
+
+        return isForward ? from + step : from - step;
+    }
+
+    @Test public void findCrossedTurn_matchesTestingEveryTurnAlongColumns() {
+        Random random = new Random( 1L );
+
+        for( int path = 0; path < PATHS; path++ ) {
+            float x = randomPosition( random, LINES_X );
+            float fromY = randomPosition( random, LINES_Y );
+            float toY = randomStep( random, fromY, LINES_Y, HEIGHT );
+
+            assertEquals(
+                findCrossedTurnByTesting( new Point( x, fromY ), new Point( x, toY ) ),
+                GRID.findCrossedTurn( x, fromY, x, toY )
+            );
+        }
+    }
+
+    @Test public void findCrossedTurn_matchesTestingEveryTurnAlongRows() {
+        Random random = new Random( 2L );
+
+        for( int path = 0; path < PATHS; path++ ) {
+            float y = randomPosition( random, LINES_Y );
+            float fromX = randomPosition( random, LINES_X );
+            float toX = randomStep( random, fromX, LINES_X, WIDTH );
+
+            assertEquals(
+                findCrossedTurnByTesting( new Point( fromX, y ), new Point( toX, y ) ),
+                GRID.findCrossedTurn( fromX, y, toX, y )
+            );
+        }
+    }
+
+    // Centipedes and power ups never move more than a cell in a step, which the equivalence needs.
+    @Test public void maxSpeed_movesNoMoreThanOneCellEachStep() {
+        float stepDistance =
+            WhackAPedeWorld.CENTIPEDE_MAX_SPEED * SimulationClock.STEP_MILLIS / 1_000.0f;
+
+        assertTrue( stepDistance <= WIDTH );
+        assertTrue( stepDistance <= HEIGHT );
+    }
+}
@@ -0,0 +1,181 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.simulation;
+
+import com.twilightcitizen.whack_a_pede.geometry.Point;
+import com.twilightcitizen.whack_a_pede.models.PowerUp;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/*
+Round trip test for replays.  A whole game is played with touches at random steps and places while
+being recorded, the recording is written out and read back in, and playing it back into a fresh
+world must end in exactly the same place, down to the bits of every segment left on the lawn.
+*/
+public class ReplayTest {
+    // Most steps any game should take before the clock runs out.
+    private static final int MAX_STEPS = 1_000_000;
+
+    // One in so many steps touches the lawn.
+    private static final int TOUCH_ODDS = 100;
+
+    // Most games played looking for one that scores in its last step.
+    private static final long SEEDS = 100L;
+
+    // Listener that ignores everything.
+    private static final WorldListener IGNORING_LISTENER = new WorldListener() {
+        @Override public void onScoreChanged( int score ) {}
+        @Override public void onRoundsChanged( int rounds ) {}
+        @Override public void onCentipedeSpeedChanged( float centipedeSpeed ) {}
+        @Override public void onTimeChanged( long elapsedTimeMillis, long remainingTimeMillis ) {}
+        @Override public void onHit( int segmentsKilled ) {}
+        @Override public void onMiss() {}
+        @Override public void onPowerUp( PowerUp.Kind kind ) {}
+        @Override public void onNewRound() {}
+        @Override public void onGameOver() {}
+    };
+
+    // Listener keeping the score as it was when the world reported the game over.
+    private static class GameOverListener implements WorldListener {
+        private int score;
+        private int scoreAtGameOver = -1;
+
+        @Override public void onScoreChanged( int score ) { this.score = score; }
+        @Override public void onRoundsChanged( int rounds ) {}
+        @Override public void onCentipedeSpeedChanged( float centipedeSpeed ) {}
+        @Override public void onTimeChanged( long elapsedTimeMillis, long remainingTimeMillis ) {}
+        @Override public void onHit( int segmentsKilled ) {}
+        @Override public void onMiss() {}
+        @Override public void onPowerUp( PowerUp.Kind kind ) {}
+        @Override public void onNewRound() {}
+        @Override public void onGameOver() { scoreAtGameOver = score; }
+    }
+
+    /*
+    Play a whole game, touching segments at random, recording it as the view model does, and
+    finishing the replay once the step that ended the game is done.  Every segment on the lawn is
+    touched in the last step where asked, to change the score after the game over is reported.
+    */
+    private static WhackAPedeWorld record(
+        Replay replay, long seed, WorldListener listener, boolean isTouchingAllInLastStep
+    ) {
+        WhackAPedeWorld world = new WhackAPedeWorld( seed, listener );
+        Random touchRandom = new Random( seed );
+        List< Point > touches = new ArrayList<>();
+
+        replay.start( world.getSeed() );
+        world.start();
+
+        for( int step = 0; step < MAX_STEPS; step++ ) {
+            touches.clear();
+
+            SegmentStore segments = world.getSegments();
+            boolean isLastStep = world.getRemainingTimeMillis() <= SimulationClock.STEP_MILLIS;
+
+            if( isTouchingAllInLastStep && isLastStep ) {
+                for( int segment = 0; segment < segments.getCount(); segment++ )
+                    touches.add( new Point( segments.getX( segment ), segments.getY( segment ) ) );
+            } else if( touchRandom.nextInt( TOUCH_ODDS ) == 0 && !segments.isEmpty() ) {
+                // Now and then, touch some segment on the lawn, whether or not it can be hit.
+                int segment = touchRandom.nextInt( segments.getCount() );
+
+                touches.add( new Point( segments.getX( segment ), segments.getY( segment ) ) );
+            }
+
+            replay.record( world.getTicks(), touches );
+            world.step( SimulationClock.STEP_MILLIS, touches );
+
+            if( !world.getIsOver() ) continue;
+
+            replay.finish( world.getTicks(), world.getScore() );
+
+            break;
+        }
+
+        return world;
+    }
+
+    // Assert two worlds left exactly the same segments on the lawn.
+    private static void assertSameSegments( WhackAPedeWorld expected, WhackAPedeWorld actual ) {
+        SegmentStore expectedSegments = expected.getSegments();
+        SegmentStore actualSegments = actual.getSegments();
+
+        assertEquals( expectedSegments.getCount(), actualSegments.getCount() );
+
+        for( int segment = 0; segment < expectedSegments.getCount(); segment++ ) {
+            assertEquals(
+                Float.floatToIntBits( expectedSegments.getX( segment ) ),
+                Float.floatToIntBits( actualSegments.getX( segment ) )
+            );
+
+            assertEquals(
+                Float.floatToIntBits( expectedSegments.getY( segment ) ),
+                Float.floatToIntBits( actualSegments.getY( segment ) )
+            );
+        }
+    }
+
+    @Test public void play_reproducesRecordedGameExactly() throws IOException {
+        Replay replay = new Replay();
+        WhackAPedeWorld recorded = record( replay, 42L, IGNORING_LISTENER, false );
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // The recorded game must have actually been played to the end.
+        assertTrue( recorded.getIsOver() );
+        assertTrue( replay.getTouchCount() > 0 );
+
+        replay.writeTo( output );
+
+        Replay readReplay = Replay.readFrom( new ByteArrayInputStream( output.toByteArray() ) );
+        WhackAPedeWorld played = readReplay.play( IGNORING_LISTENER );
+
+        assertEquals( replay.getSeed(), readReplay.getSeed() );
+        assertEquals( replay.getTouchCount(), readReplay.getTouchCount() );
+        assertTrue( readReplay.matches( played ) );
+        assertTrue( played.getIsOver() );
+        assertEquals( recorded.getRounds(), played.getRounds() );
+        assertEquals( recorded.getElapsedTimeMillis(), played.getElapsedTimeMillis() );
+        assertSameSegments( recorded, played );
+    }
+
+    /*
+    Scoring in the step that ends the game happens after the world reports the game over, so the
+    replay must match a game whose score changed in its last step.
+    */
+    @Test public void play_matchesGameScoringInLastStep() {
+        for( long seed = 1L; seed <= SEEDS; seed++ ) {
+            Replay replay = new Replay();
+            GameOverListener listener = new GameOverListener();
+            WhackAPedeWorld recorded = record( replay, seed, listener, true );
+
+            // Only games whose score changed in the last step show anything.
+            if( recorded.getScore() == listener.scoreAtGameOver ) continue;
+
+            assertTrue( replay.getIsFinished() );
+            assertEquals( recorded.getScore(), replay.getScore() );
+            assertTrue( replay.matches( replay.play( IGNORING_LISTENER ) ) );
+
+            return;
+        }
+
+        fail( "No Game Scored in Last Step" );
+    }
+
+    @Test( expected = IOException.class ) public void readFrom_rejectsNonReplay() throws IOException {
+        Replay.readFrom( new ByteArrayInputStream( new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 } ) );
+    }
+}
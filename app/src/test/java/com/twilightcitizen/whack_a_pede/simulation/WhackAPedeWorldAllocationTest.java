@@ -0,0 +1,114 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.simulation;
+
+import com.twilightcitizen.whack_a_pede.geometry.Point;
+import com.twilightcitizen.whack_a_pede.models.PowerUp;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+/*
+Allocation regression test for the game loop.  The world is stepped long enough to see every kind
+of event in play, centipedes killed and split, rounds won, and power ups added and taken, and then
+the bytes allocated by the stepping thread are measured over many more steps.  Any allocation in
+steady state is garbage that the collector must eventually pause the game to clean up.  The JIT
+compiler can allocate a few bytes on the stepping thread whenever it swaps code in or out, so the
+measurement is repeated over several windows and only fails if none of them allocates nothing.
+*/
+public class WhackAPedeWorldAllocationTest {
+    // Steps to take before measuring, so every event has been seen and lazy setup is done.
+    private static final int WARM_UP_STEPS = 200_000;
+
+    // Steps to take in each measured window, and the most windows to measure.
+    private static final int MEASURED_STEPS = 50_000;
+    private static final int MEASURED_WINDOWS = 5;
+
+    // Take touches every so many steps.
+    private static final int STEPS_PER_TOUCH = 7;
+
+    // Touch every turn at once, which kills whatever is above ground near one.
+    private static final List< Point > TOUCHES = Arrays.asList( WhackAPedeWorld.TURNS );
+    private static final List< Point > NO_TOUCHES = Collections.emptyList();
+
+    // Listener that ignores everything but counts rounds and power ups to prove they happened.
+    private static class CountingListener implements WorldListener {
+        int newRounds;
+        int powerUps;
+
+        @Override public void onScoreChanged( int score ) {}
+        @Override public void onRoundsChanged( int rounds ) {}
+        @Override public void onCentipedeSpeedChanged( float centipedeSpeed ) {}
+        @Override public void onTimeChanged( long elapsedTimeMillis, long remainingTimeMillis ) {}
+        @Override public void onHit( int segmentsKilled ) {}
+        @Override public void onMiss() {}
+        @Override public void onPowerUp( PowerUp.Kind kind ) { powerUps++; }
+        @Override public void onNewRound() { newRounds++; }
+        @Override public void onGameOver() {}
+    }
+
+    // Step the world some number of times, touching every so many steps.
+    private static void step( WhackAPedeWorld world, int steps ) {
+        for( int step = 0; step < steps; step++ )
+            world.step( SimulationClock.STEP_MILLIS, step % STEPS_PER_TOUCH == 0 ? TOUCHES : NO_TOUCHES );
+    }
+
+    @Test public void step_allocatesNothingInSteadyState() {
+        java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+        // Guard against JVMs that cannot measure allocation per thread.
+        assumeTrue( threadMXBean instanceof com.sun.management.ThreadMXBean );
+
+        com.sun.management.ThreadMXBean allocations =
+            (com.sun.management.ThreadMXBean) threadMXBean;
+
+        assumeTrue( allocations.isThreadAllocatedMemorySupported() );
+        allocations.setThreadAllocatedMemoryEnabled( true );
+
+        CountingListener listener = new CountingListener();
+        WhackAPedeWorld world = new WhackAPedeWorld( 1L, listener );
+        long threadId = Thread.currentThread().getId();
+
+        world.start();
+        step( world, WARM_UP_STEPS );
+
+        // Fewest bytes allocated in any window.
+        long fewestAllocated = Long.MAX_VALUE;
+
+        for( int window = 0; window < MEASURED_WINDOWS && fewestAllocated != 0L; window++ ) {
+            int newRounds = listener.newRounds;
+            int powerUps = listener.powerUps;
+
+            // Measure the cost of measuring so it can be taken out.
+            long overhead = -allocations.getThreadAllocatedBytes( threadId );
+            overhead += allocations.getThreadAllocatedBytes( threadId );
+
+            long before = allocations.getThreadAllocatedBytes( threadId );
+
+            step( world, MEASURED_STEPS );
+
+            long allocated = allocations.getThreadAllocatedBytes( threadId ) - before - overhead;
+
+            // The measured steps must have actually played the game.
+            assertFalse( world.getIsOver() );
+            assertTrue( listener.newRounds > newRounds );
+            assertTrue( listener.powerUps > powerUps );
+
+            fewestAllocated = Math.min( fewestAllocated, allocated );
+        }
+
+        assertEquals( 0L, fewestAllocated );
+    }
+}
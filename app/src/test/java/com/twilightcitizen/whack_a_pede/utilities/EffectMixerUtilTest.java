@@ -0,0 +1,159 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.utilities;
+
+import com.twilightcitizen.whack_a_pede.utilities.EffectMixerUtil.Effect;
+import com.twilightcitizen.whack_a_pede.utilities.EffectMixerUtil.Stealing;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/*
+Behavior test for the effect mixer.  Effects are played through a fake output that records every
+effect played and stopped, and plays each for far longer than any test runs, so every voice stays
+busy until something stops or steals it.
+*/
+public class EffectMixerUtilTest {
+    // Nanoseconds every effect plays for, longer than any test runs.
+    private static final long DURATION_NANOS = 60_000_000_000L;
+
+    // Output recording every effect played, at what volume, and every handle stopped.
+    private static class FakeOutput implements EffectMixerUtil.Output {
+        private final List< Effect > effects = new ArrayList<>();
+        private final List< Float > volumes = new ArrayList<>();
+        private final List< Integer > stopped = new ArrayList<>();
+
+        @Override public int play( Effect effect, int priority, float volume ) {
+            effects.add( effect );
+            volumes.add( volume );
+
+            return effects.size();
+        }
+
+        @Override public void stop( int handle ) { stopped.add( handle ); }
+
+        @Override public long getDurationNanos( Effect effect ) { return DURATION_NANOS; }
+    }
+
+    private FakeOutput output;
+
+    // Start every test with a fresh output, which the next flush changes to, leaving voices free.
+    @Before public void setUp() {
+        EffectMixerUtil.setVoiceCount( 1 );
+        output = new FakeOutput();
+        EffectMixerUtil.setOutput( output );
+    }
+
+    // Play an effect asked for some times over in a step of its own, returning the volume played.
+    private float playAlone( Effect effect, int count ) {
+        EffectMixerUtil.request( effect, count );
+        EffectMixerUtil.flush( 1.0f );
+
+        return output.volumes.get( output.volumes.size() - 1 );
+    }
+
+    @Test public void flush_coalescesEffectAskedForManyTimesIntoOnePlay() {
+        EffectMixerUtil.request( Effect.hit, 3 );
+        EffectMixerUtil.request( Effect.hit, 2 );
+        EffectMixerUtil.flush( 1.0f );
+
+        assertEquals( 1, output.effects.size() );
+        assertEquals( Effect.hit, output.effects.get( 0 ) );
+    }
+
+    @Test public void flush_playsLouderForMoreTimesAskedForAtFullVolume() {
+        float once = playAlone( Effect.hit, 1 );
+        float twice = playAlone( Effect.hit, 2 );
+        float fiveTimes = playAlone( Effect.hit, 5 );
+        float tenTimes = playAlone( Effect.hit, 10 );
+
+        assertTrue( once < twice );
+        assertTrue( twice < fiveTimes );
+        assertTrue( fiveTimes < tenTimes );
+        assertTrue( tenTimes <= 1.0f );
+    }
+
+    @Test public void flush_neverPlaysBeyondVolumeGiven() {
+        EffectMixerUtil.request( Effect.hit, 1_000 );
+        EffectMixerUtil.flush( 0.5f );
+
+        assertTrue( output.volumes.get( 0 ) <= 0.5f );
+    }
+
+    @Test public void flush_playsHighestPriorityFirst() {
+        EffectMixerUtil.setVoiceCount( 3 );
+        EffectMixerUtil.request( Effect.miss, 1 );
+        EffectMixerUtil.request( Effect.gameOver, 1 );
+        EffectMixerUtil.request( Effect.hit, 1 );
+        EffectMixerUtil.flush( 1.0f );
+
+        assertEquals( Effect.gameOver, output.effects.get( 0 ) );
+        assertEquals( Effect.hit, output.effects.get( 1 ) );
+        assertEquals( Effect.miss, output.effects.get( 2 ) );
+    }
+
+    @Test public void flush_playsEffectStillPlayingAgainOnItsVoice() {
+        playAlone( Effect.hit, 1 );
+        playAlone( Effect.hit, 1 );
+
+        assertEquals( 2, output.effects.size() );
+        assertEquals( 1, output.stopped.size() );
+        assertEquals( 1, (int) output.stopped.get( 0 ) );
+    }
+
+    @Test public void flush_stealsVoiceFromLowerPriority() {
+        playAlone( Effect.miss, 1 );
+        playAlone( Effect.hit, 1 );
+
+        assertEquals( Effect.hit, output.effects.get( 1 ) );
+        assertEquals( 1, (int) output.stopped.get( 0 ) );
+    }
+
+    @Test public void flush_dropsEffectThatNeverSteals() {
+        playAlone( Effect.hit, 1 );
+        EffectMixerUtil.request( Effect.miss, 1 );
+        EffectMixerUtil.flush( 1.0f );
+
+        assertEquals( 1, output.effects.size() );
+        assertTrue( output.stopped.isEmpty() );
+    }
+
+    @Test public void flush_dropsEffectStealingFromLowerOnlyWhenPriorityEqual() {
+        playAlone( Effect.powerUp, 1 );
+        EffectMixerUtil.setRule( Effect.hit, 2, Stealing.lower );
+
+        try {
+            EffectMixerUtil.request( Effect.hit, 1 );
+            EffectMixerUtil.flush( 1.0f );
+        } finally {
+            EffectMixerUtil.setRule( Effect.hit, 1, Stealing.lower );
+        }
+
+        assertEquals( 1, output.effects.size() );
+    }
+
+    @Test public void flush_stealsVoiceFromEqualPriorityWhereAllowed() {
+        playAlone( Effect.newRound, 1 );
+        EffectMixerUtil.setRule( Effect.gameOver, 3, Stealing.lowerOrEqual );
+
+        try {
+            EffectMixerUtil.request( Effect.gameOver, 1 );
+            EffectMixerUtil.flush( 1.0f );
+        } finally {
+            EffectMixerUtil.setRule( Effect.gameOver, 4, Stealing.lowerOrEqual );
+        }
+
+        assertEquals( Effect.gameOver, output.effects.get( 1 ) );
+        assertEquals( 1, (int) output.stopped.get( 0 ) );
+    }
+}
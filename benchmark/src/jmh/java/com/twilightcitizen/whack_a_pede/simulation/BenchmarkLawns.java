@@ -0,0 +1,71 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.simulation;
+
+import com.twilightcitizen.whack_a_pede.geometry.Point;
+import com.twilightcitizen.whack_a_pede.models.PowerUp;
+
+import java.util.Random;
+
+import static com.twilightcitizen.whack_a_pede.simulation.WhackAPedeWorld.*;
+
+/*
+BenchmarkLawns sets up worlds and random positions on the lawn for the benchmarks.  Worlds can be
+crowded with far more centipedes than a game ever has at once, to see how stepping them scales.
+*/
+class BenchmarkLawns {
+    // Listener that ignores the results of stepping a world.
+    static final WorldListener IGNORING_LISTENER = new WorldListener() {
+        @Override public void onScoreChanged( int score ) {}
+        @Override public void onRoundsChanged( int rounds ) {}
+        @Override public void onCentipedeSpeedChanged( float centipedeSpeed ) {}
+        @Override public void onTimeChanged( long elapsedTimeMillis, long remainingTimeMillis ) {}
+        @Override public void onHit( int segmentsKilled ) {}
+        @Override public void onMiss() {}
+        @Override public void onPowerUp( PowerUp.Kind kind ) {}
+        @Override public void onNewRound() {}
+        @Override public void onGameOver() {}
+    };
+
+    // Lattice for the default lawn.
+    static LawnGrid createGrid() {
+        return new LawnGrid(
+            (int) LAWN_CELLS_X_AXIS, (int) LAWN_CELLS_Y_AXIS, CELL_NORMAL_WIDTH, CELL_NORMAL_HEIGHT
+        );
+    }
+
+    /*
+    Reset a world and put the given number of centipedes on it at random turns heading in random
+    directions, all on the given above/below-ground layer.
+    */
+    static void populate( WhackAPedeWorld world, int centipedes, boolean isAbove, Random random ) {
+        world.reset();
+
+        for( int centipede = 0; centipede < centipedes; centipede++ ) {
+            Point turn = TURNS[ random.nextInt( TURNS.length ) ];
+
+            world.getSegments().addCentipede(
+                turn.x, turn.y,
+                TurnTable.DIRECTIONS[ random.nextInt( TurnTable.DIRECTIONS.length ) ],
+                isAbove, SEGMENTS_PER_CENTIPEDE
+            );
+        }
+    }
+
+    // Random points within the bounds of the lawn.
+    static Point[] randomPoints( int count, Random random ) {
+        Point[] points = new Point[ count ];
+
+        for( int point = 0; point < count; point++ ) points[ point ] = new Point(
+            ( random.nextFloat() - 0.5f ) * LAWN_NORMAL_WIDTH,
+            ( random.nextFloat() - 0.5f ) * LAWN_NORMAL_HEIGHT
+        );
+
+        return points;
+    }
+}
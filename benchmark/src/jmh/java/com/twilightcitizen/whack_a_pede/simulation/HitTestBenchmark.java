@@ -0,0 +1,54 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.simulation;
+
+import com.twilightcitizen.whack_a_pede.geometry.Point;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+Benchmark of hit testing touches against every segment on the lawn.  All centipedes are kept below
+ground, where touches cannot kill them, so every touch is tested against every segment without the
+lawn changing between invocations.
+*/
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+public class HitTestBenchmark {
+    // Centipedes on the lawn.
+    @Param( { "1", "10", "100", "1000" } ) public int centipedes;
+
+    // Touches tested at once.
+    @Param( { "1", "10" } ) public int touchCount;
+
+    private WhackAPedeWorld world;
+    private List< Point > touches;
+
+    @Setup public void setup() {
+        Random random = new Random( 1L );
+
+        world = new WhackAPedeWorld( 1L, BenchmarkLawns.IGNORING_LISTENER );
+        touches = Arrays.asList( BenchmarkLawns.randomPoints( touchCount, random ) );
+
+        BenchmarkLawns.populate( world, centipedes, false, random );
+    }
+
+    @Benchmark public int killTouchedSegments() { return world.killTouchedSegments( touches ); }
+}
@@ -0,0 +1,100 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.simulation;
+
+import com.twilightcitizen.whack_a_pede.geometry.Point;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.twilightcitizen.whack_a_pede.simulation.WhackAPedeWorld.*;
+
+/*
+Benchmark of finding the turn crossed by a single step along a column or row of the lawn, through
+the geometry of Point one turn at a time, as the world once did for every turn on the lawn, and
+through the lattice lookup of LawnGrid.  Paths are random steps at top speed along random lines,
+so some cross a turn and most do not, as in play.
+*/
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+public class PathBenchmark {
+    // Number of random paths cycled through, a power of two for cheap wrapping.
+    private static final int PATHS = 1_024;
+
+    private final LawnGrid grid = BenchmarkLawns.createGrid();
+
+    private final Point[] previousPositions = new Point[ PATHS ];
+    private final Point[] nextPositions = new Point[ PATHS ];
+    private final Point[] turns = new Point[ PATHS ];
+
+    private int path;
+
+    @Setup public void setup() {
+        Random random = new Random( 1L );
+
+        // Travel of a single step at top speed.
+        float travel = CENTIPEDE_MAX_SPEED * SimulationClock.STEP_MILLIS / 1_000.0f;
+
+        for( int path = 0; path < PATHS; path++ ) {
+            // Start somewhere on a random line, vertical or horizontal, and step along it.
+            Point turn = TURNS[ random.nextInt( TURNS.length ) ];
+            float offset = ( random.nextFloat() - 0.5f ) * CELL_NORMAL_WIDTH;
+            float direction = random.nextBoolean() ? travel : -travel;
+
+            if( random.nextBoolean() ) {
+                previousPositions[ path ] = new Point( turn.x, turn.y + offset );
+                nextPositions[ path ] = new Point( turn.x, turn.y + offset + direction );
+            } else {
+                previousPositions[ path ] = new Point( turn.x + offset, turn.y );
+                nextPositions[ path ] = new Point( turn.x + offset + direction, turn.y );
+            }
+
+            turns[ path ] = turn;
+        }
+    }
+
+    @Benchmark public boolean pointWasPassedVertically() {
+        int path = this.path++ & ( PATHS - 1 );
+
+        return turns[ path ].wasPassedVertically( previousPositions[ path ], nextPositions[ path ] );
+    }
+
+    @Benchmark public boolean pointIntersectsPathOf() {
+        int path = this.path++ & ( PATHS - 1 );
+
+        return turns[ path ].intersectsPathOf( previousPositions[ path ], nextPositions[ path ] );
+    }
+
+    @Benchmark public int scanTurnsForCrossing() {
+        int path = this.path++ & ( PATHS - 1 );
+
+        for( int turn = 0; turn < TURNS.length; turn++ )
+            if( TURNS[ turn ].intersectsPathOf( previousPositions[ path ], nextPositions[ path ] ) )
+                return turn;
+
+        return LawnGrid.NONE;
+    }
+
+    @Benchmark public int gridFindCrossedTurn() {
+        int path = this.path++ & ( PATHS - 1 );
+
+        return grid.findCrossedTurn(
+            previousPositions[ path ].x, previousPositions[ path ].y,
+            nextPositions[ path ].x, nextPositions[ path ].y
+        );
+    }
+}
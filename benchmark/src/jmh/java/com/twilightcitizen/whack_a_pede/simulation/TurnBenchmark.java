@@ -0,0 +1,73 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.simulation;
+
+import com.twilightcitizen.whack_a_pede.geometry.Vector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+Benchmark of picking a new direction when a head or power up reaches a turn, by building the list
+of legal exits anew each time, as the world once did, and by reading them from the TurnTable.
+*/
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+public class TurnBenchmark {
+    // Number of random turns and incoming directions cycled through, a power of two.
+    private static final int ARRIVALS = 1_024;
+
+    private final LawnGrid grid = BenchmarkLawns.createGrid();
+    private final TurnTable turnTable = new TurnTable( grid );
+    private final GameRandom random = new GameRandom( 1L );
+
+    private final int[] turns = new int[ ARRIVALS ];
+    private final Vector[] incomings = new Vector[ ARRIVALS ];
+
+    private int arrival;
+
+    @Setup public void setup() {
+        for( int arrival = 0; arrival < ARRIVALS; arrival++ ) {
+            turns[ arrival ] = random.nextInt( grid.getTurnCount() );
+            incomings[ arrival ] = TurnTable.DIRECTIONS[ random.nextInt( TurnTable.DIRECTIONS.length ) ];
+        }
+    }
+
+    @Benchmark public Vector listExits() {
+        int arrival = this.arrival++ & ( ARRIVALS - 1 );
+        int column = grid.getColumn( turns[ arrival ] );
+        int row = grid.getRow( turns[ arrival ] );
+        Vector incoming = incomings[ arrival ];
+
+        // Build the list of exits as the world once did at every turn.
+        List< Vector > exits = new ArrayList<>();
+
+        if( row != grid.getRows() - 1 && !incoming.equals( Vector.down ) ) exits.add( Vector.up );
+        if( row != 0 && !incoming.equals( Vector.up ) ) exits.add( Vector.down );
+        if( column != 0 && !incoming.equals( Vector.right ) ) exits.add( Vector.left );
+        if( column != grid.getColumns() - 1 && !incoming.equals( Vector.left ) ) exits.add( Vector.right );
+
+        return exits.get( random.nextInt( exits.size() ) );
+    }
+
+    @Benchmark public Vector turnTableRandomExit() {
+        int arrival = this.arrival++ & ( ARRIVALS - 1 );
+
+        return turnTable.getRandomExit( turns[ arrival ], incomings[ arrival ], random );
+    }
+}
@@ -0,0 +1,83 @@
+/*
+Whack-A-Pede
+David A. Clark, Jr.
+Integrated Product Development
+MDV4910-O, C202006-01
+*/
+
+package com.twilightcitizen.whack_a_pede.simulation;
+
+import com.twilightcitizen.whack_a_pede.geometry.Point;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+Benchmark of a single fixed step of the whole world, the unit of work the game loop repeats, with
+lawns crowded by increasing numbers of centipedes and touched at increasing rates.  Touches kill
+segments and the clock runs down, so the lawn is repopulated whenever the game ends or half of its
+segments are gone, which keeps the number of segments stepped roughly steady.
+*/
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+public class WorldStepBenchmark {
+    // Steps taken per second of game time.
+    private static final int STEPS_PER_SECOND = (int) ( 1_000L / SimulationClock.STEP_MILLIS );
+
+    // Number of random touch points cycled through.
+    private static final int TOUCH_POINTS = 1_024;
+
+    // Centipedes on the lawn.
+    @Param( { "1", "10", "100", "1000" } ) public int centipedes;
+
+    // Touches per second of game time.
+    @Param( { "0", "10", "100" } ) public int touchesPerSecond;
+
+    private final Random random = new Random( 1L );
+    private final List< Point > touches = new ArrayList<>();
+
+    private WhackAPedeWorld world;
+    private Point[] touchPoints;
+    private int nextTouchPoint;
+    private int touchCredit;
+
+    @Setup public void setup() {
+        world = new WhackAPedeWorld( 1L, BenchmarkLawns.IGNORING_LISTENER );
+        touchPoints = BenchmarkLawns.randomPoints( TOUCH_POINTS, random );
+
+        BenchmarkLawns.populate( world, centipedes, true, random );
+    }
+
+    @Benchmark public WhackAPedeWorld step() {
+        // Keep the lawn crowded.
+        int minimumSegments = centipedes * WhackAPedeWorld.SEGMENTS_PER_CENTIPEDE / 2;
+
+        if( world.getIsOver() || world.getSegments().getCount() < minimumSegments )
+            BenchmarkLawns.populate( world, centipedes, true, random );
+
+        // Spread touches evenly over the steps of each second.
+        touches.clear();
+        touchCredit += touchesPerSecond;
+
+        while( touchCredit >= STEPS_PER_SECOND ) {
+            touches.add( touchPoints[ nextTouchPoint++ % TOUCH_POINTS ] );
+            touchCredit -= STEPS_PER_SECOND;
+        }
+
+        world.step( SimulationClock.STEP_MILLIS, touches );
+
+        return world;
+    }
+}